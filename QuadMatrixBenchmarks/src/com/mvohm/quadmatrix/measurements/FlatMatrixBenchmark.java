@@ -0,0 +1,106 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the jagged {@code double[][]} and the flat {@link FlatMatrix} layouts of the data set matrices,
+ * for the steps of the generation of a data set and of the checking of a result that depend on the layout:
+ * making a random matrix and multiplying it by a vector and by a matrix with {@link ReferenceKernels},
+ * and finding the errors of a matrix with {@code AuxMethods.findErrors()}.
+ *
+ * Run with {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main FlatMatrixBenchmark -prof gc}
+ * to see the allocations per operation as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FlatMatrixBenchmark {
+
+  public enum Layout { JAGGED, FLAT }
+
+  @Param
+  public Layout layout;
+
+  @Param({"50", "100", "200", "400", "800"})
+  public int size;
+
+  private double[][] jaggedMatrix, actualMatrix;
+  private FlatMatrix flatMatrix;
+  private double[] vector;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    MatrixDataGenerators.setRandomSeed(new Random(size));
+    flatMatrix = MatrixDataGenerators.randomFlatMatrix(size, -1.0, 1.0);
+    jaggedMatrix = flatMatrix.toArray();
+    actualMatrix = flatMatrix.toArray();
+    for (final double[] row : actualMatrix) {
+      row[0] = Math.nextUp(row[0]);
+    }
+    vector = MatrixDataGenerators.randomVector(size, -1.0, 1.0);
+  }
+
+  @Benchmark
+  public Object randomMatrix() {
+    return layout == Layout.FLAT
+        ? MatrixDataGenerators.randomFlatMatrix(size, -1.0, 1.0)
+        : MatrixDataGenerators.randomMatrix(size, -1.0, 1.0);
+  }
+
+  @Benchmark
+  public double[] multiplyByVector() {
+    return layout == Layout.FLAT
+        ? ReferenceKernels.multiply(flatMatrix, vector)
+        : ReferenceKernels.multiply(jaggedMatrix, vector);
+  }
+
+  @Benchmark
+  public double[][] multiplyMatrices() {
+    return layout == Layout.FLAT
+        ? ReferenceKernels.multiply(flatMatrix, actualMatrix)
+        : ReferenceKernels.multiply(jaggedMatrix, actualMatrix);
+  }
+
+  @Benchmark
+  public AuxMethods.ErrorSet findErrors() {
+    return layout == Layout.FLAT
+        ? AuxMethods.findErrors(flatMatrix, actualMatrix)
+        : AuxMethods.findErrors(jaggedMatrix, actualMatrix);
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Shows how the time of multiplication of double matrices used to generate the data sets grows with the size,
+ * for the column-wise {@code MatrixDataGenerators.fastMultiply()} and the cache-blocked {@code tiledMultiply()}.
+ *
+ * A single multiplication of 2000x2000 matrices takes seconds, so every invocation is measured separately.
+ * {@code tileSize} = 0 means the tile size found by {@code MatrixDataGenerators.autoTuneTileSize()}.
+ *
+ * Run with {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main MultiplicationScalingBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MultiplicationScalingBenchmark {
+
+  public enum Engine { COLUMN_WISE, TILED }
+
+  @Param
+  public Engine engine;
+
+  @Param({"100", "200", "400", "800", "1200", "1600", "2000"})
+  public int size;
+
+  @Param({"0"})
+  public int tileSize;
+
+  private double[][] matrixA, matrixB;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (tileSize == 0) {
+      MatrixDataGenerators.autoTuneTileSize();
+    } else {
+      MatrixDataGenerators.setTileSize(tileSize);
+    }
+    MatrixDataGenerators.setRandomSeed(new Random(size));
+    matrixA = MatrixDataGenerators.randomMatrix(size, -1.0, 1.0);
+    matrixB = MatrixDataGenerators.randomMatrix(size, -1.0, 1.0);
+  }
+
+  @Benchmark
+  public double[][] multiply() {
+    return engine == Engine.TILED
+        ? MatrixDataGenerators.tiledMultiply(matrixA, matrixB)
+        : MatrixDataGenerators.fastMultiply(matrixA, matrixB);
+  }
+
+}
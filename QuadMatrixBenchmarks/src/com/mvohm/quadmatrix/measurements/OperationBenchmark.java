@@ -0,0 +1,121 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mvohm.quadmatrix.measurements.CollectStatistics.DataGenerator;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.MatrixTypes;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Operations;
+import com.mvohm.quadmatrix.measurements.OperationKernels.KernelMaker;
+import com.mvohm.quadmatrix.measurements.OperationKernels.MatrixMaker;
+
+/**
+ * JMH counterpart of {@link CollectStatistics}: measures the execution time of the same operations
+ * on the same types of matrices of the same sizes, but leaves forking, warmup, dead code elimination
+ * and the statistics to JMH.
+ *
+ * The data sets are generated by the generators of {@code CollectStatistics.generatorMakers},
+ * and the net time reported by {@link RunBenchmarks} covers only the library call timed by the matching
+ * {@code MatrixData.*Errors()} performer.
+ * Each combination is reported both as average time per operation and as throughput,
+ * with the 99.9% confidence intervals computed by JMH. The operands and the references they are computed from
+ * are prepared in the setup of every iteration; the time of {@link #operation} includes making the matrix,
+ * the time of {@link #construction} is that alone.
+ *
+ * Combinations that CollectStatistics does not implement (e.g. accurate solutions with JAMA)
+ * are rejected in the setup; {@link RunBenchmarks} runs only the implemented ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(3)
+public class OperationBenchmark {
+
+  @Param
+  public Operations operation;
+
+  @Param
+  public MatrixTypes matrixType;
+
+  @Param({"50", "100", "200", "400"})
+  public int size;
+
+  private DataGenerator generator;
+  private KernelMaker kernelMaker;
+
+  private MatrixMaker matrixMaker;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    kernelMaker = OperationKernels.kernelMaker(operation, matrixType);
+    if (kernelMaker == null) {
+      throw new IllegalStateException(operation + " for " + matrixType + " not implemented");
+    }
+    CollectStatistics.setBigDecimalMatrixPrecision(matrixType);
+    generator = new CollectStatistics().generatorMakers.get(operation)
+                    .make(size, new Random(CollectStatistics.combinationSeed(operation, size)));
+  }
+
+  /**
+   * A new data set for every iteration, so that the results do not depend on a single random matrix.
+   * The operands, some of which take O(n^3) time to compute, are prepared here, out of the measured methods
+   */
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    matrixMaker = kernelMaker.prepare(generator.generate());
+  }
+
+  /**
+   * Makes a new matrix and performs the operation on it. A new matrix is needed for every call,
+   * since the matrices cache their decompositions. Making it in a setup of {@code Level.Invocation}
+   * would distort the results of the operations that take much less than a millisecond,
+   * so it is measured along with the operation and separately by {@link #construction},
+   * and {@link RunBenchmarks} reports the difference. Making the matrix takes O(n^2) time,
+   * small compared to that of the operations whose matrices cache their decompositions.
+   */
+  @Benchmark
+  public void operation(Blackhole blackhole) {
+    blackhole.consume(matrixMaker.make().run());
+  }
+
+  /** Makes the matrix for the operation without performing it */
+  @Benchmark
+  public void construction(Blackhole blackhole) {
+    blackhole.consume(matrixMaker.make());
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Optional;
+import org.openjdk.jmh.util.Statistics;
+
+import com.mvohm.quadmatrix.measurements.CollectStatistics.MatrixTypes;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Operations;
+
+/**
+ * Runs {@link OperationBenchmark} for every implemented combination of
+ * {@code CollectStatistics.Operations}, {@code CollectStatistics.MatrixTypes} and {@code CollectStatistics.sizes}.
+ *
+ * Accepts the usual JMH command line options (e.g. {@code -f 1 -wi 3 -rf json}).
+ * Parameters given explicitly with {@code -p} take precedence over the ones taken from CollectStatistics;
+ * the given operations and matrix types are narrowed down to the implemented combinations.
+ * After the JMH results, prints the average times of the operations less the times of making the matrices,
+ * and the throughputs they correspond to, with their confidence intervals.
+ */
+public class RunBenchmarks {
+
+  /** The confidence level of the net times, the same as that of the scores reported by JMH */
+  private static final double NET_CONFIDENCE = 0.999;
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Locale.setDefault(Locale.US);
+    final CommandLineOptions commandLine = new CommandLineOptions(args);
+    final CollectStatistics statistics = new CollectStatistics();
+    final List<RunResult> results = new ArrayList<>();
+
+    for (final Operations operation: requestedOperations(commandLine)) {
+      final String[] matrixTypes = implementedTypes(operation, commandLine);
+      if (matrixTypes.length == 0) {
+        say(operation + " not implemented for the requested matrix types");
+        continue;
+      }
+      final ChainedOptionsBuilder options = new OptionsBuilder()
+          .parent(commandLine)
+          .include(OperationBenchmark.class.getSimpleName())
+          .param("operation", operation.name())
+          .param("matrixType", matrixTypes);
+      if (!commandLine.getParameter("size").hasValue()) {
+        options.param("size", sizesAsStrings(statistics.sizes));
+      }
+      results.addAll(new Runner(options.build()).run());
+    }
+    reportNetTimes(results);
+  }
+
+  /** The operations given with {@code -p operation=...}, or all of them */
+  private static List<Operations> requestedOperations(CommandLineOptions commandLine) {
+    final Optional<Collection<String>> names = commandLine.getParameter("operation");
+    if (!names.hasValue()) {
+      return Arrays.asList(Operations.values());
+    }
+    final List<Operations> result = new ArrayList<>();
+    for (final String name: names.get()) {
+      result.add(Operations.valueOf(name));
+    }
+    return result;
+  }
+
+  /** The matrix types given with {@code -p matrixType=...} (or all of them) that have kernels for the given operation */
+  private static String[] implementedTypes(Operations operation, CommandLineOptions commandLine) {
+    final Optional<Collection<String>> names = commandLine.getParameter("matrixType");
+    final List<String> result = new ArrayList<>();
+    for (final MatrixTypes matrixType: MatrixTypes.values()) {
+      if (OperationKernels.kernelMaker(operation, matrixType) != null
+          && (!names.hasValue() || names.get().contains(matrixType.name()))) {
+        result.add(matrixType.name());
+      }
+    }
+    return result.toArray(new String[0]);
+  }
+
+  /**
+   * Prints the average times of {@code OperationBenchmark.operation()} less the times of
+   * {@code OperationBenchmark.construction()}, i.e. the times of the operations without making the matrices,
+   * and the throughputs that correspond to them.
+   * The confidence intervals are found from the scores of the individual iterations of the two
+   * with Welch's t-test, at the level JMH uses for its own ones, and the bounds of the throughput
+   * are the reciprocals of the bounds of the time.
+   */
+  private static void reportNetTimes(List<RunResult> results) {
+    final Map<String, Result<?>> constructions = new HashMap<>();
+    for (final RunResult result: results) {
+      if (isAverageTime(result, "construction")) {
+        constructions.put(combination(result), result.getPrimaryResult());
+      }
+    }
+    if (constructions.isEmpty())
+      return;
+
+    say("\nNet time and throughput of the operations, without making the matrices (%.1f%% CI):", NET_CONFIDENCE * 100);
+    say("%-26s %-22s %6s %12s %10s  %-6s %12s %12s %12s  %s",
+        "Operation", "Matrix type", "Size", "Time", "Error", "Units", "Throughput", "Low", "High", "Units");
+    for (final RunResult result: results) {
+      final Result<?> construction = constructions.get(combination(result));
+      if (!isAverageTime(result, "operation") || construction == null)
+        continue;
+      final Result<?> total = result.getPrimaryResult();
+      final BenchmarkParams params = result.getParams();
+      final double netTime = total.getScore() - construction.getScore();
+      final double error = netTimeError(total.getStatistics(), construction.getStatistics());
+      final String timeUnit = total.getScoreUnit().replace("/op", "");
+      say("%-26s %-22s %6s %12.3f %10.3f  %-6s %12.3f %12.3f %12s  ops/%s",
+          params.getParam("operation"), params.getParam("matrixType"), params.getParam("size"),
+          netTime, error, total.getScoreUnit(),
+          1 / netTime, 1 / (netTime + error), netTime > error? String.format("%12.3f", 1 / (netTime - error)): "inf",
+          timeUnit);
+    }
+  }
+
+  /**
+   * The half-width of the confidence interval of the difference of the means of the two samples (Welch's t-interval),
+   * or NaN if either of them has less than 2 values
+   */
+  private static double netTimeError(Statistics total, Statistics construction) {
+    if (total.getN() < 2 || construction.getN() < 2)
+      return Double.NaN;
+    final double totalTerm = total.getVariance() / total.getN();
+    final double constructionTerm = construction.getVariance() / construction.getN();
+    final double variance = totalTerm + constructionTerm;
+    if (variance == 0)
+      return 0;
+    final double degreesOfFreedom = variance * variance
+        / (totalTerm * totalTerm / (total.getN() - 1) + constructionTerm * constructionTerm / (construction.getN() - 1));
+    final double t = new TDistribution(degreesOfFreedom).inverseCumulativeProbability(1 - (1 - NET_CONFIDENCE) / 2);
+    return t * Math.sqrt(variance);
+  }
+
+  private static boolean isAverageTime(RunResult result, String method) {
+    return result.getParams().getMode() == Mode.AverageTime
+        && result.getParams().getBenchmark().endsWith("." + method);
+  }
+
+  private static String combination(RunResult result) {
+    final BenchmarkParams params = result.getParams();
+    return params.getParam("operation") + " " + params.getParam("matrixType") + " " + params.getParam("size");
+  }
+
+  private static String[] sizesAsStrings(int[] sizes) {
+    final String[] result = new String[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      result[i] = Integer.toString(sizes[i]);
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mvohm.quadmatrix.measurements.MatrixDataGenerators.SummationMethod;
+
+/**
+ * Compares the methods of summation used by {@link MatrixDataGenerators} to multiply matrices
+ * and to find the vectors of the data sets.
+ *
+ * Before the measurement, the accuracy of each method is checked against the products computed
+ * with Quadruple accumulators by {@link ReferenceKernels}, and the maximum and the mean errors,
+ * in units of the last place of the reference values, are printed to the output of the fork.
+ *
+ * Run with {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main SummationBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(2)
+public class SummationBenchmark {
+
+  @Param
+  public SummationMethod method;
+
+  @Param({"50", "100", "200", "400"})
+  public int size;
+
+  private double[][] matrixA, matrixB;
+  private double[] vector;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final Random random = new Random(size);
+    MatrixDataGenerators.setRandomSeed(random);
+    MatrixDataGenerators.setSummationMethod(method);
+    matrixA = MatrixDataGenerators.randomMatrix(size, -1.0, 1.0);
+    matrixB = MatrixDataGenerators.randomMatrix(size, -1.0, 1.0);
+    vector = MatrixDataGenerators.randomVector(size, -1.0, 1.0);
+    checkAccuracy();
+  }
+
+  @Benchmark
+  public double[][] multiplyMatrices() {
+    return MatrixDataGenerators.multiply(matrixA, matrixB);
+  }
+
+  @Benchmark
+  public double[] multiplyByVector() {
+    return MatrixDataGenerators.multiply(matrixA, vector);
+  }
+
+  @Benchmark
+  public double[] findVector() {
+    return MatrixDataGenerators.findVector(matrixA, vector);
+  }
+
+  private void checkAccuracy() {
+    final double[][] expected = ReferenceKernels.multiply(matrixA, matrixB);
+    final double[][] actual = MatrixDataGenerators.multiply(matrixA, matrixB);
+    double maxUlps = 0, sumUlps = 0;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        final double ulps = Math.abs(actual[i][j] - expected[i][j]) / Math.ulp(expected[i][j]);
+        maxUlps = Math.max(maxUlps, ulps);
+        sumUlps += ulps;
+      }
+    }
+    say("%n%s, size %s: max error %.3f ulp, mean error %.5f ulp", method, size, maxUlps, sumUlps / size / size);
+  }
+
+}
@@ -0,0 +1,250 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Combination;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.MatrixTypes;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Operations;
+
+/**
+ * Decides the order of testing the combinations and the time given to each of them,
+ * so that the whole run fits in the given total budget.
+ *
+ * For every pair of operation and matrix type, the cost of an iteration (generating a data set,
+ * performing the operation and finding the errors) is measured on the sizes already tested, after the warmup,
+ * and the cost on the larger sizes is extrapolated with a power law, cost = a * n<sup>k</sup>,
+ * fitted by least squares in logarithmic coordinates. With a single size tested, k = 3 is assumed.
+ * The number of the timed iterations the tested sizes took is recorded too, to estimate the time the rest of the run takes.
+ *
+ * The cheapest of the remaining combinations goes next, the ones whose cost is not known yet
+ * (i.e. the smallest sizes) go first. The remaining budget is split among the remaining combinations
+ * evenly, except that none gets more than it needs to perform MAX_ITERATIONS iterations after the warmup, and the surplus
+ * is split among the others. A combination that can't get enough time for the warmup and MIN_ITERATIONS timed
+ * iterations is skipped.
+ * The time not used by a combination (e.g. if its average time is found accurately enough before
+ * its budget is exhausted) goes back to the remaining budget.
+ */
+public class BudgetScheduler {
+
+  /** The exponent assumed until two sizes of an operation on a matrix type are tested */
+  private static final double DEFAULT_EXPONENT = 3.0;
+  /** The bounds of the fitted exponent, to keep the extrapolation sane when the measured costs are noisy */
+  private static final double MIN_EXPONENT = 1.0, MAX_EXPONENT = 4.0;
+
+  private record Series(Operations operation, MatrixTypes matrixType) {
+    Series(Combination combination) {
+      this(combination.operation(), combination.matrixType());
+    }
+  }
+
+  private final long totalBudgetMs;
+  private final long startTime = System.currentTimeMillis();
+  private final int minIterations, maxIterations;
+  /** The warmup of a combination, see {@code CollectStatistics.WARMUP_TIME} and {@code WARMUP_COUNT} */
+  private final long warmupTimeMs;
+  private final int warmupCount;
+  private final int totalCount;
+
+  private final List<Combination> remaining;
+  /** The sizes tested so far, the costs of an iteration on them, in milliseconds, and the numbers of timed iterations */
+  private final Map<Series, List<double[]>> costs = new HashMap<>();
+
+  public BudgetScheduler(List<Combination> combinations, long totalBudgetMs, int minIterations, int maxIterations,
+                         long warmupTimeMs, int warmupCount) {
+    this.remaining = new ArrayList<>(combinations);
+    this.totalCount = combinations.size();
+    this.totalBudgetMs = totalBudgetMs;
+    this.minIterations = minIterations;
+    this.maxIterations = maxIterations;
+    this.warmupTimeMs = warmupTimeMs;
+    this.warmupCount = warmupCount;
+  }
+
+  public boolean hasNext() {
+    return !remaining.isEmpty();
+  }
+
+  /** Removes the cheapest of the remaining combinations from the schedule and returns it */
+  public Combination next() {
+    Combination cheapest = null;
+    for (final Combination combination: remaining) {
+      if (cheapest == null || isCheaper(combination, cheapest)) {
+        cheapest = combination;
+      }
+    }
+    remaining.remove(cheapest);
+    return cheapest;
+  }
+
+  /**
+   * Returns the time in milliseconds allotted to the given combination just taken with {@link #next()},
+   * or 0 if it can't get enough time to warm up and to perform the minimum number of timed iterations and should be skipped
+   */
+  public long budgetFor(Combination combination) {
+    final double allotted = allot(combination);
+    final double cost = predictedCost(combination);
+    if (!Double.isNaN(cost) && allotted < warmupMs(cost) + cost * minIterations) {
+      return 0;
+    }
+    return Math.max(1, Math.round(allotted));
+  }
+
+  /**
+   * Records the mean time of an iteration of the given combination, in milliseconds,
+   * and the number of its timed iterations, 0 if unknown. Times that are not positive are ignored
+   */
+  public void record(Combination combination, double iterationMs, long timedCount) {
+    if (iterationMs > 0) {
+      costs.computeIfAbsent(new Series(combination), s -> new ArrayList<>())
+           .add(new double[] {combination.size(), iterationMs, timedCount});
+    }
+  }
+
+  /** The predicted cost of an iteration of the given combination, in milliseconds, or NaN if unknown */
+  public double predictedCost(Combination combination) {
+    final List<double[]> points = costs.get(new Series(combination));
+    if (points == null || points.isEmpty()) {
+      return Double.NaN;
+    }
+    double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+    for (final double[] point: points) {
+      final double x = Math.log(point[0]), y = Math.log(point[1]);
+      sumX += x; sumY += y; sumXX += x * x; sumXY += x * y;
+    }
+    final int count = points.size();
+    double exponent = DEFAULT_EXPONENT;
+    final double denominator = count * sumXX - sumX * sumX;
+    if (count > 1 && denominator > 0) {
+      exponent = Math.min(MAX_EXPONENT, Math.max(MIN_EXPONENT, (count * sumXY - sumX * sumY) / denominator));
+    }
+    final double logA = (sumY - exponent * sumX) / count;
+    return Math.exp(logA + exponent * Math.log(combination.size()));
+  }
+
+  /** The milliseconds passed since the scheduler was created */
+  public long elapsedMs() {
+    return System.currentTimeMillis() - startTime;
+  }
+
+  /**
+   * The estimated milliseconds until all the remaining combinations are done: for every one,
+   * the time of the warmup and of the iterations it is expected to need, at the predicted cost,
+   * but not more than its share of the budget. The ones whose cost is not known yet are expected to take their shares
+   */
+  public long estimatedRemainingMs() {
+    double sum = 0;
+    for (final Combination combination: remaining) {
+      final double cost = predictedCost(combination);
+      final double share = allot(combination);
+      sum += Double.isNaN(cost)? share: Math.min(share, warmupMs(cost) + cost * expectedIterations(combination));
+    }
+    return Math.round(sum);
+  }
+
+  /** Returns a line like "[12/225] Elapsed 0:12:34, ETA 17.10 14:32 (1:02:03 left)" */
+  public String progress() {
+    final long remainingMs = estimatedRemainingMs();
+    final String eta = new SimpleDateFormat("dd.MM HH:mm").format(new Date(System.currentTimeMillis() + remainingMs));
+    return String.format("[%s/%s] Elapsed %s, ETA %s (%s left)",
+        totalCount - remaining.size(), totalCount, formatDuration(elapsedMs()), eta, formatDuration(remainingMs));
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  /** Combinations with unknown costs go first, the smaller sizes first */
+  private boolean isCheaper(Combination combination, Combination other) {
+    final double cost = predictedCost(combination), otherCost = predictedCost(other);
+    if (Double.isNaN(cost) != Double.isNaN(otherCost)) {
+      return Double.isNaN(cost);
+    }
+    if (Double.isNaN(cost) || cost == otherCost) {
+      return combination.size() < other.size();
+    }
+    return cost < otherCost;
+  }
+
+  /** The time the combination needs to warm up and perform MAX_ITERATIONS iterations, or infinity if unknown */
+  private double need(Combination combination) {
+    final double cost = predictedCost(combination);
+    return Double.isNaN(cost)? Double.POSITIVE_INFINITY: warmupMs(cost) + cost * maxIterations;
+  }
+
+  /**
+   * The time of the iterations before the timing starts, at the given cost of an iteration: WARMUP_COUNT iterations,
+   * or WARMUP_TIME if they take longer, but at least one iteration
+   */
+  private double warmupMs(double cost) {
+    return Math.max(cost, Math.min(warmupTimeMs, cost * warmupCount));
+  }
+
+  /**
+   * The number of timed iterations the combination is expected to need, the mean of those the tested sizes
+   * of the same operation and type of matrices took, or MAX_ITERATIONS if none is known
+   */
+  private double expectedIterations(Combination combination) {
+    final List<double[]> points = costs.get(new Series(combination));
+    double sum = 0;
+    int count = 0;
+    if (points != null) {
+      for (final double[] point: points) {
+        if (point[2] > 0) {
+          sum += point[2];
+          count++;
+        }
+      }
+    }
+    return count == 0? maxIterations: Math.max(minIterations, Math.min(maxIterations, sum / count));
+  }
+
+  /**
+   * Splits the remaining budget among the given combination and the remaining ones, so that every one
+   * gets an even share or what it needs, whichever is less, and returns the share of the given one
+   */
+  private double allot(Combination combination) {
+    final List<Combination> all = new ArrayList<>(remaining);
+    if (!all.contains(combination)) {
+      all.add(combination);
+    }
+    all.sort((c1, c2) -> Double.compare(need(c1), need(c2)));
+    double budgetLeft = Math.max(0, totalBudgetMs - elapsedMs());
+    for (int i = 0; i < all.size(); i++) {
+      final double share = Math.min(need(all.get(i)), budgetLeft / (all.size() - i));
+      if (all.get(i).equals(combination)) {
+        return share;
+      }
+      budgetLeft -= share;
+    }
+    return 0;
+  }
+
+  private static String formatDuration(long ms) {
+    final long seconds = ms / 1000;
+    return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+  }
+
+}
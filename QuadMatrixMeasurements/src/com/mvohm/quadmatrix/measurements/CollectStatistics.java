@@ -1,478 +1,1608 @@
-/*
-
- Copyright 2021-2025 M.Vokhmentsev
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
- You may obtain a copy of the License at
-
-     http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
-
-*/
-
-package com.mvohm.quadmatrix.measurements;
-
-import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
-
-import java.io.IOException;
-import java.io.PrintStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Random;
-
-import com.mvohm.quadmatrix.BigDecimalMatrix;
-
-/**
- * Estimates accuracy and execution times of the most common operations 
- * performed on matrices of different types. 
- * The matrices being tested are BigDecimalMatrix, DoubleMatrix, and QuadrupleMatrix 
- * from project QuadMartix (https://github.com/m-vokhm/QuadMatrix),
- * and JAMA from https://math.nist.gov/javanumerics/jama/ (used as reference library). 
- * 
- * Complete execution may take up to 48 hours or even more,
- * depending on the machine performance.   
- */
-
-public class CollectStatistics {
-
-  private static final int RAND_SEED = 123;
-  static Random random = new Random(RAND_SEED);
-
-  /** An object of a class implementing this interface is encapsulated in an OperationTester object 
-   * and is responsible for generating a data sample of a certain size to test an operation of a certain type. */
-  public interface DataGenerator {
-    MatrixData generate();
-  }
-
-  /** An object of a class implementing this interface is encapsulated in an OperationTester object 
-   * and is responsible for executing the method under test and collecting statistics 
-   * on the performance and accuracy of the method under test */
-  public interface OperationPerformer {
-    ErrorSet perform(MatrixData matrixData);
-  }
-
-  /** Types of operations performed on matrices. */
-  enum Operations {
-    SIMPLE_VECTOR_SOLUTION,       // Solves A * x = b, where x and b are vectors
-    ACCURATE_VECTOR_SOLUTION,     // with iterative refinement
-    SIMPLE_SPD_SOLUTION,          // solve symmetric  positive-definite matrix using Cholesky decomposition 
-    ACCURATE_SPD_SOLUTION,        // with iterative refinement
-    SIMPLE_MATRIX_SOLUTION,       // Solves A * X = B, where X and B are matrices
-    ACCURATE_MATRIX_SOLUTION,     // with iterative refinement  
-    SIMPLE_INVERSION,
-    ACCURATE_INVERSION,           // with iterative refinement
-    MULTIPLICATION,
-  };
-
-  /** Types of matrices being tested */
-  enum MatrixTypes {
-    JAMA,
-    DOUBLE_MATRIX,                // com.mvohm.quadmatrix.DoubleMatrix                                
-    QUADRUPLE_MATRIX,             // com.mvohm.quadmatrix.QuadrupleMatrix
-    BIGDECIMAL_MATRIX_40,         // com.mvohm.quadmatrix.BigDecimalMatrix with the matrix precision set to 40 decimal digits 
-    BIGDECIMAL_MATRIX_80,         // com.mvohm.quadmatrix.BigDecimalMatrix with the matrix precision set to 80 decimal digits
-  };
-
-  /** Sizes of matrices to test */
-  int [] sizes = new int[] {
-     50,
-    100,
-    200,
-    400,
-  };
-
-  static final long WARMUP_TIME =     3_000; // Start timing after warmup of 3 seconds after the start of the execution
-  static final int WARMUP_COUNT =     1_000; // Start timing after warmup of 1000 test iterations, if they take less than WARMUP_TIME 
-  static final int MAX_ITERATIONS = 100_000; // For fast methods, do max 100,000 iterations
-  static final int MIN_ITERATIONS =      20; // Do at least 20 iterations
-  static final long MAXTIME_MS =     30_000; // max 30 seconds per every type + operation;
-
-  interface TesterMaker {
-    OperationTester make(int size);
-  }
-
-  interface GeneratorMaker {
-    DataGenerator make(int size);
-  }
-
-  /**
-   * For each operation type and size, stores the corresponding method for dataset generation.
-   * Remove the types of operations you do not want to perform.
-   */
-  HashMap<Operations, GeneratorMaker> generatorMakers = new HashMap<>()
-  {{
-    put(Operations.SIMPLE_VECTOR_SOLUTION,    size -> () -> MatrixData.makeDataSetForVectorSolutions(size, random));
-    put(Operations.ACCURATE_VECTOR_SOLUTION,  size -> () -> MatrixData.makeDataSetForVectorSolutions(size, random));
-    put(Operations.SIMPLE_SPD_SOLUTION,       size -> () -> MatrixData.makeDataSetForSPDSolutions(size, random));
-    put(Operations.ACCURATE_SPD_SOLUTION,     size -> () -> MatrixData.makeDataSetForSPDSolutions(size, random));
-    put(Operations.SIMPLE_MATRIX_SOLUTION,    size -> () -> MatrixData.makeDataSetForMatrixSolutions(size, random));
-    put(Operations.ACCURATE_MATRIX_SOLUTION,  size -> () -> MatrixData.makeDataSetForMatrixSolutions(size, random));
-    put(Operations.SIMPLE_INVERSION,          size -> () -> MatrixData.makeDataSetForInversions(size, random));
-    put(Operations.ACCURATE_INVERSION,        size -> () -> MatrixData.makeDataSetForInversions(size, random));
-    put(Operations.MULTIPLICATION,            size -> () -> MatrixData.makeDataSetForMatrixSolutions(size, random));
-  }};
-
-  /**
-   * For each operation type and matrix type, stores the corresponding method that 
-   * performs the operation and collects statistics regarding execution time and errors.
-   * Remove the types of operations and matrices you do not want to test.
-   */
-  HashMap<Operations, HashMap<MatrixTypes, OperationPerformer>> performers = new HashMap<>() {{
-    put(Operations.SIMPLE_VECTOR_SOLUTION, new HashMap<>() {{
-      put(MatrixTypes.JAMA,                 MatrixData::jamaLuSolutionErrors);
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleLuSolutionWithScalingErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleLuSolutionWithScalingErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalLuSolutionWithScalingErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalLuSolutionWithScalingErrors);
-    }});
-    put(Operations.ACCURATE_VECTOR_SOLUTION, new HashMap<>() {{
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateLUSolutionWithScalingErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateLUSolutionWithScalingErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateLUSolutionWithScalingErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateLUSolutionWithScalingErrors);
-    }});
-    put(Operations.SIMPLE_SPD_SOLUTION, new HashMap<>() {{
-      put(MatrixTypes.JAMA,                 MatrixData::jamaSpdSolutionErrors);
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleSpdSolutionErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleSPDSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalSPDSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalSPDSolutionErrors);
-    }});
-    put(Operations.ACCURATE_SPD_SOLUTION, new HashMap<>() {{
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateSPDSolutionErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateSPDSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateSPDSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateSPDSolutionErrors);
-    }});
-    put(Operations.SIMPLE_MATRIX_SOLUTION, new HashMap<>() {{
-      put(MatrixTypes.JAMA,                 MatrixData::jamaMatrixSolutionErrors);
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleMatrixSolutionErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleMatrixSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalMatrixSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalMatrixSolutionErrors);
-    }});
-    put(Operations.ACCURATE_MATRIX_SOLUTION, new HashMap<>() {{
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateMatrixSolutionErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateMatrixSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateMatrixSolutionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateMatrixSolutionErrors);
-    }});
-    put(Operations.SIMPLE_INVERSION, new HashMap<>() {{
-      put(MatrixTypes.JAMA,                 MatrixData::jamaMatrixInversionErrors);
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleMatrixInversionErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleMatrixInversionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalMatrixInversionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalMatrixInversionErrors);
-    }});
-    put(Operations.ACCURATE_INVERSION, new HashMap<>() {{
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateMatrixInversionErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateMatrixInversionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateMatrixInversionErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateMatrixInversionErrors);
-    }});
-    put(Operations.MULTIPLICATION, new HashMap<>() {{
-      put(MatrixTypes.JAMA,                 MatrixData::jamaMultiplicationErrors);
-      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleMultiplicationErrors);
-      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleMultiplicationErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalMultiplicationErrors);
-      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalMultiplicationErrors);
-    }});
-  }};
-
-  private PrintStream output = null;
-
-  public static void main(String[] args) throws IOException {
-    new CollectStatistics().run();
-  }
-
-  /** Traverses through operation types, matrix types and sizes, */ 
-  private void run() throws IOException {
-    Locale.setDefault(Locale.US);
-    output = openOutput();
-    for (final Operations operation: Operations.values()) {
-      testOperation(operation);
-    }
-    output.close();
-    say("Done!");
-  }
-
-  /**
-   * Perform the specified operation on all types of matrices of all sizes
-   * @param operation
-   * @param output
-   */
-  private void testOperation(Operations operation) {
-    for (final MatrixTypes matrixType: MatrixTypes.values()) {
-      testOperationOnType(operation, matrixType);
-    }
-    write();
-  }
-
-  /**
-   * Perform the specified operation on the specified type of matrix of all sizes
-   * @param operation
-   * @param output
-   */
-  private void testOperationOnType(Operations operation, MatrixTypes matrixType) {
-    setBigDecimalMatrixPrecision(matrixType);
-
-    final ErrorSet[] results = collectStatsOnSizes(operation, matrixType);
-
-    if (results != null) {
-      writeResults(results, operation, matrixType);
-    }
-    write();
-  }
-
-  private static void setBigDecimalMatrixPrecision(MatrixTypes matrixType) {
-    if (matrixType == MatrixTypes.BIGDECIMAL_MATRIX_40) {
-      BigDecimalMatrix.setDefaultPrecision(40);
-    } else if (matrixType == MatrixTypes.BIGDECIMAL_MATRIX_80) {
-      BigDecimalMatrix.setDefaultPrecision(80);
-    }
-  }
-
-  /**
-   * Collect statistics in respect of errors and times for different sizes 
-   * of matrices of the specified type, performing the specified type of operation 
-   */
-  private ErrorSet[] collectStatsOnSizes(Operations operation, MatrixTypes matrixType) {
-    final ErrorSet[] results = new ErrorSet[sizes.length];
-
-    for (int i = 0; i < sizes.length; i++) {
-      results[i] = testOperationOnTypeOfSize(operation, matrixType, sizes[i]);
-      if (results[i] == null) {
-        write(operation + " for " + matrixType + " not implemented");
-        return null;
-      } else {
-        showResults(results[i]);
-      }
-    }
-    return results;
-  }
-
-  /** Creates a tester object for the given combination of the operation type, matrix type, and size,
-   * and runs it.
-   */
-  private ErrorSet testOperationOnTypeOfSize(Operations operation, MatrixTypes matrixType, int size) {
-    final OperationTester tester = makeTester(operation, matrixType, size);
-    if (tester == null) {
-      return null;
-    }
-    showSectionHeader(operation, matrixType, size);
-    runTester(tester);
-    return tester.getStatistics();
-  }
-
-  private static void showSectionHeader(Operations operation, MatrixTypes matrixType, int size) {
-    say("Operation:     " + operation);
-    say("  Matrix type: " + matrixType);
-    say("    Matrix size = %4s", size);
-  }
-
-
-  private OperationTester makeTester(Operations operation, MatrixTypes matrixType, int size) {
-    final GeneratorMaker generatorMaker = generatorMakers.get(operation);
-    final HashMap<MatrixTypes, OperationPerformer> performerTable = performers .get(operation);
-    final OperationPerformer performer = performerTable == null? null: performerTable.get(matrixType);
-    if (generatorMaker == null || performer == null)
-      return null;
-
-    final DataGenerator generator = generatorMaker.make(size);
-    return new OperationTester(generator, performer);
-  }
-
-  private void runTester(final OperationTester tester) {
-    resetTime();
-    long lastTime = 0;
-
-    // run it not more than ITERATIONS times 
-    // and not longer than MAXTIME_MS milliseconds,
-    // but not less than MIN_ITERATIONS times 
-    for (int i = 1; i <= MAX_ITERATIONS; i++) {
-      tester.perform();
-      final long currentTime = System.currentTimeMillis();
-      if (currentTime - lastTime > 2000) {  // Show progress every 2 sec
-        showProgress(tester, i);
-        lastTime = currentTime;
-      }
-      if (elapsedTime() > MAXTIME_MS && i >= MIN_ITERATIONS)
-        break;
-    }
-  }
-
-  private static void showProgress(final OperationTester tester, int i) {
-    say("      %,6d: Max error: %7.3e, MSE: %7.3e, time: %,11.3f ms",
-        i, tester.getLastMaxError(), tester.getLastMse(), tester.getLastTimeMs());
-  }
-
-  private static void showResults(ErrorSet result) {
-    say("========================");
-    say("     Average: Max error: %7.3e, MSE: %7.3e, time: %,11.3f ms\n",
-        result.maxError(), result.mse(), result.getTime() * 1e-6);
-  }
-
-  private void writeResults(ErrorSet[] results, Operations operation, MatrixTypes matrixType) {
-    write("Statistics for %s on %s", operation, matrixType);
-    write_("    Size:    ");
-    for (int i = 0; i < results.length; i++) {
-      write_("\t%12s", sizes[i]);
-    }
-    write();
-    write_("    Errors:  ");
-    for (int i = 0; i < results.length; i++) {
-      write_("\t%12.3e", results[i].mse());
-    }
-    write();
-    write_("    Time, ms:");
-    for (int i = 0; i < results.length; i++) {
-      write_("\t%12.3f", results[i].getTime() * 1e-6);
-    }
-    write();
-  }
-
-  private long testStartTime;
-
-  private void resetTime() {
-    testStartTime = System.currentTimeMillis();
-  }
-
-  /** Returns the amount of time passed since the beginning of the current test, in milliseconds */
-  private long elapsedTime() {
-    return System.currentTimeMillis() - testStartTime;
-  }
-
-  private static PrintStream openOutput() throws IOException {
-    final String dataPath = System.getProperty("user.dir") + "\\Results\\";
-    // Bug fix 2024-12-30 18:53:43: Create the folder if it does not exist
-    final Path path = Paths.get(dataPath, new String[] {});
-    if (!Files.exists(path)) {
-      Files.createDirectory(path);
-    }
-    final SimpleDateFormat dateFormat = new SimpleDateFormat("yyMMdd_HHmm");
-    final Date now = new Date();
-    final String dateStr = dateFormat.format(now);
-    final String fileName = dataPath + "stats_" + dateStr + ".txt";
-    final PrintStream out = new PrintStream(fileName);
-    return out;
-  };
-
-  @SuppressWarnings("unused")
-  private void write(String format, Object ... args) {
-    if (output != null) {
-      output.printf(format + "\n", args);
-    }
-    say(format, args);
-  }
-
-  private void write(Object data) {
-    if (output != null) {
-      output.println(data);
-    }
-    say(data);
-  }
-
-  private void write_(String format, Object ... args) {
-    if (output != null) {
-      output.printf(format, args);
-    }
-    say_(format, args);
-  }
-
-  private void write_(Object data) {
-    if (output != null) {
-      output.print(data);
-    }
-    say_(data);
-  }
-
-  private void write() {
-    if (output != null) {
-      output.println();
-    }
-    say();
-  }
-
-  /* ***************************************************************************
-   ***** OperationTester *******************************************************
-   *****************************************************************************/
-  
-  /**
-   * An instance of this class encapsulates objects for generating test data 
-   * and performing the method under test on that data, 
-   * an object of type MatrixData that stores the test data, 
-   * and an object of type ErrorSet that keeps the results of the most recent 
-   * performed operation (execution time and error values) 
-   * 
-   * Method perform() generates a new random data set and performs the tested operation that data set.    
-   */
-  private class OperationTester  {
-
-    private DataGenerator generator;
-    private OperationPerformer performer;
-
-    private MatrixData matrixData;
-    private ErrorSet errorSet;
-
-    private int trialCount;
-    private int timedTrialCount;
-
-    private double accumulatedMse;
-    private double accumulatedMeanErr;
-    private double accumulatedMaxErr;
-    private long accumulatedTime;
-
-    public OperationTester(DataGenerator generator, OperationPerformer performer) {
-      this.generator = generator;
-      this.performer = performer;
-    }
-
-    public double getLastTimeMs() {
-      return errorSet.getTime() * 1e-6;
-    }
-
-    public double getLastMse() {
-      return errorSet.mse();
-    }
-
-    public double getLastMaxError() {
-      return errorSet.maxError();
-    }
-
-    public void perform() {
-      trialCount++;
-      matrixData = generator.generate();
-
-      errorSet = performer.perform(matrixData);
-      accumulatedMse += errorSet.mse();
-      accumulatedMaxErr = Math.max(accumulatedMaxErr, errorSet.maxError());
-
-      if (    trialCount > WARMUP_COUNT
-          || (elapsedTime() > WARMUP_TIME && trialCount > 1)) {
-        accumulatedTime += errorSet.getTime();
-        timedTrialCount++;
-      }
-    }
-
-    public ErrorSet getStatistics() {
-      final double avrMse = accumulatedMse / trialCount;
-      final double avrMaxErr = accumulatedMaxErr;
-      final double avrMeanErr = accumulatedMeanErr / trialCount;
-      final long avrTime = Math.round((double)accumulatedTime / timedTrialCount);
-      return new ErrorSet(avrMse, avrMeanErr, avrMaxErr).setTime(avrTime);
-    }
-
-  } // private class OperationTester
-
-}
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import com.mvohm.quadmatrix.measurements.MatrixData.MatrixFamily;
+import com.mvohm.quadmatrix.measurements.MatrixData.Purpose;
+
+/**
+ * Estimates accuracy and execution times of the most common operations 
+ * performed on matrices of different types. 
+ * The matrices being tested are BigDecimalMatrix, DoubleMatrix, and QuadrupleMatrix 
+ * from project QuadMartix (https://github.com/m-vokhm/QuadMatrix),
+ * and JAMA from https://math.nist.gov/javanumerics/jama/ (used as reference library). 
+ * 
+ * Complete execution may take up to 48 hours or even more,
+ * depending on the machine performance.   
+ */
+
+public class CollectStatistics {
+
+  private static final int RAND_SEED = 123;
+
+  /** An object of a class implementing this interface is encapsulated in an OperationTester object 
+   * and is responsible for generating a data sample of a certain size to test an operation of a certain type. */
+  public interface DataGenerator {
+    MatrixData generate();
+  }
+
+  /** An object of a class implementing this interface is encapsulated in an OperationTester object 
+   * and is responsible for executing the method under test and collecting statistics 
+   * on the performance and accuracy of the method under test */
+  public interface OperationPerformer {
+    ErrorSet perform(MatrixData matrixData);
+  }
+
+  /** Types of operations performed on matrices. */
+  public enum Operations {
+    SIMPLE_VECTOR_SOLUTION,       // Solves A * x = b, where x and b are vectors
+    ACCURATE_VECTOR_SOLUTION,     // with iterative refinement
+    SIMPLE_SPD_SOLUTION,          // solve symmetric  positive-definite matrix using Cholesky decomposition 
+    ACCURATE_SPD_SOLUTION,        // with iterative refinement
+    SIMPLE_MATRIX_SOLUTION,       // Solves A * X = B, where X and B are matrices
+    ACCURATE_MATRIX_SOLUTION,     // with iterative refinement  
+    SIMPLE_INVERSION,
+    ACCURATE_INVERSION,           // with iterative refinement
+    MULTIPLICATION,
+    TRANSPOSITION,
+    DETERMINANT,                  // compared with the exact determinant of a matrix made of exactly known factors
+    VECTOR_MULTIPLICATION,        // A * x, where x is a vector
+    SCALAR_MULTIPLICATION,        // A * s, where s is a scalar
+    ADDITION,                     // A + B
+    CONDITION_NUMBER,             // compared with the condition number of the matrix in the norm used by the library
+  };
+
+  /** Types of matrices being tested */
+  public enum MatrixTypes {
+    JAMA,
+    DOUBLE_MATRIX,                // com.mvohm.quadmatrix.DoubleMatrix                                
+    QUADRUPLE_MATRIX,             // com.mvohm.quadmatrix.QuadrupleMatrix
+    BIGDECIMAL_MATRIX_40,         // com.mvohm.quadmatrix.BigDecimalMatrix with the matrix precision set to 40 decimal digits 
+    BIGDECIMAL_MATRIX_80,         // com.mvohm.quadmatrix.BigDecimalMatrix with the matrix precision set to 80 decimal digits
+  };
+
+  /** Sizes of matrices to test */
+  int [] sizes = new int[] {
+     50,
+    100,
+    200,
+    400,
+  };
+
+  static final long WARMUP_TIME =     3_000; // Start timing after warmup of 3 seconds after the start of the execution
+  static final int WARMUP_COUNT =     1_000; // Start timing after warmup of 1000 test iterations, if they take less than WARMUP_TIME 
+  static final int MAX_ITERATIONS = 100_000; // For fast methods, do max 100,000 iterations
+  static final int MIN_ITERATIONS =      20; // Do at least 20 iterations
+  static final long MAXTIME_MS =     30_000; // max 30 seconds per every type + operation;
+  static final double CI_TARGET =       0.01; // Stop as soon as the average time is known within +/-1% with 95% confidence
+  static final int CORPUS_COUNT =        100; // The number of data sets stored in a corpus, see DatasetCorpus
+  // Bounds of the histograms of the times (in ns) and the errors, beyond them the percentiles are less accurate
+  static final double TIME_HISTOGRAM_LOWEST =  1e2, TIME_HISTOGRAM_HIGHEST = 1e13;
+  // The errors of BigDecimalMatrix with 200 digits (see --precisions) are about 1e-198
+  static final double MSE_HISTOGRAM_LOWEST = 1e-300, MSE_HISTOGRAM_HIGHEST = 1e10;
+  static final int SELECTED_SIZE =        100; // The default size of matrices for --scaling and --phases
+  static final int HOT_METHOD_COUNT =      10; // The number of methods listed for every combination with --jfr
+  static final double[] CONDITION_NUMBERS = {1e2, 1e4, 1e6, 1e8, 1e10, 1e12, 1e14}; // The condition numbers for --conditioning
+  static final int CONDITION_SAMPLE_COUNT = 3; // The number of data sets to find the actual condition number on, with --conditioning
+  // The precisions of BigDecimalMatrix for --precisions, in decimal digits. 34 digits are about the precision of Quadruple
+  static final int[] SWEEP_PRECISIONS = {20, 34, 40, 60, 80, 120, 200};
+
+  interface TesterMaker {
+    OperationTester make(int size);
+  }
+
+  interface GeneratorMaker {
+    DataGenerator make(int size, Random random);
+  }
+
+  /** A combination of the operation type, the matrix type and the size, that is tested by a single OperationTester */
+  record Combination(Operations operation, MatrixTypes matrixType, int size) {}
+
+  /**
+   * For each operation type and size, stores the corresponding method for dataset generation.
+   * Remove the types of operations you do not want to perform.
+   * Every generator gets its own instance of Random, see {@link #combinationSeed(Operations, int)}
+   */
+  HashMap<Operations, GeneratorMaker> generatorMakers = new HashMap<>()
+  {{
+    put(Operations.SIMPLE_VECTOR_SOLUTION,    (size, random) -> () -> MatrixData.makeDataSetForVectorSolutions(size, random));
+    put(Operations.ACCURATE_VECTOR_SOLUTION,  (size, random) -> () -> MatrixData.makeDataSetForVectorSolutions(size, random));
+    put(Operations.SIMPLE_SPD_SOLUTION,       (size, random) -> () -> MatrixData.makeDataSetForSPDSolutions(size, random));
+    put(Operations.ACCURATE_SPD_SOLUTION,     (size, random) -> () -> MatrixData.makeDataSetForSPDSolutions(size, random));
+    put(Operations.SIMPLE_MATRIX_SOLUTION,    (size, random) -> () -> MatrixData.makeDataSetForMatrixSolutions(size, random));
+    put(Operations.ACCURATE_MATRIX_SOLUTION,  (size, random) -> () -> MatrixData.makeDataSetForMatrixSolutions(size, random));
+    put(Operations.SIMPLE_INVERSION,          (size, random) -> () -> MatrixData.makeDataSetForInversions(size, random));
+    put(Operations.ACCURATE_INVERSION,        (size, random) -> () -> MatrixData.makeDataSetForInversions(size, random));
+    put(Operations.MULTIPLICATION,            (size, random) -> () -> MatrixData.makeDataSetForMatrixSolutions(size, random));
+    put(Operations.TRANSPOSITION,             (size, random) -> () -> MatrixData.makeDataSetForMatrixOperations(size, random));
+    put(Operations.DETERMINANT,               (size, random) -> () -> MatrixData.makeDataSetForDeterminants(size, random));
+    put(Operations.VECTOR_MULTIPLICATION,     (size, random) -> () -> MatrixData.makeDataSetForVectorSolutions(size, random));
+    put(Operations.SCALAR_MULTIPLICATION,     (size, random) -> () -> MatrixData.makeDataSetForMatrixOperations(size, random));
+    put(Operations.ADDITION,                  (size, random) -> () -> MatrixData.makeDataSetForMatrixOperations(size, random));
+    put(Operations.CONDITION_NUMBER,          (size, random) -> () -> MatrixData.makeDataSetForConditionNumbers(size, random));
+  }};
+
+  /**
+   * For each operation type and matrix type, stores the corresponding method that 
+   * performs the operation and collects statistics regarding execution time and errors.
+   * Remove the types of operations and matrices you do not want to test.
+   */
+  HashMap<Operations, HashMap<MatrixTypes, OperationPerformer>> performers = new HashMap<>() {{
+    put(Operations.SIMPLE_VECTOR_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaLuSolutionErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleLuSolutionWithScalingErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleLuSolutionWithScalingErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalLuSolutionWithScalingErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalLuSolutionWithScalingErrors);
+    }});
+    put(Operations.ACCURATE_VECTOR_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateLUSolutionWithScalingErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateLUSolutionWithScalingErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateLUSolutionWithScalingErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateLUSolutionWithScalingErrors);
+    }});
+    put(Operations.SIMPLE_SPD_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaSpdSolutionErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleSpdSolutionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleSPDSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalSPDSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalSPDSolutionErrors);
+    }});
+    put(Operations.ACCURATE_SPD_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateSPDSolutionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateSPDSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateSPDSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateSPDSolutionErrors);
+    }});
+    put(Operations.SIMPLE_MATRIX_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaMatrixSolutionErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleMatrixSolutionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleMatrixSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalMatrixSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalMatrixSolutionErrors);
+    }});
+    put(Operations.ACCURATE_MATRIX_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateMatrixSolutionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateMatrixSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateMatrixSolutionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateMatrixSolutionErrors);
+    }});
+    put(Operations.SIMPLE_INVERSION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaMatrixInversionErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleMatrixInversionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleMatrixInversionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalMatrixInversionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalMatrixInversionErrors);
+    }});
+    put(Operations.ACCURATE_INVERSION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAccurateMatrixInversionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAccurateMatrixInversionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAccurateMatrixInversionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAccurateMatrixInversionErrors);
+    }});
+    put(Operations.MULTIPLICATION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaMultiplicationErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleMultiplicationErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleMultiplicationErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalMultiplicationErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalMultiplicationErrors);
+    }});
+    put(Operations.TRANSPOSITION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaTranspositionErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleTranspositionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleTranspositionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalTranspositionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalTranspositionErrors);
+    }});
+    put(Operations.DETERMINANT, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaDeterminantErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleDeterminantErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleDeterminantErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalDeterminantErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalDeterminantErrors);
+    }});
+    put(Operations.VECTOR_MULTIPLICATION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaVectorMultiplicationErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleVectorMultiplicationErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleVectorMultiplicationErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalVectorMultiplicationErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalVectorMultiplicationErrors);
+    }});
+    put(Operations.SCALAR_MULTIPLICATION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaScalarMultiplicationErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleScalarMultiplicationErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleScalarMultiplicationErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalScalarMultiplicationErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalScalarMultiplicationErrors);
+    }});
+    put(Operations.ADDITION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaAdditionErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleAdditionErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleAdditionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalAdditionErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalAdditionErrors);
+    }});
+    put(Operations.CONDITION_NUMBER, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 MatrixData::jamaConditionNumberErrors);
+      put(MatrixTypes.DOUBLE_MATRIX,        MatrixData::doubleConditionNumberErrors);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     MatrixData::quadrupleConditionNumberErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, MatrixData::bigDecimalConditionNumberErrors);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, MatrixData::bigDecimalConditionNumberErrors);
+    }});
+  }};
+
+  private PrintStream output = null;
+  /** Writes the results in machine-readable forms, see {@link ResultsExporter} */
+  private ResultsExporter exporter = null;
+
+  /** The number of combinations tested simultaneously. 1 means sequential execution in the main thread */
+  private int threadCount = 1;
+
+  /** Keeps the results of the finished combinations, see {@link RunJournal} */
+  private RunJournal journal = null;
+  /** The journal of an interrupted run to resume, given with --resume */
+  private Path resumedJournal = null;
+
+  /** The required half-width of the 95% confidence interval of the average time, relative to the time.
+   * 0 means testing every combination until the time budget is exhausted */
+  private double ciTarget = CI_TARGET;
+  /** The maximum time of testing a single combination, ms */
+  private long budgetMs = MAXTIME_MS;
+
+  /** The total time of the run given with --total-budget, ms, or 0 to test every combination for budgetMs at most */
+  private long totalBudgetMs = 0;
+
+  /** The folder of the data set corpora given with --corpus, or null to generate the data sets anew */
+  private Path corpusFolder = null;
+  private int corpusCount = CORPUS_COUNT;
+
+  /** Set with --jfr to record a JFR recording and find the hot methods of every combination */
+  private boolean recordJfr = false;
+  private HotMethodProfiler profiler = null;
+  /** The hot methods of every combination go here, if recordJfr is set */
+  private PrintStream hotMethodsOutput = null;
+
+  /** The maximum number of threads given with --scaling, 0 means the usual run without measuring the throughput */
+  private int scalingThreadCount = 0;
+  /** Set with --phases to time the phases of the operations instead of the usual run, see PhaseTiming */
+  private boolean measurePhases = false;
+  /** The number of vectors given with --multi-rhs to solve with one matrix instead of the usual run, see MultiRhsSolving.
+   * -1 means the usual run, 0 means as many as the size of the matrix */
+  private int multiRhsCount = -1;
+  /** Set with --conditioning to measure the operations on matrices with growing condition numbers instead of the usual run */
+  private boolean measureConditioning = false;
+  /** The precisions of BigDecimalMatrix given with --precisions to measure the operations with instead of the usual run,
+   * or null for the usual run */
+  private int[] sweepPrecisions = null;
+  /** The operation given with --operation for --scaling or --phases, null means all of them */
+  private Operations selectedOperation = null;
+  private int selectedSize = SELECTED_SIZE;
+
+  /** The port given with --metrics-port to serve the progress of the run on, -1 means no metrics */
+  private int metricsPort = -1;
+  private MetricsServer metrics = null;
+
+  /**
+   * Usage: {@code CollectStatistics [--threads N] [--resume <journal>] [--ci-target P] [--budget S | --total-budget H] [--corpus <folder> [--corpus-count K]] [--jfr] [--metrics-port P]}
+   * <br>or {@code CollectStatistics --scaling N [--operation OP] [--size S] [--budget S]}
+   * <br>{@code --threads N} -- test up to N independent combinations of operation, matrix type and size simultaneously,
+   * N = 0 means as many as there are available processors.
+   * <br>{@code --resume <journal>} -- continue an interrupted run, skipping the combinations found in the given journal.
+   * The results of the finished combinations are appended to the journal as soon as they are obtained,
+   * and the report is written anew, including the results found in the journal.
+   * <br>{@code --ci-target P} -- stop testing a combination as soon as the 95% confidence interval of its average time
+   * is within +/-P percent of the average (1 by default). P = 0 means testing every combination until its time budget is exhausted.
+   * <br>{@code --budget S} -- the maximum time of testing a single combination, in seconds (30 by default).
+   * Anyway, every combination is performed at least MIN_ITERATIONS times.
+   * <br>{@code --total-budget H} -- the time of the whole run, in hours. The cheaper combinations are tested first,
+   * and the rest of the budget is split among the remaining ones, see {@link BudgetScheduler}.
+   * The combinations that can't be warmed up and performed MIN_ITERATIONS times in their share of the budget are skipped.
+   * Can't be used with {@code --threads}.
+   * <br>{@code --corpus <folder>} -- read the data sets from the corpora stored in the given folder, see {@link DatasetCorpus}.
+   * The corpora that do not exist yet are generated and stored there, so that the next runs can use them.
+   * <br>{@code --corpus-count K} -- the number of data sets in a newly generated corpus (100 by default).
+   * The data sets of a corpus are used in turn, starting over after the last one.
+   * <br>{@code --jfr} -- record a JFR recording of the run, including an {@link OperationEvent} for every tested operation,
+   * and list the methods where every combination spends most of its time, see {@link HotMethodProfiler}.
+   * <br>{@code --metrics-port P} -- serve the progress of the run in the Prometheus format at {@code http://localhost:P/metrics},
+   * see {@link MetricsServer}. P = 0 means any free port, which is shown on the console.
+   * <br>{@code --scaling N} -- instead of the usual run, measure the throughput of the operation on every type of matrices
+   * performed by 1, 2, 4 ... N threads simultaneously, see {@link ThroughputScaling}. N = 0 means the number of available processors.
+   * Every number of threads is measured for the time given with {@code --budget}.
+   * <br>{@code --phases} -- instead of the usual run, time the phases of performing the operation on every type of matrices:
+   * converting the data, constructing the matrix with and without scaling, the operation itself, and extracting the results,
+   * see {@link PhaseTiming}. Every combination is measured for the time given with {@code --budget}.
+   * <br>{@code --multi-rhs K} -- instead of the usual run, solve K vectors one by one with the same matrix of every type,
+   * reusing its decomposition, and compare the costs with the solution of a matrix equation, see {@link MultiRhsSolving}.
+   * K = 0 means as many vectors as the size of the matrix. Every type of matrices is measured for the time given with {@code --budget}.
+   * <br>{@code --conditioning} -- instead of the usual run, perform the solutions and the inversions on every type of matrices
+   * of several families with condition numbers from 1e2 to 1e14, see {@link MatrixData.MatrixFamily}, and compare the times
+   * of the operations with iterative refinement with those without it. Every combination is tested as in the usual run,
+   * for not longer than the time given with {@code --budget}.
+   * <br>{@code --precisions P1,P2,...} -- instead of the usual run, perform the operations on BigDecimalMatrix
+   * with each of the given precisions, in decimal digits, and on QuadrupleMatrix for comparison, for all the sizes,
+   * and fit a model of the dependence of the time on the precision for every operation and size.
+   * {@code --precisions default} means {@code 20,34,40,60,80,120,200}.
+   * Every combination is tested as in the usual run, for not longer than the time given with {@code --budget}.
+   * <br>{@code --operation OP} -- the operation for {@code --scaling}, {@code --phases}, {@code --conditioning}
+   * or {@code --precisions}, all operations by default.
+   * <br>{@code --size S} -- the size of matrices for {@code --scaling}, {@code --phases}, {@code --multi-rhs}
+   * or {@code --conditioning}, 100 by default.
+   */
+  public static void main(String[] args) throws IOException {
+    final CollectStatistics collectStatistics = new CollectStatistics();
+    collectStatistics.parseArguments(args);
+    collectStatistics.run();
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--threads":
+          threadCount = Integer.parseInt(argumentValue(args, ++i));
+          if (threadCount <= 0) {
+            threadCount = Runtime.getRuntime().availableProcessors();
+          }
+          break;
+        case "--resume":
+          resumedJournal = Paths.get(argumentValue(args, ++i));
+          break;
+        case "--ci-target":
+          ciTarget = Double.parseDouble(argumentValue(args, ++i)) / 100;
+          break;
+        case "--budget":
+          budgetMs = Math.round(Double.parseDouble(argumentValue(args, ++i)) * 1000);
+          break;
+        case "--total-budget":
+          totalBudgetMs = Math.round(Double.parseDouble(argumentValue(args, ++i)) * 3_600_000);
+          break;
+        case "--corpus":
+          corpusFolder = Paths.get(argumentValue(args, ++i));
+          break;
+        case "--corpus-count":
+          corpusCount = Integer.parseInt(argumentValue(args, ++i));
+          break;
+        case "--jfr":
+          recordJfr = true;
+          break;
+        case "--metrics-port":
+          metricsPort = Integer.parseInt(argumentValue(args, ++i));
+          break;
+        case "--scaling":
+          scalingThreadCount = Integer.parseInt(argumentValue(args, ++i));
+          if (scalingThreadCount <= 0) {
+            scalingThreadCount = Runtime.getRuntime().availableProcessors();
+          }
+          break;
+        case "--phases":
+          measurePhases = true;
+          break;
+        case "--multi-rhs":
+          multiRhsCount = Integer.parseInt(argumentValue(args, ++i));
+          break;
+        case "--conditioning":
+          measureConditioning = true;
+          break;
+        case "--precisions":
+          sweepPrecisions = parsePrecisions(argumentValue(args, ++i));
+          break;
+        case "--operation":
+          selectedOperation = Operations.valueOf(argumentValue(args, ++i));
+          break;
+        case "--size":
+          selectedSize = Integer.parseInt(argumentValue(args, ++i));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument: " + args[i]);
+      }
+    }
+    if (totalBudgetMs > 0 && threadCount > 1) {
+      throw new IllegalArgumentException("--total-budget can't be used with --threads");
+    }
+    if ((scalingThreadCount > 0? 1: 0) + (measurePhases? 1: 0) + (multiRhsCount >= 0? 1: 0) + (measureConditioning? 1: 0)
+        + (sweepPrecisions != null? 1: 0) > 1) {
+      throw new IllegalArgumentException("Only one of --scaling, --phases, --multi-rhs, --conditioning and --precisions can be used at a time");
+    }
+  }
+
+  private static int[] parsePrecisions(String value) {
+    if (value.equals("default")) {
+      return SWEEP_PRECISIONS;
+    }
+    final int[] precisions = Arrays.stream(value.split(",")).mapToInt(p -> Integer.parseInt(p.trim())).sorted().distinct().toArray();
+    if (precisions.length == 0 || precisions[0] <= 0) {
+      throw new IllegalArgumentException("--precisions requires positive numbers of digits: " + value);
+    }
+    return precisions;
+  }
+
+  private static String argumentValue(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException(args[index - 1] + " requires a value");
+    }
+    return args[index];
+  }
+
+  /** Traverses through operation types, matrix types and sizes, */ 
+  private void run() throws IOException {
+    Locale.setDefault(Locale.US);
+    final Path folder = resultsFolder();
+    final String runId = makeRunId();
+    final RunManifest manifest = RunManifest.collect(runId, manifestConfig());
+    manifest.write(folder.resolve("manifest_" + runId + ".json"));
+    if (scalingThreadCount > 0 || measurePhases || multiRhsCount >= 0 || measureConditioning || sweepPrecisions != null) {
+      final String prefix = scalingThreadCount > 0? "scaling_": measurePhases? "phases_":
+                            multiRhsCount >= 0? "multirhs_": measureConditioning? "conditioning_": "precisions_";
+      output = new PrintStream(folder.resolve(prefix + runId + ".txt").toFile());
+      writeHeader(manifest);
+      if (scalingThreadCount > 0) {
+        measureScaling();
+      } else if (measurePhases) {
+        measurePhases();
+      } else if (multiRhsCount >= 0) {
+        measureMultiRhs();
+      } else if (measureConditioning) {
+        measureConditioning();
+      } else {
+        measurePrecisions();
+      }
+      output.close();
+      say("Done!");
+      return;
+    }
+    journal = openJournal(folder, runId);
+    output = openOutput(folder, runId);
+    writeHeader(manifest);
+    exporter = ResultsExporter.create(folder, runId, configHash());
+    if (recordJfr) {
+      profiler = HotMethodProfiler.start(folder.resolve("recording_" + runId + ".jfr"));
+      hotMethodsOutput = new PrintStream(folder.resolve("hotmethods_" + runId + ".txt").toFile());
+    }
+    if (metricsPort >= 0) {
+      metrics = MetricsServer.start(metricsPort);
+      metrics.setTotalCount(implementedCombinations().size());
+      say("The metrics are served at http://localhost:%s/metrics", metrics.port());
+    }
+    if (totalBudgetMs > 0) {
+      runScheduled();
+    } else if (threadCount > 1) {
+      ReferenceKernels.setParallelism(1); // The workers keep the processors busy by themselves
+      runInParallel();
+    } else {
+      for (final Operations operation: Operations.values()) {
+        testOperation(operation);
+      }
+    }
+    output.close();
+    exporter.close();
+    journal.close();
+    if (profiler != null) {
+      profiler.close();
+      hotMethodsOutput.close();
+    }
+    if (metrics != null) {
+      metrics.close();
+    }
+    say("Done!");
+  }
+
+  /**
+   * Perform the specified operation on all types of matrices of all sizes
+   * @param operation
+   * @param output
+   */
+  private void testOperation(Operations operation) {
+    for (final MatrixTypes matrixType: MatrixTypes.values()) {
+      testOperationOnType(operation, matrixType);
+    }
+    write();
+  }
+
+  /**
+   * Perform the specified operation on the specified type of matrix of all sizes
+   * @param operation
+   * @param output
+   */
+  private void testOperationOnType(Operations operation, MatrixTypes matrixType) {
+    final ErrorSet[] results = collectStatsOnSizes(operation, matrixType);
+
+    if (results != null) {
+      writeResults(results, operation, matrixType);
+    }
+    write();
+  }
+
+  /** Sets the precision required by the given type of matrices for the current thread, see {@link PrecisionContext} */
+  static void setBigDecimalMatrixPrecision(MatrixTypes matrixType) {
+    final int precision = bigDecimalPrecision(matrixType);
+    if (precision != 0) {
+      PrecisionContext.setCurrent(PrecisionContext.of(precision));
+    }
+  }
+
+  /** Returns the precision of BigDecimalMatrix required to test the given type of matrix,
+   * or 0 if the type does not depend on it */
+  static int bigDecimalPrecision(MatrixTypes matrixType) {
+    if (matrixType == MatrixTypes.BIGDECIMAL_MATRIX_40) {
+      return 40;
+    } else if (matrixType == MatrixTypes.BIGDECIMAL_MATRIX_80) {
+      return 80;
+    }
+    return 0;
+  }
+
+  /**
+   * Each combination of operation and size gets its own random seed, so that the data sets do not depend
+   * on the order in which the combinations are tested, and all types of matrices are tested on the same data sets
+   */
+  static long combinationSeed(Operations operation, int size) {
+    return RAND_SEED * 1_000_003L + operation.name().hashCode() * 1_009L + size;
+  }
+
+  /** The purpose of the data sets made by the generator of the given operation, see {@link #generatorMakers} */
+  static Purpose purposeOf(Operations operation) {
+    switch (operation) {
+      case SIMPLE_VECTOR_SOLUTION: case ACCURATE_VECTOR_SOLUTION:
+      case SIMPLE_SPD_SOLUTION:    case ACCURATE_SPD_SOLUTION:
+      case VECTOR_MULTIPLICATION:
+        return Purpose.VECTOR_SOLUTION;
+      case SIMPLE_MATRIX_SOLUTION: case ACCURATE_MATRIX_SOLUTION:
+      case MULTIPLICATION:
+        return Purpose.MATRIX_SOLUTION;
+      case SIMPLE_INVERSION:       case ACCURATE_INVERSION:
+        return Purpose.INVERSION;
+      case TRANSPOSITION: case SCALAR_MULTIPLICATION: case ADDITION:
+        return Purpose.MATRIX_OPERATIONS;
+      case DETERMINANT:
+        return Purpose.DETERMINANT;
+      case CONDITION_NUMBER:
+        return Purpose.CONDITION_NUMBER;
+      default:
+        throw new IllegalArgumentException("Unknown operation " + operation);
+    }
+  }
+
+  /**
+   * Collect statistics in respect of errors and times for different sizes 
+   * of matrices of the specified type, performing the specified type of operation 
+   */
+  private ErrorSet[] collectStatsOnSizes(Operations operation, MatrixTypes matrixType) {
+    final ErrorSet[] results = new ErrorSet[sizes.length];
+
+    for (int i = 0; i < sizes.length; i++) {
+      results[i] = testOperationOnTypeOfSize(operation, matrixType, sizes[i], System.out);
+      if (results[i] == null) {
+        write(operation + " for " + matrixType + " not implemented");
+        return null;
+      } else {
+        showResults(results[i], System.out);
+      }
+    }
+    return results;
+  }
+
+  /** Creates a tester object for the given combination of the operation type, matrix type, and size,
+   * and runs it.
+   */
+  private ErrorSet testOperationOnTypeOfSize(Operations operation, MatrixTypes matrixType, int size, PrintStream console) {
+    return testOperationOnTypeOfSize(operation, matrixType, size, console, budgetMs);
+  }
+
+  /** The same, with the given time budget for the combination, ms */
+  private ErrorSet testOperationOnTypeOfSize(Operations operation, MatrixTypes matrixType, int size,
+                                             PrintStream console, long budgetMs) {
+    final Combination combination = new Combination(operation, matrixType, size);
+    final long seed = combinationSeed(operation, size);
+    final ErrorSet journaledResult = journal.find(combination, seed, configHash());
+    if (journaledResult != null) {
+      showSectionHeader(operation, matrixType, size, console);
+      console.println("    Restored from " + journal.getPath());
+      if (metrics != null) {
+        metrics.finished(combination, false);
+      }
+      return journaledResult;
+    }
+
+    final OperationTester tester = makeTester(operation, matrixType, size, console);
+    if (tester == null) {
+      return null;
+    }
+    showSectionHeader(operation, matrixType, size, console);
+    if (profiler != null) {
+      profiler.beginWindow();
+    }
+    runTester(tester, budgetMs);
+    if (profiler != null) {
+      writeHotMethods(combination, profiler.endWindow(HOT_METHOD_COUNT), console);
+    }
+    final ErrorSet result = tester.getStatistics();
+    try {
+      if (!result.isSkipped()) { // A resumed run should try again to measure it
+        journal.record(combination, seed, configHash(), result);
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Can't write to " + journal.getPath(), e);
+    }
+    if (metrics != null) {
+      metrics.finished(combination, true);
+    }
+    return result;
+  }
+
+  private static void showSectionHeader(Operations operation, MatrixTypes matrixType, int size, PrintStream console) {
+    console.println("Operation:     " + operation);
+    console.println("  Matrix type: " + matrixType);
+    console.println(String.format("    Matrix size = %4s", size));
+  }
+
+
+  private OperationTester makeTester(Operations operation, MatrixTypes matrixType, int size, PrintStream console) {
+    final GeneratorMaker generatorMaker = generatorMakers.get(operation);
+    final OperationPerformer performer = findPerformer(operation, matrixType);
+    if (generatorMaker == null || performer == null)
+      return null;
+
+    final long seed = combinationSeed(operation, size);
+    final DataGenerator generator = corpusFolder == null
+        ? generatorMaker.make(size, new Random(seed))
+        : DatasetCorpus.open(corpusFolder, operation.name(), purposeOf(operation), size, seed, corpusCount, generatorMaker)
+                       .generator();
+    return new OperationTester(new Combination(operation, matrixType, size), generator, performer, console);
+  }
+
+  /** Shows the hot methods of the given combination on the console and writes them to hotMethodsOutput */
+  private void writeHotMethods(Combination combination, List<HotMethodProfiler.HotMethod> hotMethods, PrintStream console) {
+    final StringBuilder sb = new StringBuilder(String.format("    Hot methods of %s on %s, size %s:%n",
+        combination.operation(), combination.matrixType(), combination.size()));
+    for (final HotMethodProfiler.HotMethod hotMethod: hotMethods) {
+      sb.append(String.format("      %6.2f%% %,8d  %s%n", hotMethod.share() * 100, hotMethod.samples(), hotMethod.method()));
+    }
+    console.print(sb);
+    synchronized (hotMethodsOutput) {
+      hotMethodsOutput.println(sb);
+      hotMethodsOutput.flush();
+    }
+  }
+
+  private OperationPerformer findPerformer(Operations operation, MatrixTypes matrixType) {
+    final HashMap<MatrixTypes, OperationPerformer> performerTable = performers .get(operation);
+    return performerTable == null? null: performerTable.get(matrixType);
+  }
+
+  private void runTester(final OperationTester tester, long budgetMs) {
+    tester.resetTime();
+    long lastTime = 0;
+
+    // run it not more than ITERATIONS times 
+    // and not longer than budgetMs milliseconds,
+    // or until the average time is known accurately enough,
+    // but not less than MIN_ITERATIONS times 
+    for (int i = 1; i <= MAX_ITERATIONS; i++) {
+      tester.perform();
+      final long currentTime = System.currentTimeMillis();
+      if (currentTime - lastTime > 2000) {  // Show progress every 2 sec
+        showProgress(tester, i);
+        if (metrics != null) {
+          metrics.update(tester.getProgress());
+        }
+        lastTime = currentTime;
+      }
+      if (i >= MIN_ITERATIONS && (tester.elapsedTime() > budgetMs || tester.timeIsAccurateEnough()))
+        break;
+    }
+  }
+
+  private static void showProgress(final OperationTester tester, int i) {
+    tester.console.println(String.format("      %,6d: Max error: %7.3e, MSE: %7.3e, time: %,11.3f ms, CI: +/-%.2f%%",
+        i, tester.getLastMaxError(), tester.getLastMse(), tester.getLastTimeMs(), tester.getTimeHalfWidthPercent()));
+  }
+
+  private static void showResults(ErrorSet result, PrintStream console) {
+    console.println("========================");
+    if (result.isSkipped()) {
+      console.println("     Not measured: the budget was exhausted before the warmup ended");
+      console.println();
+      return;
+    }
+    console.println(String.format("     Average: Max error: %7.3e, MSE: %7.3e, time: %,11.3f ms +/-%.2f%% (%,d timings)",
+        result.maxError(), result.mse(), result.getTime() * 1e-6,
+        result.getTimeHalfWidthPercent(), result.getTimedCount()));
+    console.println("     Time, ms:  " + formatPercentiles(result.getTimePercentiles(), 1e-6, "%.3f"));
+    console.println("     MSE:       " + formatPercentiles(result.getMsePercentiles(), 1, "%.3e"));
+    console.println(String.format("     Alloc: %,.3f MB/op, GC: %.3f ms/op (%.3f pauses/op), CPU/wall: %.3f",
+        result.getAllocatedBytes() * 1e-6, result.getGcTime(), result.getGcCount(), result.getCpuWallRatio()));
+    console.println();
+  }
+
+  /** Formats the values of LogHistogram.PERCENTILES as "p50 1.234, p90 2.345, ..., max 4.567" */
+  private static String formatPercentiles(double[] values, double factor, String format) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(percentileName(LogHistogram.PERCENTILES[i])).append(' ')
+        .append(String.format(format, values[i] * factor));
+    }
+    return sb.toString();
+  }
+
+  /** Returns "p50", "p99.9" etc., or "max" for 100 */
+  private static String percentileName(double percent) {
+    return percent >= 100? "max": "p" + new DecimalFormat("0.###").format(percent);
+  }
+
+  /* ***************************************************************************
+   ***** Parallel execution ****************************************************
+   *****************************************************************************/
+
+  /**
+   * Tests all the combinations of operation types, matrix types and sizes on a pool of {@code threadCount} workers.
+   * Every worker creates its own OperationTester with its own instance of Random for every combination,
+   * and buffers its console output until the combination is done.
+   * When all the combinations are done, the results are written in the same order and format as
+   * in the sequential mode.
+   * Timings obtained this way may be somewhat greater than the sequential ones,
+   * since the workers compete for memory bandwidth and caches.
+   */
+  private void runInParallel() {
+    final Map<Combination, ErrorSet> results = new HashMap<>();
+    final ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+    try {
+      runAll(pool, parallelOrder(), results);
+    } finally {
+      pool.shutdown();
+    }
+    writeAllResults(results);
+  }
+
+  /** Writes the results of all the combinations in the same order and format as the sequential run does */
+  private void writeAllResults(Map<Combination, ErrorSet> results) {
+    for (final Operations operation: Operations.values()) {
+      for (final MatrixTypes matrixType: MatrixTypes.values()) {
+        final ErrorSet[] row = collectRow(results, operation, matrixType);
+        if (row == null) {
+          write(operation + " for " + matrixType + " not implemented");
+        } else {
+          writeResults(row, operation, matrixType);
+        }
+        write();
+      }
+      write();
+    }
+  }
+
+  /**
+   * Returns all the implemented combinations in the order of submitting them to the workers.
+   * Every OperationTester sets the precision of BigDecimal computations for its own thread,
+   * so the combinations requiring different precisions run simultaneously.
+   */
+  private List<Combination> parallelOrder() {
+    final List<Combination> combinations = new ArrayList<>();
+    for (final Operations operation: Operations.values()) {
+      for (final MatrixTypes matrixType: MatrixTypes.values()) {
+        if (generatorMakers.get(operation) == null || findPerformer(operation, matrixType) == null) {
+          continue;
+        }
+        // Larger sizes go first, so that the longest combinations do not remain at the end
+        for (int i = sizes.length - 1; i >= 0; i--) {
+          combinations.add(new Combination(operation, matrixType, sizes[i]));
+        }
+      }
+    }
+    return combinations;
+  }
+
+  private void runAll(ExecutorService pool, List<Combination> combinations, Map<Combination, ErrorSet> results) {
+    final List<Callable<ErrorSet>> tasks = new ArrayList<>();
+    for (final Combination combination: combinations) {
+      tasks.add(() -> runCombination(combination));
+    }
+    try {
+      final List<Future<ErrorSet>> futures = pool.invokeAll(tasks);
+      for (int i = 0; i < futures.size(); i++) {
+        results.put(combinations.get(i), futures.get(i).get());
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while testing", e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException("Testing failed", e.getCause());
+    }
+  }
+
+  /** Tests the given combination in a worker thread, buffering the console output until it is done */
+  private ErrorSet runCombination(Combination combination) {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final PrintStream console = new PrintStream(buffer, true);
+    final ErrorSet result = testOperationOnTypeOfSize(
+        combination.operation(), combination.matrixType(), combination.size(), console);
+    showResults(result, console);
+    synchronized (System.out) {
+      System.out.print(buffer);
+      System.out.flush();
+    }
+    return result;
+  }
+
+  /** Returns the results of the given operation on the given type of matrices of all sizes,
+   * or null if the combination is not implemented */
+  private ErrorSet[] collectRow(Map<Combination, ErrorSet> results, Operations operation, MatrixTypes matrixType) {
+    final ErrorSet[] row = new ErrorSet[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      row[i] = results.get(new Combination(operation, matrixType, sizes[i]));
+      if (row[i] == null) {
+        return null;
+      }
+    }
+    return row;
+  }
+
+  /* ***************************************************************************
+   ***** Scheduled execution ***************************************************
+   *****************************************************************************/
+
+  /**
+   * Tests all the combinations within totalBudgetMs, in the order and for the times decided by a BudgetScheduler,
+   * showing the estimated time of the end of the run before each combination.
+   * When all the combinations are done, the results are written in the same order and format as
+   * in the sequential mode, with "skipped" for the combinations that did not fit in the budget.
+   */
+  private void runScheduled() {
+    final BudgetScheduler scheduler = new BudgetScheduler(implementedCombinations(), totalBudgetMs, MIN_ITERATIONS, MAX_ITERATIONS,
+                                                          WARMUP_TIME, WARMUP_COUNT);
+    final Map<Combination, ErrorSet> results = new HashMap<>();
+    while (scheduler.hasNext()) {
+      final Combination combination = scheduler.next();
+      final long budget = scheduler.budgetFor(combination);
+      say(scheduler.progress());
+      if (metrics != null) {
+        metrics.setEstimatedRemainingMs(scheduler.estimatedRemainingMs());
+      }
+      if (budget == 0) {
+        showSectionHeader(combination.operation(), combination.matrixType(), combination.size(), System.out);
+        say("    Skipped: an iteration is expected to take %.3f s, too long for the rest of the budget%n",
+            scheduler.predictedCost(combination) * 1e-3);
+        results.put(combination, ErrorSet.skipped());
+        if (metrics != null) {
+          metrics.finished(combination, false);
+        }
+        continue;
+      }
+      final ErrorSet result = testOperationOnTypeOfSize(
+          combination.operation(), combination.matrixType(), combination.size(), System.out, budget);
+      scheduler.record(combination, result.getTrialTime() * 1e-6, result.getTimedCount());
+      showResults(result, System.out);
+      results.put(combination, result);
+    }
+    writeAllResults(results);
+  }
+
+  /** Returns the combinations of operation types, matrix types and sizes that have performers */
+  private List<Combination> implementedCombinations() {
+    final List<Combination> combinations = new ArrayList<>();
+    for (final Operations operation: Operations.values()) {
+      for (final MatrixTypes matrixType: MatrixTypes.values()) {
+        if (generatorMakers.get(operation) == null || findPerformer(operation, matrixType) == null) {
+          continue;
+        }
+        for (final int size: sizes) {
+          combinations.add(new Combination(operation, matrixType, size));
+        }
+      }
+    }
+    return combinations;
+  }
+
+  /* ***************************************************************************
+   ***** Throughput scaling ****************************************************
+   *****************************************************************************/
+
+  /**
+   * For the operation given with --operation (or for all of them) and for every type of matrices,
+   * measures the throughput of the operation performed by 1, 2, 4 ... scalingThreadCount threads,
+   * first on data sets of their own, then on a data set shared by all of them
+   */
+  private void measureScaling() {
+    for (final Operations operation: Operations.values()) {
+      if (selectedOperation != null && operation != selectedOperation)
+        continue;
+      for (final MatrixTypes matrixType: MatrixTypes.values()) {
+        final GeneratorMaker generatorMaker = generatorMakers.get(operation);
+        final OperationKernels.KernelMaker kernelMaker = OperationKernels.kernelMaker(operation, matrixType);
+        if (generatorMaker == null || kernelMaker == null)
+          continue;
+        setBigDecimalMatrixPrecision(matrixType);
+        final ThroughputScaling scaling =
+            new ThroughputScaling(generatorMaker, kernelMaker, selectedSize, combinationSeed(operation, selectedSize));
+        write("Throughput scaling of %s on %s, size %s", operation, matrixType, selectedSize);
+        write("    Input:  \t     Threads\t       Ops/s\t Latency, ms\t     p99, ms\tEfficiency,%\t Alloc, MB/s\t       GC, %");
+        for (final boolean sharedInput: new boolean[] {false, true}) {
+          double singleThreadOpsPerSecond = Double.NaN;
+          for (final int threadCount: ThroughputScaling.threadCounts(scalingThreadCount)) {
+            final ThroughputScaling.Result result = scaling.measure(threadCount, sharedInput, WARMUP_TIME, budgetMs);
+            if (threadCount == 1) {
+              singleThreadOpsPerSecond = result.opsPerSecond();
+            }
+            write("    %-8s\t%12d\t%12.3f\t%12.3f\t%12.3f\t%12.1f\t%12.1f\t%12.2f",
+                sharedInput? "shared": "private", threadCount, result.opsPerSecond(),
+                result.meanLatencyMs(), result.p99LatencyMs(),
+                result.opsPerSecond() / threadCount / singleThreadOpsPerSecond * 100,
+                result.allocationMBPerSecond(), result.gcShare() * 100);
+          }
+        }
+        write();
+      }
+    }
+  }
+
+  /* ***************************************************************************
+   ***** Phase timing **********************************************************
+   *****************************************************************************/
+
+  /**
+   * For the operation given with --operation (or for all of them), times the phases of performing it
+   * on every type of matrices of selectedSize, and writes their mean times, the end-to-end time,
+   * and the share of the end-to-end time taken by the operation itself
+   */
+  private void measurePhases() {
+    for (final Operations operation: Operations.values()) {
+      if (selectedOperation != null && operation != selectedOperation)
+        continue;
+      final GeneratorMaker generatorMaker = generatorMakers.get(operation);
+      if (generatorMaker == null)
+        continue;
+      write("Phases of %s, size %s, ms", operation, selectedSize);
+      write("    Matrix type:        \t  Conversion\tNo scaling *\tConstruction\t   Operation\t  Extraction\t  End-to-end\t    CI, +/-%\t   Kernel, %");
+      for (final MatrixTypes matrixType: MatrixTypes.values()) {
+        if (findPerformer(operation, matrixType) == null || !PhaseTiming.isSupported(operation, matrixType))
+          continue;
+        setBigDecimalMatrixPrecision(matrixType);
+        say("Timing the phases of %s on %s, size %s", operation, matrixType, selectedSize);
+        final PhaseTiming.Result result = new PhaseTiming(generatorMaker, operation, matrixType, selectedSize,
+                                                          combinationSeed(operation, selectedSize))
+                                              .measure(WARMUP_TIME, budgetMs, MIN_ITERATIONS);
+        write_("    %-20s", matrixType);
+        for (final PhaseTiming.Phase phase: PhaseTiming.Phase.values()) {
+          write_("\t%12.3f", result.phaseTime(phase) * 1e-6);
+        }
+        write("\t%12.3f\t%12.2f\t%12.1f", result.endToEndTime() * 1e-6,
+              result.endToEndHalfWidth() / result.endToEndTime() * 100, result.kernelShare() * 100);
+      }
+      write("    * the construction without scaling is not included in the end-to-end time");
+      write();
+    }
+  }
+
+  /* ***************************************************************************
+   ***** Solving many vectors with one matrix **********************************
+   *****************************************************************************/
+
+  /**
+   * For every type of matrices, solves multiRhsCount vectors of selectedSize with the same matrix,
+   * simply and accurately, and writes the times of the first and of the following solutions,
+   * the time of the solution of a matrix equation, and the number of the vectors at which
+   * solving them one by one gets as cheap as the matrix solution, per vector
+   */
+  private void measureMultiRhs() {
+    final int rhsCount = multiRhsCount == 0? selectedSize: multiRhsCount;
+    write("Solving %s vectors with the same matrix of size %s, ms", rhsCount, selectedSize);
+    write("    Matrix type:        \tOperation\t First solve\t  Next solve\t     Per RHS\tMatrix solve\t  Per column\t  Break-even\t         MSE");
+    for (final MatrixTypes matrixType: MatrixTypes.values()) {
+      setBigDecimalMatrixPrecision(matrixType);
+      for (final boolean accurately: new boolean[] {false, true}) {
+        if (!MultiRhsSolving.isSupported(matrixType, accurately))
+          continue;
+        final Operations operation = accurately? Operations.ACCURATE_VECTOR_SOLUTION: Operations.SIMPLE_VECTOR_SOLUTION;
+        say("Solving %s vectors with %s on %s, size %s", rhsCount, accurately? "solveAccurately()": "solve()",
+            matrixType, selectedSize);
+        final MultiRhsSolving.Result result =
+            new MultiRhsSolving(matrixType, accurately, selectedSize, rhsCount, combinationSeed(operation, selectedSize))
+                .measure(WARMUP_TIME, budgetMs, MIN_ITERATIONS);
+        final double breakEven = result.breakEvenCount();
+        write("    %-20s\t%-9s\t%12.3f\t%12.3f\t%12.3f\t%12.3f\t%12.3f\t%12s\t%12.3e",
+              matrixType, accurately? "accurate": "simple",
+              result.firstSolveTime() * 1e-6, result.nextSolveTime() * 1e-6, result.timePerRhs() * 1e-6,
+              result.matrixSolveTime() * 1e-6, result.matrixSolveTimePerColumn() * 1e-6,
+              Double.isInfinite(breakEven)? "never": String.format("%.0f", breakEven), result.mse());
+      }
+    }
+    write();
+  }
+
+  /* ***************************************************************************
+   ***** Conditioning sweep ****************************************************
+   *****************************************************************************/
+
+  /**
+   * For every family of matrices, performs the solutions and the inversions (or only the operation given with --operation)
+   * on every type of matrices of selectedSize with the condition numbers from CONDITION_NUMBERS,
+   * and writes the times and the errors along with the actual condition numbers.
+   * The time of an operation with iterative refinement is also compared with the time of the same operation
+   * without it, on the same type of matrices and the same data sets.
+   * All the operations and types of matrices get the same data sets for the same family and condition number
+   */
+  private void measureConditioning() {
+    for (final MatrixFamily family: MatrixFamily.values()) {
+      final double[] conditionNumbers = family.isControlled()? CONDITION_NUMBERS: new double[] {Double.NaN};
+      final double[] actualConditionNumbers = new double[conditionNumbers.length];
+      for (int k = 0; k < conditionNumbers.length; k++) {
+        final DataGenerator generator = conditionedGenerator(family, Operations.SIMPLE_VECTOR_SOLUTION,
+                                                             new Random(conditioningSeed(family, k)), conditionNumbers[k]);
+        final double[] samples = new double[CONDITION_SAMPLE_COUNT];
+        for (int i = 0; i < samples.length; i++) {
+          samples[i] = generator.generate().findConditionNumber();
+        }
+        Arrays.sort(samples);
+        actualConditionNumbers[k] = samples[samples.length / 2];
+      }
+
+      // The times of the operations without refinement, to compare the ones with refinement with
+      final Map<Combination, double[]> simpleTimes = new HashMap<>();
+      for (final Operations operation: conditioningOperations(family)) {
+        if (selectedOperation != null && operation != selectedOperation)
+          continue;
+        write("Conditioning of %s on %s matrices, size %s", operation, family, selectedSize);
+        write("    Matrix type:        \t Target cond\t Actual cond\t    Time, ms\t    CI, +/-%\t         MSE\t   Max error\tVs simple, x");
+        for (final MatrixTypes matrixType: MatrixTypes.values()) {
+          final OperationPerformer performer = findPerformer(operation, matrixType);
+          if (performer == null)
+            continue;
+          final double[] simple = simpleTimes.get(new Combination(simpleOperation(operation), matrixType, selectedSize));
+          final double[] times = new double[conditionNumbers.length];
+          for (int k = 0; k < conditionNumbers.length; k++) {
+            final String target = family.isControlled()? String.format("%.0e", conditionNumbers[k]): "-";
+            say("Conditioning of %s on %s, %s matrices of size %s, condition number %s",
+                operation, matrixType, family, selectedSize, target);
+            final OperationTester tester = new OperationTester(new Combination(operation, matrixType, selectedSize),
+                conditionedGenerator(family, operation, new Random(conditioningSeed(family, k)), conditionNumbers[k]),
+                performer, System.out);
+            try {
+              runTester(tester, budgetMs);
+            } catch (final RuntimeException e) {
+              // Ill-conditioned matrices may turn out singular to some of the types
+              times[k] = Double.NaN;
+              write("    %-20s\t%12s\t%12.3e\tfailed: %s", matrixType, target, actualConditionNumbers[k], e);
+              continue;
+            }
+            final ErrorSet result = tester.getStatistics();
+            if (result.isSkipped()) {
+              times[k] = Double.NaN;
+              write("    %-20s\t%12s\t%12.3e\tnot measured: the budget was exhausted before the warmup ended",
+                    matrixType, target, actualConditionNumbers[k]);
+              continue;
+            }
+            times[k] = result.getTime();
+            write("    %-20s\t%12s\t%12.3e\t%12.3f\t%12.2f\t%12.3e\t%12.3e\t%12s",
+                  matrixType, target, actualConditionNumbers[k], result.getTime() * 1e-6, result.getTimeHalfWidthPercent(),
+                  result.mse(), result.maxError(),
+                  simple == null || Double.isNaN(simple[k])? "-": String.format("%.2f", times[k] / simple[k]));
+          }
+          simpleTimes.put(new Combination(operation, matrixType, selectedSize), times);
+        }
+        write();
+      }
+    }
+  }
+
+  /** The solutions and the inversions, with and without refinement, the SPD solutions only for SPD families */
+  private static List<Operations> conditioningOperations(MatrixFamily family) {
+    final List<Operations> operations = new ArrayList<>();
+    operations.add(Operations.SIMPLE_VECTOR_SOLUTION);
+    operations.add(Operations.ACCURATE_VECTOR_SOLUTION);
+    if (family.isSpd()) {
+      operations.add(Operations.SIMPLE_SPD_SOLUTION);
+      operations.add(Operations.ACCURATE_SPD_SOLUTION);
+    }
+    operations.add(Operations.SIMPLE_INVERSION);
+    operations.add(Operations.ACCURATE_INVERSION);
+    return operations;
+  }
+
+  /** Returns the operation without iterative refinement corresponding to the given one */
+  private static Operations simpleOperation(Operations operation) {
+    switch (operation) {
+      case ACCURATE_VECTOR_SOLUTION:  return Operations.SIMPLE_VECTOR_SOLUTION;
+      case ACCURATE_SPD_SOLUTION:     return Operations.SIMPLE_SPD_SOLUTION;
+      case ACCURATE_INVERSION:        return Operations.SIMPLE_INVERSION;
+      default:                        return operation;
+    }
+  }
+
+  private DataGenerator conditionedGenerator(MatrixFamily family, Operations operation, Random random, double conditionNumber) {
+    final int size = selectedSize;
+    if (operation == Operations.SIMPLE_INVERSION || operation == Operations.ACCURATE_INVERSION) {
+      return () -> MatrixData.makeConditionedDataSetForInversions(family, size, random, conditionNumber);
+    }
+    return () -> MatrixData.makeConditionedDataSetForVectorSolutions(family, size, random, conditionNumber);
+  }
+
+  /** The seed of the data sets of the given family with the k-th of the condition numbers */
+  private long conditioningSeed(MatrixFamily family, int k) {
+    return combinationSeed(Operations.SIMPLE_VECTOR_SOLUTION, selectedSize) + family.ordinal() * 1_000 + k;
+  }
+
+  /* ***************************************************************************
+   ***** Precision sweep *******************************************************
+   *****************************************************************************/
+
+  /**
+   * For every operation (or only the one given with --operation) and size, performs the operation
+   * on BigDecimalMatrix with each of sweepPrecisions and on QuadrupleMatrix, writes the times and the errors,
+   * and fits the model time = a * digits^b to the times of BigDecimalMatrix, by the least squares in the log-log scale.
+   * All the precisions get the same data sets as the usual run for the same operation and size
+   */
+  private void measurePrecisions() {
+    for (final Operations operation: Operations.values()) {
+      if (selectedOperation != null && operation != selectedOperation)
+        continue;
+      final OperationPerformer performer = bigDecimalPerformer(operation);
+      final OperationPerformer quadruplePerformer = findPerformer(operation, MatrixTypes.QUADRUPLE_MATRIX);
+      if (performer == null || generatorMakers.get(operation) == null)
+        continue;
+      write("Precision sweep of %s", operation);
+      write("    Size:\t   Precision\t    Time, ms\t    CI, +/-%\t         MSE\t   Max error\tVs quadruple, x");
+      for (final int size: sizes) {
+        double quadrupleTime = Double.NaN;
+        if (quadruplePerformer != null) {
+          final ErrorSet result = measurePrecision(operation, size, MatrixTypes.QUADRUPLE_MATRIX, quadruplePerformer, 0);
+          if (result != null) {
+            quadrupleTime = result.getTime();
+            writePrecisionRow(size, "quadruple", result, Double.NaN);
+          }
+        }
+        final double[] times = new double[sweepPrecisions.length];
+        for (int k = 0; k < sweepPrecisions.length; k++) {
+          // The type only names the combination, the tester uses the given precision
+          final ErrorSet result = measurePrecision(operation, size, MatrixTypes.BIGDECIMAL_MATRIX_40, performer, sweepPrecisions[k]);
+          times[k] = result == null? Double.NaN: result.getTime();
+          if (result != null) {
+            writePrecisionRow(size, String.valueOf(sweepPrecisions[k]), result, times[k] / quadrupleTime);
+          }
+        }
+        write("    %s\tModel: %s", size, fitPowerLaw(sweepPrecisions, times));
+      }
+      write();
+    }
+  }
+
+  /** Tests the operation on the given type of matrices with the given precision of BigDecimalMatrix (0 if it's not used),
+   * returns null and writes the error if it fails */
+  private ErrorSet measurePrecision(Operations operation, int size, MatrixTypes matrixType, OperationPerformer performer, int precision) {
+    say("Precision sweep of %s on %s, size %s", operation,
+        precision == 0? matrixType: String.format("BigDecimalMatrix with %s digits", precision), size);
+    final OperationTester tester = new OperationTester(new Combination(operation, matrixType, size),
+        generatorMakers.get(operation).make(size, new Random(combinationSeed(operation, size))), performer, System.out, precision);
+    try {
+      runTester(tester, budgetMs);
+    } catch (final RuntimeException e) {
+      write("    %s\t%12s\tfailed: %s", size, precision == 0? "quadruple": precision, e);
+      return null;
+    }
+    final ErrorSet result = tester.getStatistics();
+    if (result.isSkipped()) {
+      write("    %s\t%12s\tnot measured: the budget was exhausted before the warmup ended",
+            size, precision == 0? "quadruple": precision);
+      return null;
+    }
+    return result;
+  }
+
+  private void writePrecisionRow(int size, String precision, ErrorSet result, double quadrupleRatio) {
+    write("    %s\t%12s\t%12.3f\t%12.2f\t%12.3e\t%12.3e\t%12s",
+          size, precision, result.getTime() * 1e-6, result.getTimeHalfWidthPercent(), result.mse(), result.maxError(),
+          Double.isNaN(quadrupleRatio)? "-": String.format("%.2f", quadrupleRatio));
+  }
+
+  /** The performer of the operation on BigDecimalMatrix, the same for all the precisions */
+  private OperationPerformer bigDecimalPerformer(Operations operation) {
+    for (final MatrixTypes matrixType: MatrixTypes.values()) {
+      if (bigDecimalPrecision(matrixType) != 0)
+        return findPerformer(operation, matrixType);
+    }
+    return null;
+  }
+
+  /**
+   * Fits time = a * digits^b to the given times (in ns, NaN for the failed ones) by the least squares on the logarithms,
+   * and returns the description of the model with the time in ms, or "-" if there are less than 2 times
+   */
+  static String fitPowerLaw(int[] precisions, double[] times) {
+    int count = 0;
+    double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumYY = 0;
+    for (int k = 0; k < precisions.length; k++) {
+      if (Double.isNaN(times[k]) || times[k] <= 0)
+        continue;
+      final double x = Math.log(precisions[k]), y = Math.log(times[k] * 1e-6);
+      count++;
+      sumX += x; sumY += y;
+      sumXX += x * x; sumXY += x * y; sumYY += y * y;
+    }
+    if (count < 2)
+      return "-";
+    final double sxx = sumXX - sumX * sumX / count;
+    final double sxy = sumXY - sumX * sumY / count;
+    final double syy = sumYY - sumY * sumY / count;
+    final double b = sxy / sxx;
+    final double a = Math.exp((sumY - b * sumX) / count);
+    final double rSquared = syy == 0? 1: sxy * sxy / (sxx * syy);
+    return String.format("time, ms = %.3e * digits^%.3f, R^2 = %.4f", a, b, rSquared);
+  }
+
+  private void writeResults(ErrorSet[] results, Operations operation, MatrixTypes matrixType) {
+    write("Statistics for %s on %s", operation, matrixType);
+    write_("    Size:    ");
+    for (int i = 0; i < results.length; i++) {
+      write_("\t%12s", sizes[i]);
+    }
+    write();
+    writeRow("    Errors:  ", results, "\t%12.3e", r -> r.mse());
+    writeRow("    Time, ms:", results, "\t%12.3f", r -> r.getTime() * 1e-6);
+    writeRow("    CI, +/-%:", results, "\t%12.2f", r -> r.getTimeHalfWidthPercent());
+    writeRow("   Alloc, MB:", results, "\t%12.3f", r -> r.getAllocatedBytes() * 1e-6);
+    writeRow("    GC, ms:   ", results, "\t%12.3f", r -> r.getGcTime());
+    writeRow("    GC pauses:", results, "\t%12.3f", r -> r.getGcCount());
+    writeRow("    CPU/wall: ", results, "\t%12.3f", r -> r.getCpuWallRatio());
+    for (int p = 0; p < LogHistogram.PERCENTILES.length; p++) {
+      final int index = p;
+      writeRow(String.format("%13s", "Time " + percentileName(LogHistogram.PERCENTILES[p]) + ":"),
+               results, "\t%12.3f", r -> r.getTimePercentiles()[index] * 1e-6);
+    }
+    for (int p = 0; p < LogHistogram.PERCENTILES.length; p++) {
+      final int index = p;
+      writeRow(String.format("%13s", "MSE " + percentileName(LogHistogram.PERCENTILES[p]) + ":"),
+               results, "\t%12.3e", r -> r.getMsePercentiles()[index]);
+    }
+    if (exporter != null) {
+      for (int i = 0; i < results.length; i++) {
+        exporter.write(new Combination(operation, matrixType, sizes[i]), results[i]);
+      }
+    }
+  }
+
+  /** Writes the description of the hardware and the JVM at the beginning of the results */
+  private void writeHeader(RunManifest manifest) {
+    write("# Measured on %s", manifest.cpuDescription());
+    write("# with %s", manifest.jvmDescription());
+    write();
+  }
+
+  /** The settings of the run, for the manifest */
+  private Map<String, Object> manifestConfig() {
+    final Map<String, Object> config = new LinkedHashMap<>();
+    config.put("randomSeed",      RAND_SEED);
+    config.put("sizes",           Arrays.stream(sizes).boxed().collect(Collectors.toList()));
+    config.put("warmupTimeMs",    WARMUP_TIME);
+    config.put("warmupCount",     WARMUP_COUNT);
+    config.put("minIterations",   MIN_ITERATIONS);
+    config.put("maxIterations",   MAX_ITERATIONS);
+    config.put("budgetMs",        budgetMs);
+    config.put("ciTarget",        ciTarget);
+    config.put("totalBudgetMs",   totalBudgetMs);
+    config.put("threadCount",     threadCount);
+    config.put("corpusFolder",    corpusFolder);
+    config.put("corpusCount",     corpusFolder == null? null: corpusCount);
+    config.put("resumedJournal",  resumedJournal);
+    config.put("jfr",             recordJfr);
+    config.put("scalingThreadCount", scalingThreadCount);
+    config.put("phases",          measurePhases);
+    config.put("multiRhsCount",   multiRhsCount < 0? null: multiRhsCount);
+    config.put("conditioning",    measureConditioning);
+    config.put("precisions",      sweepPrecisions == null? null: Arrays.stream(sweepPrecisions).boxed().collect(Collectors.toList()));
+    config.put("metricsPort",     metricsPort < 0? null: metricsPort);
+    config.put("configHash",      configHash());
+    return config;
+  }
+
+  /** Writes a row of the table of the results, with "skipped" for the combinations skipped for the lack of time */
+  private void writeRow(String title, ErrorSet[] results, String format, ToDoubleFunction<ErrorSet> value) {
+    write_(title);
+    for (final ErrorSet result: results) {
+      if (result.isSkipped()) {
+        write_("\t%12s", "skipped");
+      } else {
+        write_(format, value.applyAsDouble(result));
+      }
+    }
+    write();
+  }
+
+
+  /** Returns the folder for the results, ./Results */
+  private static Path resultsFolder() throws IOException {
+    final Path path = Paths.get(System.getProperty("user.dir"), "Results");
+    // Bug fix 2024-12-30 18:53:43: Create the folder if it does not exist
+    if (!Files.exists(path)) {
+      Files.createDirectory(path);
+    }
+    return path;
+  }
+
+  /** Returns local date and time in the form YYMMDD_HHMM, used in the names of the files of the run */
+  private static String makeRunId() {
+    final SimpleDateFormat dateFormat = new SimpleDateFormat("yyMMdd_HHmm");
+    final Date now = new Date();
+    return dateFormat.format(now);
+  }
+
+  private static PrintStream openOutput(Path folder, String runId) throws IOException {
+    final Path fileName = folder.resolve("stats_" + runId + ".txt");
+    final PrintStream out = new PrintStream(fileName.toFile());
+    return out;
+  };
+
+  /** Creates a new journal for the run, or opens the one given with --resume */
+  private RunJournal openJournal(Path folder, String runId) throws IOException {
+    if (resumedJournal == null) {
+      return RunJournal.create(folder.resolve("journal_" + runId + ".txt"));
+    }
+    final RunJournal journal = RunJournal.resume(resumedJournal);
+    say("Resuming %s, %s results found", resumedJournal, journal.size());
+    return journal;
+  }
+
+  /**
+   * Identifies the settings affecting the results, so that a resumed run
+   * does not reuse results obtained with different settings: those of the measurements,
+   * the number of threads competing for the processor and the memory, the sizes (with --total-budget,
+   * they affect the shares of the budget), and those of generating the data sets
+   */
+  String configHash() {
+    return Integer.toHexString(Objects.hash(
+        RAND_SEED, WARMUP_TIME, WARMUP_COUNT, MAX_ITERATIONS, MIN_ITERATIONS, budgetMs, ciTarget, totalBudgetMs,
+        threadCount, Arrays.hashCode(sizes), recordJfr,
+        corpusFolder == null? 0: corpusCount, MatrixData.DATA_SET_VERSION,
+        MatrixDataGenerators.getSummationMethod(), MatrixDataGenerators.getTileSize()));
+  }
+
+  @SuppressWarnings("unused")
+  private void write(String format, Object ... args) {
+    if (output != null) {
+      output.printf(format + "\n", args);
+    }
+    say(format, args);
+  }
+
+  private void write(Object data) {
+    if (output != null) {
+      output.println(data);
+    }
+    say(data);
+  }
+
+  private void write_(String format, Object ... args) {
+    if (output != null) {
+      output.printf(format, args);
+    }
+    say_(format, args);
+  }
+
+  private void write_(Object data) {
+    if (output != null) {
+      output.print(data);
+    }
+    say_(data);
+  }
+
+  private void write() {
+    if (output != null) {
+      output.println();
+    }
+    say();
+  }
+
+  /* ***************************************************************************
+   ***** OperationTester *******************************************************
+   *****************************************************************************/
+  
+  /**
+   * An instance of this class encapsulates objects for generating test data 
+   * and performing the method under test on that data, 
+   * an object of type MatrixData that stores the test data, 
+   * and an object of type ErrorSet that keeps the results of the most recent 
+   * performed operation (execution time and error values) 
+   * 
+   * Method perform() generates a new random data set and performs the tested operation that data set.    
+   */
+  private class OperationTester  {
+
+    private final Combination combination;
+    private DataGenerator generator;
+    private OperationPerformer performer;
+    /** The precision of BigDecimal computations set for the thread before every trial, or null if the type of matrices does not use it */
+    private final PrecisionContext precisionContext;
+
+    /** Progress messages go here */
+    private final PrintStream console;
+    private long testStartTime;
+
+    private MatrixData matrixData;
+    private ErrorSet errorSet;
+
+    private int trialCount;
+    private int timedTrialCount;
+
+    private double accumulatedMse;
+    private double accumulatedMeanErr;
+    private double accumulatedMaxErr;
+    private long accumulatedTime;
+    /** The sum of the wall-clock times of the timed trials, including generating the data and finding the errors, ns */
+    private long accumulatedTrialTime;
+    /** Sums of the resources used by the timed trials, see ResourceMeter. Negative if unknown */
+    private double accumulatedCpuTime, accumulatedAllocatedBytes, accumulatedGcCount, accumulatedGcTime;
+    /** Mean and variance of the times of the timed trials, to find out the confidence interval of the average time */
+    private final RunningStatistics timeStatistics = new RunningStatistics();
+    /** Distributions of the times of the timed trials, in nanoseconds, and of the MSEs of all the trials */
+    private final LogHistogram timeHistogram = new LogHistogram(TIME_HISTOGRAM_LOWEST, TIME_HISTOGRAM_HIGHEST, 7);
+    private final LogHistogram mseHistogram = new LogHistogram(MSE_HISTOGRAM_LOWEST, MSE_HISTOGRAM_HIGHEST, 5);
+
+    public OperationTester(Combination combination, DataGenerator generator, OperationPerformer performer, PrintStream console) {
+      this(combination, generator, performer, console, bigDecimalPrecision(combination.matrixType()));
+    }
+
+    /** The same, with the given precision of BigDecimalMatrix instead of the one required by the type of matrices, 0 if it's not used */
+    public OperationTester(Combination combination, DataGenerator generator, OperationPerformer performer, PrintStream console,
+                           int precision) {
+      this.combination = combination;
+      this.generator = generator;
+      this.performer = performer;
+      this.console = console;
+      this.precisionContext = precision == 0? null: PrecisionContext.of(precision);
+    }
+
+    public void resetTime() {
+      testStartTime = System.currentTimeMillis();
+    }
+
+    /** Returns the amount of time passed since the beginning of the current test, in milliseconds */
+    public long elapsedTime() {
+      return System.currentTimeMillis() - testStartTime;
+    }
+
+    public double getLastTimeMs() {
+      return errorSet.getTime() * 1e-6;
+    }
+
+    public double getLastMse() {
+      return errorSet.mse();
+    }
+
+    public double getLastMaxError() {
+      return errorSet.maxError();
+    }
+
+    public double getTimeHalfWidthPercent() {
+      return timeStatistics.relativeHalfWidth() * 100;
+    }
+
+    /** Returns a snapshot of the state of the test for the MetricsServer */
+    public MetricsServer.Progress getProgress() {
+      return new MetricsServer.Progress(combination, trialCount, timedTrialCount,
+          timeStatistics.count() > 0? timeStatistics.mean(): Double.NaN,
+          timeHistogram.percentiles(LogHistogram.PERCENTILES),
+          accumulatedMse / trialCount, mseHistogram.percentiles(LogHistogram.PERCENTILES));
+    }
+
+    /** Returns true if the 95% confidence interval of the average time
+     * is narrower than required by ciTarget and based on at least MIN_ITERATIONS timings */
+    public boolean timeIsAccurateEnough() {
+      return ciTarget > 0
+          && timeStatistics.count() >= MIN_ITERATIONS
+          && timeStatistics.relativeHalfWidth() <= ciTarget;
+    }
+
+    public void perform() {
+      final long trialStart = System.nanoTime();
+      trialCount++;
+      if (precisionContext != null) {
+        PrecisionContext.setCurrent(precisionContext);
+      }
+      matrixData = generator.generate();
+
+      errorSet = performer.perform(matrixData);
+      commitEvent(matrixData.meter.event());
+      accumulatedMse += errorSet.mse();
+      accumulatedMeanErr += errorSet.meanError();
+      accumulatedMaxErr = Math.max(accumulatedMaxErr, errorSet.maxError());
+      mseHistogram.add(errorSet.mse());
+
+      if (    trialCount > WARMUP_COUNT
+          || (elapsedTime() > WARMUP_TIME && trialCount > 1)) {
+        accumulatedTime += errorSet.getTime();
+        timeStatistics.add(errorSet.getTime());
+        timeHistogram.add(errorSet.getTime());
+        accumulatedTrialTime += System.nanoTime() - trialStart;
+        accumulatedCpuTime = addIfKnown(accumulatedCpuTime, errorSet.getCpuTime());
+        accumulatedAllocatedBytes = addIfKnown(accumulatedAllocatedBytes, errorSet.getAllocatedBytes());
+        accumulatedGcCount = addIfKnown(accumulatedGcCount, errorSet.getGcCount());
+        accumulatedGcTime = addIfKnown(accumulatedGcTime, errorSet.getGcTime());
+        timedTrialCount++;
+      }
+    }
+
+    /**
+     * Returns the averages of the results of the trials, or a skipped result, with the mean time of a trial,
+     * if the budget was exhausted before the warmup ended and none of the trials was timed
+     */
+    public ErrorSet getStatistics() {
+      if (timedTrialCount == 0) {
+        return ErrorSet.skipped().setTrialTime(elapsedTime() * 1_000_000 / Math.max(1, trialCount));
+      }
+      final double avrMse = accumulatedMse / trialCount;
+      final double avrMaxErr = accumulatedMaxErr;
+      final double avrMeanErr = accumulatedMeanErr / trialCount;
+      final long avrTime = Math.round((double)accumulatedTime / timedTrialCount);
+      return new ErrorSet(avrMse, avrMeanErr, avrMaxErr).setTime(avrTime)
+                 .setTimeConfidence(timeStatistics.halfWidth(), timeStatistics.count())
+                 .setTrialTime(accumulatedTrialTime / timedTrialCount)
+                 .setPercentiles(timeHistogram.percentiles(LogHistogram.PERCENTILES),
+                                 mseHistogram.percentiles(LogHistogram.PERCENTILES))
+                 .setHistograms(timeHistogram, mseHistogram)
+                 .setResourceUsage(accumulatedCpuTime / timedTrialCount, accumulatedAllocatedBytes / timedTrialCount,
+                                   accumulatedGcCount / timedTrialCount, accumulatedGcTime / timedTrialCount);
+    }
+
+    /** Commits the JFR event spanning the timed region of the operation, if it is being recorded */
+    private void commitEvent(OperationEvent event) {
+      if (event != null && event.shouldCommit()) {
+        event.operation = combination.operation().name();
+        event.matrixType = combination.matrixType().name();
+        event.size = combination.size();
+        event.iteration = trialCount;
+        event.commit();
+      }
+    }
+
+    /** Once a value is unknown (negative), the sum remains unknown */
+    private double addIfKnown(double sum, double value) {
+      return (sum < 0 || value < 0)? -1: sum + value;
+    }
+
+  } // private class OperationTester
+
+}
@@ -0,0 +1,430 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares the results of two runs of CollectStatistics, to find the combinations of operation, matrix type and size
+ * that got slower or less accurate, e.g. after upgrading QuadMatrix or the JDK.
+ *
+ * Usage: {@code CompareResults <baseline> <candidate> [--threshold P] [--error-threshold P] [--allow-missing]}
+ * <br>The results are read from {@code results_*.jsonl} or {@code results_*.csv} files written by {@link ResultsExporter},
+ * or from {@code stats_*.txt} files, including those written by the older versions.
+ * <br>{@code --threshold P} -- a combination is slower or faster if its time changed by more than P percent (5 by default),
+ * and the difference is significant.
+ * <br>{@code --error-threshold P} -- a combination is less or more accurate if its MSE changed by more than P percent (25 by default),
+ * and the difference is significant.
+ * <br>{@code --allow-missing} -- do not fail if combinations of the baseline are missing or skipped in the candidate.
+ *
+ * The significance of a difference is found with the Mann-Whitney U test at the 5% level, applied to the histograms
+ * of the times of the individual iterations and of the MSEs of the individual trials, that are stored with the results
+ * (see {@link LogHistogram#mannWhitneyZ(LogHistogram)}). The test must agree with the direction of the change,
+ * so that an MSE that grew because of a few outliers, while most of the trials got as accurate as before or better,
+ * is not reported. If either of the results has no histograms (e.g. it was read from a stats file or written by
+ * an older version), the difference of times is significant if it exceeds the square root of the sum of the squares
+ * of the half-widths of the 95% confidence intervals of the average times (a two-sample z-test),
+ * and the difference of MSEs, of which the spread is unknown, is judged by the threshold only;
+ * if there are no confidence intervals either, only the thresholds are checked.
+ * The verdicts are followed by the statistics of the tests they are based on.
+ *
+ * The combinations that got slower or faster, less or more accurate are listed, and so are the combinations of the baseline
+ * that are missing or skipped (e.g. timed out) in the candidate. The exit code is 1 if any got slower or less accurate,
+ * or is missing or skipped in the candidate (unless {@code --allow-missing} is given), 2 if the results can't be read,
+ * and 0 otherwise, so that the comparison may serve as a release gate.
+ */
+public class CompareResults {
+
+  static final double TIME_THRESHOLD = 0.05;
+  static final double ERROR_THRESHOLD = 0.25;
+
+  /** The values of a single combination to compare. NaN stands for unknown values */
+  record Entry(double time, double timeHalfWidth, double mse, boolean skipped,
+               LogHistogram timeHistogram, LogHistogram mseHistogram) {}
+
+  private enum Verdict { SLOWER, FASTER, LESS_ACCURATE, MORE_ACCURATE, MISSING, SKIPPED }
+
+  private double timeThreshold = TIME_THRESHOLD;
+  private double errorThreshold = ERROR_THRESHOLD;
+  private boolean allowMissing = false;
+
+  public static void main(String[] args) {
+    Locale.setDefault(Locale.US);
+    try {
+      final CompareResults compareResults = new CompareResults();
+      final List<Path> files = compareResults.parseArguments(args);
+      final boolean failed = compareResults.compare(read(files.get(0)), read(files.get(1)), files.get(0), files.get(1));
+      System.exit(failed? 1: 0);
+    } catch (final IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(2);
+    } catch (final IOException e) {
+      System.err.println("Can't read the results: " + e);
+      System.exit(2);
+    }
+  }
+
+  private List<Path> parseArguments(String[] args) {
+    final List<Path> files = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--threshold":
+          timeThreshold = Double.parseDouble(argumentValue(args, ++i)) / 100;
+          break;
+        case "--error-threshold":
+          errorThreshold = Double.parseDouble(argumentValue(args, ++i)) / 100;
+          break;
+        case "--allow-missing":
+          allowMissing = true;
+          break;
+        default:
+          if (args[i].startsWith("--"))
+            throw new IllegalArgumentException("Unknown argument: " + args[i]);
+          files.add(Paths.get(args[i]));
+      }
+    }
+    if (files.size() != 2)
+      throw new IllegalArgumentException(
+          "Usage: CompareResults <baseline> <candidate> [--threshold P] [--error-threshold P] [--allow-missing]");
+    return files;
+  }
+
+  private static String argumentValue(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException(args[index - 1] + " requires a value");
+    }
+    return args[index];
+  }
+
+  /**
+   * Prints the changes and returns true if any combination got slower or less accurate,
+   * or, unless allowMissing is set, is missing or skipped in the candidate
+   */
+  private boolean compare(Map<String, Entry> baseline, Map<String, Entry> candidate, Path baselinePath, Path candidatePath) {
+    say("Baseline:  %s", baselinePath);
+    say("Candidate: %s", candidatePath);
+    say("Thresholds: time %.1f%%, MSE %.1f%%", timeThreshold * 100, errorThreshold * 100);
+    say();
+    say("%-26s %-22s %6s %14s %14s %9s %10s %10s  %s",
+        "Operation", "Matrix type", "Size", "Baseline, ms", "Candidate, ms", "Change", "Base MSE", "Cand MSE", "Verdict");
+
+    final Map<Verdict, Integer> counts = new LinkedHashMap<>();
+    int compared = 0, skippedInBaseline = 0;
+    for (final Map.Entry<String, Entry> entry: baseline.entrySet()) {
+      final Entry base = entry.getValue(), cand = candidate.get(entry.getKey());
+      if (base.skipped()) {
+        skippedInBaseline++;
+        continue;
+      }
+      if (cand == null || cand.skipped()) {
+        final Verdict verdict = cand == null? Verdict.MISSING: Verdict.SKIPPED;
+        counts.merge(verdict, 1, Integer::sum);
+        final String[] key = entry.getKey().split("/");
+        say("%-26s %-22s %6s %14.3f %14s %9s %10.3e %10s  [%s]",
+            key[0], key[1], key[2], base.time() * 1e-6, "-", "", base.mse(), "-", verdict);
+        continue;
+      }
+      compared++;
+      final List<Verdict> verdicts = verdicts(base, cand);
+      for (final Verdict verdict: verdicts) {
+        counts.merge(verdict, 1, Integer::sum);
+      }
+      if (!verdicts.isEmpty()) {
+        final String[] key = entry.getKey().split("/");
+        say("%-26s %-22s %6s %14.3f %14.3f %+8.1f%% %10.3e %10.3e  %s%s",
+            key[0], key[1], key[2], base.time() * 1e-6, cand.time() * 1e-6, (cand.time() / base.time() - 1) * 100,
+            base.mse(), cand.mse(), verdicts, significanceNote(base, cand));
+      }
+    }
+    say();
+    say("Compared %s combinations, %s skipped in the baseline", compared, skippedInBaseline);
+    for (final Verdict verdict: Verdict.values()) {
+      say("  %-14s %s", verdict, counts.getOrDefault(verdict, 0));
+    }
+    final boolean incomplete = counts.containsKey(Verdict.MISSING) || counts.containsKey(Verdict.SKIPPED);
+    if (incomplete && allowMissing) {
+      say("Combinations missing or skipped in the candidate are allowed by --allow-missing");
+    }
+    return counts.containsKey(Verdict.SLOWER) || counts.containsKey(Verdict.LESS_ACCURATE) || (incomplete && !allowMissing);
+  }
+
+  private List<Verdict> verdicts(Entry base, Entry cand) {
+    final List<Verdict> verdicts = new ArrayList<>();
+    final double timeRatio = cand.time() / base.time();
+    final double timeZ = timeZ(base, cand);
+    if (timeRatio > 1 + timeThreshold && !(timeZ < RunningStatistics.Z_95)) {  // NaN if the significance is unknown
+      verdicts.add(Verdict.SLOWER);
+    } else if (timeRatio < 1 / (1 + timeThreshold) && !(timeZ > -RunningStatistics.Z_95)) {
+      verdicts.add(Verdict.FASTER);
+    }
+    final double errorRatio = cand.mse() / base.mse();
+    final double mseZ = mseZ(base, cand);
+    if (errorRatio > 1 + errorThreshold && !(mseZ < RunningStatistics.Z_95)) {
+      verdicts.add(Verdict.LESS_ACCURATE);
+    } else if (errorRatio < 1 / (1 + errorThreshold) && !(mseZ > -RunningStatistics.Z_95)) {
+      verdicts.add(Verdict.MORE_ACCURATE);
+    }
+    return verdicts;
+  }
+
+  /**
+   * The z statistic of the difference of the times of the candidate and the baseline: from the Mann-Whitney test
+   * if both have the histograms of the times, or from the confidence intervals of the average times.
+   * NaN if neither is available
+   */
+  private static double timeZ(Entry base, Entry cand) {
+    if (hasTimeHistograms(base, cand)) {
+      return cand.timeHistogram().mannWhitneyZ(base.timeHistogram());
+    }
+    if (hasConfidence(base, cand)) {
+      return (cand.time() - base.time()) / Math.hypot(base.timeHalfWidth(), cand.timeHalfWidth()) * RunningStatistics.Z_95;
+    }
+    return Double.NaN;
+  }
+
+  /** The z statistic of the Mann-Whitney test of the MSEs of the trials, or NaN if the histograms are unknown */
+  private static double mseZ(Entry base, Entry cand) {
+    if (base.mseHistogram() != null && cand.mseHistogram() != null) {
+      return cand.mseHistogram().mannWhitneyZ(base.mseHistogram());
+    }
+    return Double.NaN;
+  }
+
+  /** Describes the tests the verdicts are based on, e.g. " (time: U-test z=+5.21; MSE: U-test z=+0.87)" */
+  private static String significanceNote(Entry base, Entry cand) {
+    final String time = hasTimeHistograms(base, cand)? String.format("U-test z=%+.2f", timeZ(base, cand))
+                      : hasConfidence(base, cand)? String.format("CI z=%+.2f", timeZ(base, cand))
+                      : "no CI";
+    final String mse = Double.isNaN(mseZ(base, cand))? "no samples": String.format("U-test z=%+.2f", mseZ(base, cand));
+    return String.format(" (time: %s; MSE: %s)", time, mse);
+  }
+
+  /** Both have comparable histograms of the times */
+  private static boolean hasTimeHistograms(Entry base, Entry cand) {
+    return base.timeHistogram() != null && cand.timeHistogram() != null
+        && !Double.isNaN(cand.timeHistogram().mannWhitneyZ(base.timeHistogram()));
+  }
+
+  private static boolean hasConfidence(Entry base, Entry cand) {
+    return Double.isFinite(base.timeHalfWidth()) && Double.isFinite(cand.timeHalfWidth());
+  }
+
+  /* *************************************************************************
+  ******** Reading the results ***********************************************
+  ***************************************************************************/
+
+  /** Reads the results from the given file, mapped by keys like "SIMPLE_INVERSION/JAMA/100" */
+  static Map<String, Entry> read(Path path) throws IOException {
+    final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+    final String name = path.getFileName().toString();
+    if (name.endsWith(".jsonl")) {
+      return readRecords(lines, CompareResults::parseJsonObject);
+    } else if (name.endsWith(".csv")) {
+      return readCsv(lines);
+    }
+    return readStats(lines);
+  }
+
+  private interface RecordParser {
+    Map<String, String> parse(String line);
+  }
+
+  private static Map<String, Entry> readRecords(List<String> lines, RecordParser parser) {
+    final Map<String, Entry> entries = new LinkedHashMap<>();
+    for (final String line: lines) {
+      if (line.isBlank())
+        continue;
+      final Map<String, String> record = parser.parse(line);
+      entries.put(key(record.get("operation"), record.get("matrixType"), record.get("size")),
+                  new Entry(number(record.get("time")), number(record.get("timeHalfWidth")),
+                            number(record.get("mse")), "true".equals(record.get("skipped")),
+                            histogram(record.get("timeHistogram")), histogram(record.get("mseHistogram"))));
+    }
+    return entries;
+  }
+
+  private static Map<String, Entry> readCsv(List<String> lines) {
+    if (lines.isEmpty()) {
+      return new LinkedHashMap<>();
+    }
+    final String[] header = lines.get(0).split(",", -1);
+    return readRecords(lines.subList(1, lines.size()), line -> {
+      final String[] values = line.split(",", -1);
+      final Map<String, String> record = new HashMap<>();
+      for (int i = 0; i < Math.min(header.length, values.length); i++) {
+        record.put(header[i], values[i].replace("\"", ""));
+      }
+      return record;
+    });
+  }
+
+  /**
+   * Parses a JSON object whose values are strings, numbers, booleans or nulls, as written by ResultsExporter.
+   * Returns the values as strings, nulls as nulls
+   */
+  private static Map<String, String> parseJsonObject(String line) {
+    final Map<String, String> record = new HashMap<>();
+    final int[] pos = {line.indexOf('{') + 1};
+    while (true) {
+      skipSpaces(line, pos);
+      if (pos[0] >= line.length() || line.charAt(pos[0]) == '}')
+        return record;
+      final String key = parseJsonString(line, pos);
+      skipSpaces(line, pos);
+      pos[0]++; // ':'
+      skipSpaces(line, pos);
+      String value;
+      if (line.charAt(pos[0]) == '"') {
+        value = parseJsonString(line, pos);
+      } else {
+        final int start = pos[0];
+        while (pos[0] < line.length() && ",} ".indexOf(line.charAt(pos[0])) < 0) {
+          pos[0]++;
+        }
+        value = line.substring(start, pos[0]);
+        if (value.equals("null")) {
+          value = null;
+        }
+      }
+      record.put(key, value);
+      skipSpaces(line, pos);
+      if (pos[0] < line.length() && line.charAt(pos[0]) == ',') {
+        pos[0]++;
+      }
+    }
+  }
+
+  private static String parseJsonString(String line, int[] pos) {
+    if (line.charAt(pos[0]) != '"')
+      throw new IllegalArgumentException("Malformed JSON: " + line);
+    final StringBuilder sb = new StringBuilder();
+    pos[0]++;
+    while (line.charAt(pos[0]) != '"') {
+      char c = line.charAt(pos[0]++);
+      if (c == '\\') {
+        c = line.charAt(pos[0]++);
+        switch (c) {
+          case 'n': c = '\n'; break;
+          case 'r': c = '\r'; break;
+          case 't': c = '\t'; break;
+          case 'u': c = (char)Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16); pos[0] += 4; break;
+          default: break;
+        }
+      }
+      sb.append(c);
+    }
+    pos[0]++;
+    return sb.toString();
+  }
+
+  private static void skipSpaces(String line, int[] pos) {
+    while (pos[0] < line.length() && Character.isWhitespace(line.charAt(pos[0]))) {
+      pos[0]++;
+    }
+  }
+
+  /**
+   * Reads the tables of stats_*.txt files. Every table begins with "Statistics for OP on TYPE"
+   * (or with "Operation: OP" and "Matrix type: TYPE" in the older files), followed by the rows of
+   * the sizes, the errors, the times, and possibly other values. Times are converted to nanoseconds
+   */
+  private static Map<String, Entry> readStats(List<String> lines) {
+    final Map<String, Entry> entries = new LinkedHashMap<>();
+    String operation = null, matrixType = null;
+    final Map<String, String[]> rows = new HashMap<>();
+    for (final String line: lines) {
+      final String trimmed = line.trim();
+      if (trimmed.startsWith("Statistics for ")) {
+        addStatsEntries(entries, operation, matrixType, rows);
+        final String[] words = trimmed.split("\\s+");
+        operation = words[2];
+        matrixType = words[4];
+      } else if (trimmed.startsWith("Operation:")) {
+        addStatsEntries(entries, operation, matrixType, rows);
+        operation = trimmed.substring("Operation:".length()).trim();
+        matrixType = null;
+      } else if (trimmed.startsWith("Matrix type:")) {
+        matrixType = trimmed.substring("Matrix type:".length()).trim();
+      } else if (trimmed.contains("\t") && operation != null) {
+        final String[] cells = trimmed.split("\t");
+        rows.put(cells[0].trim(), cells);
+      }
+    }
+    addStatsEntries(entries, operation, matrixType, rows);
+    return entries;
+  }
+
+  private static void addStatsEntries(Map<String, Entry> entries, String operation, String matrixType,
+                                      Map<String, String[]> rows) {
+    final String[] sizes = rows.get("Size:"), errors = rows.get("Errors:"), times = rows.get("Time, ms:");
+    final String[] confidence = rows.get("CI, +/-%:");
+    if (operation != null && matrixType != null && sizes != null && errors != null && times != null) {
+      for (int i = 1; i < sizes.length && i < errors.length && i < times.length; i++) {
+        final boolean skipped = times[i].trim().equals("skipped");
+        final double time = skipped? Double.NaN: number(times[i]) * 1e6;
+        final double halfWidth = (confidence == null || i >= confidence.length || skipped)
+            ? Double.NaN : number(confidence[i]) / 100 * time;
+        entries.put(key(operation, matrixType, sizes[i].trim()),
+                    new Entry(time, halfWidth, skipped? Double.NaN: number(errors[i]), skipped, null, null));
+      }
+    }
+    rows.clear();
+  }
+
+  private static String key(String operation, String matrixType, String size) {
+    return String.join("/", operation, matrixType, size);
+  }
+
+  /** Parses a histogram written by LogHistogram.encode(), returns null for null, empty or malformed values */
+  private static LogHistogram histogram(String s) {
+    if (s == null || s.isBlank()) {
+      return null;
+    }
+    try {
+      return LogHistogram.decode(s);
+    } catch (final NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** Parses a number, returns NaN for null, empty or malformed values */
+  private static double number(String s) {
+    if (s == null || s.isBlank()) {
+      return Double.NaN;
+    }
+    try {
+      return Double.parseDouble(s.trim());
+    } catch (final NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+
+}
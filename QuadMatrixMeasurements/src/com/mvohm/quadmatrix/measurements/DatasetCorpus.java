@@ -0,0 +1,314 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.lang.ref.SoftReference;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.mvohm.quadmatrix.measurements.CollectStatistics.DataGenerator;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.GeneratorMaker;
+import com.mvohm.quadmatrix.measurements.MatrixData.Purpose;
+import com.mvohm.quadmatrix.measurements.MatrixDataGenerators.SummationMethod;
+
+/**
+ * A set of data sets for a certain operation, size, random seed, method of summation used to compute the products
+ * (see {@link MatrixDataGenerators#getSummationMethod()}) and {@code MatrixData.DATA_SET_VERSION}, stored in a binary file,
+ * so that repeated runs and all types of matrices get the same data sets without the cost of generating them.
+ *
+ * The file is created by the generator of the operation when it is requested for the first time,
+ * and is then memory-mapped and read by {@link #generator()}, which returns the data sets one by one,
+ * starting over after the last one. The data sets read from the file are kept while there is enough memory,
+ * so that the Quadruple and BigDecimal views computed for them (see {@link MatrixData#shareInputs()})
+ * are reused by the following readings of the same record, by the same or by other generators.
+ *
+ * The file consists of a header and a sequence of records of equal length, one per data set,
+ * all numbers being little-endian:
+ * <pre>
+ *   int    MAGIC, VERSION, purpose ordinal, size, count of records
+ *   long   seed
+ *   int    MatrixData.DATA_SET_VERSION, summation method ordinal, 0 (padding)
+ *   record: double[size * size] matrix, then
+ *           for VECTOR_SOLUTION: double[size] solution, double[size] vector,
+ *           for MATRIX_SOLUTION: double[size * size] matrixX, double[size * size] matrixB,
+ *           for INVERSION:       nothing else,
+ *           for MATRIX_OPERATIONS: double[size * size] matrixX, double scalar,
+ *           for DETERMINANT:     double[size] factors of the determinant,
+ *           for CONDITION_NUMBER: double condition number
+ * </pre>
+ * The matrices are stored row by row.
+ */
+public class DatasetCorpus {
+
+  private static final int MAGIC          = 0x43444D51; // "QMDC" when read as little-endian bytes
+  private static final int VERSION        = 3;
+  private static final int HEADER_BYTES   = 40;
+
+  /** Corpora opened in this run, shared by the testers of different matrix types */
+  private static final ConcurrentHashMap<Path, DatasetCorpus> openCorpora = new ConcurrentHashMap<>();
+
+  private final Path path;
+  private final Purpose purpose;
+  private final int size;
+  private final int count;
+  /** The records of the file, mapped to memory */
+  private final DoubleBuffer records;
+  /** The data sets read from the records, along with their views, see {@link #dataSet(int)} */
+  private final AtomicReferenceArray<SoftReference<MatrixData>> dataSets;
+
+  private DatasetCorpus(Path path, Purpose purpose, int size, int count, DoubleBuffer records) {
+    this.path = path;
+    this.purpose = purpose;
+    this.size = size;
+    this.count = count;
+    this.records = records;
+    this.dataSets = new AtomicReferenceArray<>(count);
+  }
+
+  /**
+   * Returns the corpus of data sets for the given operation, size and seed, and for the current summation method,
+   * stored in the given folder.
+   * If there is no such corpus yet, generates {@code count} data sets with a generator made by {@code generatorMaker}
+   * from a Random initialized with {@code seed}, and stores them.
+   * The data sets must have the given purpose, otherwise the corpus is rejected.
+   */
+  public static DatasetCorpus open(Path folder, String name, Purpose purpose, int size, long seed, int count,
+                                   GeneratorMaker generatorMaker) {
+    final SummationMethod summationMethod = MatrixDataGenerators.getSummationMethod();
+    final Path path = folder.resolve(String.format("%s_%d_%d_%s_v%d.corpus",
+                                                   name, size, seed, summationMethod, MatrixData.DATA_SET_VERSION));
+    return openCorpora.computeIfAbsent(path, p -> {
+      try {
+        if (!Files.exists(p)) {
+          create(p, purpose, size, seed, count, summationMethod, generatorMaker);
+        }
+        return map(p, purpose, size, seed, summationMethod);
+      } catch (final IOException e) {
+        throw new IllegalStateException("Can't use corpus " + p + ": " + e.getMessage(), e);
+      }
+    });
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns a generator that reads the data sets of the corpus one after another, starting over after the last one.
+   * Every generator has its own position, so that it can be used by a single thread,
+   * while different generators of the same corpus may be used simultaneously
+   */
+  public DataGenerator generator() {
+    return new CorpusReader();
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private class CorpusReader implements DataGenerator {
+
+    private int next;
+
+    @Override
+    public MatrixData generate() {
+      final MatrixData data = dataSet(next);
+      next = (next + 1) % count;
+      return data;
+    }
+  }
+
+  /**
+   * Returns a new instance sharing the inputs and the views of the data set of the given record,
+   * which is read from the file if it has not been read yet or has been reclaimed by the garbage collector.
+   * Two threads reading the same record simultaneously may both read it, the one stored last is kept
+   */
+  private MatrixData dataSet(int index) {
+    final SoftReference<MatrixData> reference = dataSets.get(index);
+    MatrixData data = reference == null? null: reference.get();
+    if (data == null) {
+      final DoubleBuffer buffer = records.duplicate().position(index * recordLength(purpose, size));
+      data = read(buffer, purpose, size);
+      dataSets.set(index, new SoftReference<>(data));
+    }
+    return data.shareInputs();
+  }
+
+  private static void create(Path path, Purpose purpose, int size, long seed, int count, SummationMethod summationMethod,
+                             GeneratorMaker generatorMaker) throws IOException {
+    say("Generating %s data sets for %s", count, path);
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    final DataGenerator generator = generatorMaker.make(size, new Random(seed));
+    final Path tempFile = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+    try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      MatrixData data = generator.generate();
+      if (data.purpose != purpose) {
+        throw new IOException(String.format("the generator makes data sets for %s, expected %s", data.purpose, purpose));
+      }
+      final int recordLength = recordLength(data.purpose, size);
+      // A record of a 400x400 MATRIX_SOLUTION takes 3.8 MB, so a large corpus may exceed the limit of a mapped buffer
+      final int actualCount = (int)Math.min(count, (Integer.MAX_VALUE - HEADER_BYTES) / (recordLength * 8L));
+      writeAll(channel, header(data.purpose, size, actualCount, seed, summationMethod));
+
+      final ByteBuffer record = ByteBuffer.allocate(recordLength * 8).order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < actualCount; i++) {
+        if (i > 0) {
+          data = generator.generate();
+        }
+        record.clear();
+        write(record.asDoubleBuffer(), data);
+        writeAll(channel, record);
+      }
+      channel.force(true);
+    } catch (final IOException | RuntimeException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
+    }
+    // Another process may have created the same corpus in the meantime, that's OK since the content is the same
+    Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static DatasetCorpus map(Path path, Purpose expectedPurpose, int size, long seed,
+                                   SummationMethod summationMethod) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+        throw new IOException("not a corpus file of version " + VERSION);
+      }
+      final int purposeOrdinal = header.getInt(8);
+      if (purposeOrdinal < 0 || purposeOrdinal >= Purpose.values().length) {
+        throw new IOException("unknown purpose " + purposeOrdinal);
+      }
+      final Purpose purpose = Purpose.values()[purposeOrdinal];
+      if (purpose != expectedPurpose) {
+        throw new IOException(String.format("the data sets are for %s, expected %s", purpose, expectedPurpose));
+      }
+      final int count = header.getInt(16);
+      if (header.getInt(12) != size || header.getLong(20) != seed || header.getInt(28) != MatrixData.DATA_SET_VERSION
+          || header.getInt(32) != summationMethod.ordinal()) {
+        throw new IOException("the size, the seed, the summation method or the version of the data sets "
+                              + "does not match the file name");
+      }
+      final long length = HEADER_BYTES + (long)recordLength(purpose, size) * 8 * count;
+      if (channel.size() != length) {
+        throw new IOException(String.format("the file length is %s, expected %s", channel.size(), length));
+      }
+      // The mapping remains valid after the channel is closed
+      final DoubleBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, length - HEADER_BYTES)
+                                          .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+      return new DatasetCorpus(path, purpose, size, count, records);
+    }
+  }
+
+  private static ByteBuffer header(Purpose purpose, int size, int count, long seed, SummationMethod summationMethod) {
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).putInt(purpose.ordinal()).putInt(size).putInt(count).putLong(seed)
+          .putInt(MatrixData.DATA_SET_VERSION).putInt(summationMethod.ordinal()).putInt(0);
+    header.clear();
+    return header;
+  }
+
+  /** The number of doubles in a record for the given purpose and size */
+  private static int recordLength(Purpose purpose, int size) {
+    switch (purpose) {
+      case VECTOR_SOLUTION: return size * size + 2 * size;
+      case MATRIX_SOLUTION: return 3 * size * size;
+      case MATRIX_OPERATIONS: return 2 * size * size + 1;
+      case DETERMINANT:     return size * size + size;
+      case CONDITION_NUMBER: return size * size + 1;
+      default:              return size * size;
+    }
+  }
+
+  private static void write(DoubleBuffer buffer, MatrixData data) {
+    write(buffer, data.matrixData);
+    if (data.purpose == Purpose.VECTOR_SOLUTION) {
+      buffer.put(data.solution);
+      buffer.put(data.vector);
+    } else if (data.purpose == Purpose.MATRIX_SOLUTION) {
+      write(buffer, data.matrixX);
+      write(buffer, data.matrixB);
+    } else if (data.purpose == Purpose.MATRIX_OPERATIONS) {
+      write(buffer, data.matrixX);
+      buffer.put(data.scalar);
+    } else if (data.purpose == Purpose.DETERMINANT) {
+      buffer.put(data.determinantFactors);
+    } else if (data.purpose == Purpose.CONDITION_NUMBER) {
+      buffer.put(data.conditionNumber);
+    }
+  }
+
+  private static void write(DoubleBuffer buffer, FlatMatrix matrix) {
+    buffer.put(matrix.data());
+  }
+
+  private static MatrixData read(DoubleBuffer buffer, Purpose purpose, int size) {
+    final MatrixData data = new MatrixData();
+    data.purpose = purpose;
+    data.setMatrixData(readMatrix(buffer, size));
+    if (purpose == Purpose.VECTOR_SOLUTION) {
+      data.solution = readVector(buffer, size);
+      data.vector = readVector(buffer, size);
+    } else if (purpose == Purpose.MATRIX_SOLUTION) {
+      data.matrixX = readMatrix(buffer, size);
+      data.matrixB = readMatrix(buffer, size);
+    } else if (purpose == Purpose.MATRIX_OPERATIONS) {
+      data.matrixX = readMatrix(buffer, size);
+      data.scalar = buffer.get();
+    } else if (purpose == Purpose.DETERMINANT) {
+      data.setDeterminantFactors(readVector(buffer, size));
+    } else if (purpose == Purpose.CONDITION_NUMBER) {
+      data.conditionNumber = buffer.get();
+    }
+    return data;
+  }
+
+  private static FlatMatrix readMatrix(DoubleBuffer buffer, int size) {
+    return new FlatMatrix(size, readVector(buffer, size * size));
+  }
+
+  private static double[] readVector(DoubleBuffer buffer, int size) {
+    final double[] vector = new double[size];
+    buffer.get(vector);
+    return vector;
+  }
+
+  private static void writeAll(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+}
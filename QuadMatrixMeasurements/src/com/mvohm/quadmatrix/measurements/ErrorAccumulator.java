@@ -0,0 +1,144 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import com.mvohm.quadmatrix.measurements.AuxMethods.ErrorSet;
+import com.mvohm.quadruple.Quadruple;
+
+/**
+ * Finds the errors of the actual values compared to the expected ones in a single pass,
+ * without building arrays of the differences.
+ *
+ * For every pair of values passed to one of the {@code add()} methods, the difference is computed
+ * in the precision of the values and converted to double, and the range of the expected values,
+ * the sum of the differences, the sum of their squares and the maximum of their absolute values are updated.
+ * The sums are computed with Kahan summation.
+ * {@link #getErrors()} then returns the root mean square, the mean and the maximum of the differences
+ * divided by the range of the expected values (or by the given range, see {@link #getErrors(double)}).
+ *
+ * An instance is not thread-safe. It may be reused after {@link #reset()}.
+ */
+public class ErrorAccumulator {
+
+  private long count;
+  private double sum, sumCompensation;
+  private double sumOfSquares, sumOfSquaresCompensation;
+  private double maxAbsDifference;
+  private double minExpected, maxExpected;
+
+  /** A scratch value to subtract Quadruples without creating new ones */
+  private final Quadruple difference = new Quadruple();
+
+  public ErrorAccumulator reset() {
+    count = 0;
+    sum = sumCompensation = 0;
+    sumOfSquares = sumOfSquaresCompensation = 0;
+    maxAbsDifference = 0;
+    minExpected = maxExpected = 0;
+    return this;
+  }
+
+  public void add(double expected, double actual) {
+    addDifference(expected, expected - actual);
+  }
+
+  public void add(Quadruple expected, Quadruple actual) {
+    addDifference(expected.doubleValue(), difference.assign(expected).subtract(actual).doubleValue());
+  }
+
+  /**
+   * @param mc the MathContext to compute the difference with, or null to compute it exactly
+   */
+  public void add(BigDecimal expected, BigDecimal actual, MathContext mc) {
+    final BigDecimal diff = (mc == null)? expected.subtract(actual) : expected.subtract(actual, mc);
+    addDifference(expected.doubleValue(), diff.doubleValue());
+  }
+
+  public void add(double[] expected, double[] actual) {
+    for (int i = 0; i < expected.length; i++) {
+      add(expected[i], actual[i]);
+    }
+  }
+
+  /** Adds the values of the expected matrix, stored row by row in a flat array, and the actual ones */
+  public void add(FlatMatrix expected, double[][] actual) {
+    final double[] data = expected.data();
+    for (int i = 0; i < actual.length; i++) {
+      final int offset = expected.rowOffset(i);
+      for (int j = 0; j < actual[i].length; j++) {
+        add(data[offset + j], actual[i][j]);
+      }
+    }
+  }
+
+  public void add(Quadruple[] expected, Quadruple[] actual) {
+    for (int i = 0; i < expected.length; i++) {
+      add(expected[i], actual[i]);
+    }
+  }
+
+  public void add(BigDecimal[] expected, BigDecimal[] actual, MathContext mc) {
+    for (int i = 0; i < expected.length; i++) {
+      add(expected[i], actual[i], mc);
+    }
+  }
+
+  /** The range of the expected values passed so far, including 0 */
+  public double getRange() {
+    return maxExpected - minExpected;
+  }
+
+  /** Returns the errors relative to the range of the expected values */
+  public ErrorSet getErrors() {
+    return getErrors(getRange());
+  }
+
+  /** Returns the errors relative to the given range */
+  public ErrorSet getErrors(double range) {
+    final double mse = Math.sqrt(sumOfSquares / count) / range;
+    final double meanError = sum / count / range;
+    final double maxError = maxAbsDifference / range;
+    return new ErrorSet(mse, meanError, maxError);
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private void addDifference(double expected, double diff) {
+    count++;
+    maxExpected = Math.max(maxExpected, expected);
+    minExpected = Math.min(minExpected, expected);
+    maxAbsDifference = Math.max(maxAbsDifference, Math.abs(diff));
+
+    double y = diff - sumCompensation;
+    double t = sum + y;
+    sumCompensation = (t - sum) - y;
+    sum = t;
+
+    y = diff * diff - sumOfSquaresCompensation;
+    t = sumOfSquares + y;
+    sumOfSquaresCompensation = (t - sumOfSquares) - y;
+    sumOfSquares = t;
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+/**
+ * A square matrix of doubles stored row by row in a single array.
+ * Element (i, j) is found at {@code data()[i * stride() + j]}.
+ *
+ * MatrixData keeps the data sets in this form, so that generating and checking them
+ * does not chase the pointers to separately allocated rows.
+ * {@link #toArray()} makes the {@code double[][]} that the constructors of the matrices need.
+ */
+public class FlatMatrix {
+
+  private final int size;
+  private final double[] data;
+
+  /** Creates a matrix of the given size filled with zeros */
+  public FlatMatrix(int size) {
+    this(size, new double[size * size]);
+  }
+
+  /** Creates a matrix backed by the given array, which is not copied */
+  public FlatMatrix(int size, double[] data) {
+    if (data.length != size * size)
+      throw new IllegalArgumentException(String.format("%s elements can't make a %sx%s matrix", data.length, size, size));
+    this.size = size;
+    this.data = data;
+  }
+
+  /** Creates a matrix with a copy of the given square array */
+  public static FlatMatrix of(double[][] matrix) {
+    final int size = matrix.length;
+    final FlatMatrix result = new FlatMatrix(size);
+    for (int i = 0; i < size; i++) {
+      if (matrix[i].length != size)
+        throw new IllegalArgumentException("The matrix must be square");
+      System.arraycopy(matrix[i], 0, result.data, i * size, size);
+    }
+    return result;
+  }
+
+  public int size()             { return size; }
+  /** The distance between the beginnings of adjacent rows in {@link #data()} */
+  public int stride()           { return size; }
+  /** The index of the first element of the given row in {@link #data()} */
+  public int rowOffset(int i)   { return i * size; }
+  /** The underlying array. Changing it changes the matrix */
+  public double[] data()        { return data; }
+
+  public double get(int i, int j) {
+    return data[i * size + j];
+  }
+
+  public void set(int i, int j, double value) {
+    data[i * size + j] = value;
+  }
+
+  /** Returns a copy of the given row */
+  public double[] row(int i) {
+    final double[] row = new double[size];
+    System.arraycopy(data, i * size, row, 0, size);
+    return row;
+  }
+
+  /** Multiplies the elements of the given row by the given factor */
+  public void scaleRow(int i, double factor) {
+    final int end = (i + 1) * size;
+    for (int k = i * size; k < end; k++) {
+      data[k] *= factor;
+    }
+  }
+
+  public FlatMatrix transpose() {
+    final FlatMatrix result = new FlatMatrix(size);
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        result.data[j * size + i] = data[i * size + j];
+      }
+    }
+    return result;
+  }
+
+  /** Returns a new {@code double[][]} with the values of this matrix */
+  public double[][] toArray() {
+    final double[][] result = new double[size][size];
+    for (int i = 0; i < size; i++) {
+      System.arraycopy(data, i * size, result[i], 0, size);
+    }
+    return result;
+  }
+
+}
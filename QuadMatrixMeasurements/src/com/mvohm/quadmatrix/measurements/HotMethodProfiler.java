@@ -0,0 +1,168 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Finds the methods that take most of the time of testing a combination,
+ * with the execution samples taken by JFR.
+ *
+ * {@link #start(Path)} starts a JFR recording with the default settings and {@link OperationEvent} enabled,
+ * which is written to the given file when the profiler is closed, to be examined later with JDK Mission Control.
+ * Besides, the {@code jdk.ExecutionSample} events are streamed to this profiler, which counts the samples
+ * of every thread that has an open window, by the method on the top of the stack.
+ *
+ * A window is opened by {@link #beginWindow()} and closed by {@link #endWindow()} in the thread testing a combination,
+ * so several combinations tested simultaneously in different threads get their own counts.
+ * Since the events are streamed about once a second, {@code endWindow()} waits for the samples
+ * taken before it was called to arrive, but not longer than FLUSH_TIMEOUT_MS.
+ */
+public class HotMethodProfiler implements Closeable {
+
+  /** The interval of sampling of the executing threads */
+  private static final Duration SAMPLING_PERIOD = Duration.ofMillis(10);
+  private static final long FLUSH_TIMEOUT_MS = 5_000;
+
+  /** A method, the number of samples in which it was on the top of the stack, and their share of all the samples */
+  public record HotMethod(String method, long samples, double share) {}
+
+  private final Recording recording;
+  private final RecordingStream stream;
+
+  /** Counts of the samples by method names, for the threads with open windows, by their IDs */
+  private final Map<Long, Map<String, AtomicLong>> windows = new ConcurrentHashMap<>();
+  /** The time of the most recent flush of the stream, by System.nanoTime() */
+  private volatile long lastFlushTime;
+
+  private HotMethodProfiler(Path recordingFile) throws IOException {
+    try {
+      recording = new Recording(Configuration.getConfiguration("default"));
+    } catch (final ParseException e) {
+      throw new IOException("Can't read the default JFR configuration", e);
+    }
+    recording.enable(OperationEvent.class);
+    recording.enable("jdk.ExecutionSample").withPeriod(SAMPLING_PERIOD);
+    recording.setToDisk(true);
+    recording.setDestination(recordingFile);
+
+    stream = new RecordingStream();
+    stream.enable("jdk.ExecutionSample").withPeriod(SAMPLING_PERIOD);
+    stream.onEvent("jdk.ExecutionSample", this::countSample);
+    stream.onFlush(() -> lastFlushTime = System.nanoTime());
+  }
+
+  /** Starts the recording to the given file and the streaming of the execution samples */
+  public static HotMethodProfiler start(Path recordingFile) throws IOException {
+    final HotMethodProfiler profiler = new HotMethodProfiler(recordingFile);
+    profiler.recording.start();
+    profiler.stream.startAsync();
+    return profiler;
+  }
+
+  /** Starts counting the samples of the current thread */
+  public void beginWindow() {
+    windows.put(Thread.currentThread().getId(), new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Stops counting the samples of the current thread and returns up to {@code count} methods
+   * most frequently found on the top of the stack since {@link #beginWindow()}, the most frequent first
+   */
+  public List<HotMethod> endWindow(int count) {
+    awaitFlush(System.nanoTime());
+    final Map<String, AtomicLong> window = windows.remove(Thread.currentThread().getId());
+    final List<HotMethod> result = new ArrayList<>();
+    if (window == null) {
+      return result;
+    }
+    long total = 0;
+    for (final AtomicLong samples: window.values()) {
+      total += samples.get();
+    }
+    final List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(window.entrySet());
+    entries.sort((e1, e2) -> Long.compare(e2.getValue().get(), e1.getValue().get()));
+    for (int i = 0; i < Math.min(count, entries.size()); i++) {
+      final long samples = entries.get(i).getValue().get();
+      result.add(new HotMethod(entries.get(i).getKey(), samples, (double)samples / total));
+    }
+    return result;
+  }
+
+  /** Stops the sampling and writes the recording to its file */
+  @Override
+  public void close() throws IOException {
+    stream.close();
+    recording.stop();
+    recording.close();
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private void countSample(RecordedEvent event) {
+    final RecordedThread thread = event.getThread("sampledThread");
+    final RecordedStackTrace stackTrace = event.getStackTrace();
+    if (thread == null || stackTrace == null || stackTrace.getFrames().isEmpty())
+      return;
+    final Map<String, AtomicLong> window = windows.get(thread.getJavaThreadId());
+    if (window == null)
+      return;
+    final RecordedFrame frame = stackTrace.getFrames().get(0);
+    final String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    window.computeIfAbsent(method, m -> new AtomicLong()).incrementAndGet();
+  }
+
+  /** Waits until the stream gets flushed twice after the given time, so that the samples taken before it are counted */
+  private void awaitFlush(long time) {
+    final long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+    long flushes = 0, seenFlushTime = time;
+    while (flushes < 2 && System.currentTimeMillis() < deadline) {
+      if (lastFlushTime > seenFlushTime) {
+        seenFlushTime = lastFlushTime;
+        flushes++;
+      }
+      try {
+        Thread.sleep(20);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+}
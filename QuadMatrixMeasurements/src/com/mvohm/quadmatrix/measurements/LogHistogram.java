@@ -0,0 +1,224 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+/**
+ * A histogram of positive values with logarithmic buckets, used to find the percentiles
+ * of a series of values without keeping the values themselves.
+ *
+ * As in HdrHistogram, every power of two between {@code lowest} and {@code highest}
+ * is split into 2<sup>significantBits</sup> buckets of equal width, so that a percentile
+ * is found with a relative error not greater than 2<sup>-significantBits</sup>,
+ * and the memory used does not depend on the number of values.
+ * Values below {@code lowest}, including zero, share a single bucket,
+ * values above {@code highest} are counted in the topmost one.
+ * The minimum and the maximum values are kept exactly. NaNs are ignored.
+ *
+ * A histogram can be stored as a string (see {@link #encode()}), so that the distributions
+ * of the values found by different runs can be compared with {@link #mannWhitneyZ(LogHistogram)}.
+ */
+public class LogHistogram {
+
+  /** The percentiles reported by CollectStatistics; 100 stands for the maximum */
+  public static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+  private static final long MANTISSA_MASK = 0x000F_FFFF_FFFF_FFFFL;
+  private static final int MANTISSA_BITS = 52;
+
+  private final int significantBits;
+  private final int minExponent, maxExponent;
+  /** counts[0] is for the values below the lowest one */
+  private final long[] counts;
+
+  private long count;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public LogHistogram(double lowest, double highest, int significantBits) {
+    if (!(lowest > 0 && highest > lowest && significantBits >= 0 && significantBits <= 16))
+      throw new IllegalArgumentException(String.format(
+          "Invalid histogram bounds or precision: %s, %s, %s", lowest, highest, significantBits));
+    this.significantBits = significantBits;
+    this.minExponent = Math.getExponent(lowest);
+    this.maxExponent = Math.getExponent(highest);
+    this.counts = new long[1 + ((maxExponent - minExponent + 1) << significantBits)];
+  }
+
+  private LogHistogram(int minExponent, int maxExponent, int significantBits) {
+    this.significantBits = significantBits;
+    this.minExponent = minExponent;
+    this.maxExponent = maxExponent;
+    this.counts = new long[1 + ((maxExponent - minExponent + 1) << significantBits)];
+  }
+
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    counts[bucketOf(value)]++;
+  }
+
+  /** Adds the values counted by the other histogram, which must have the same bounds and precision */
+  public void add(LogHistogram other) {
+    if (!hasSameLayout(other))
+      throw new IllegalArgumentException("Can't add a histogram with different bounds or precision");
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public long count()   { return count; }
+  public double min()   { return count == 0? Double.NaN: min; }
+  public double max()   { return count == 0? Double.NaN: max; }
+
+  /**
+   * Returns the value below which the given percentage of the values lies,
+   * i.e. the upper bound of the bucket containing it, but not greater than the maximum.
+   * Returns NaN if there are no values
+   */
+  public double percentile(double percent) {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (percent >= 100) {
+      return max;
+    }
+    final long rank = Math.max(1, (long)Math.ceil(percent / 100 * count));
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.length; i++) {
+      cumulativeCount += counts[i];
+      if (cumulativeCount >= rank) {
+        return i == 0? min: Math.min(upperBoundOf(i), max);
+      }
+    }
+    return max;
+  }
+
+  /** Returns the values of the given percentiles */
+  public double[] percentiles(double... percents) {
+    final double[] result = new double[percents.length];
+    for (int i = 0; i < percents.length; i++) {
+      result[i] = percentile(percents[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the z statistic of the Mann-Whitney U test, in the normal approximation with the correction for ties,
+   * comparing the values counted by this histogram with those counted by the other one.
+   * Values in the same bucket are treated as ties. A positive value means that the values of this histogram
+   * tend to be greater. Returns NaN if either histogram is empty or the histograms have different bounds or precision
+   */
+  public double mannWhitneyZ(LogHistogram other) {
+    if (!hasSameLayout(other) || count == 0 || other.count == 0) {
+      return Double.NaN;
+    }
+    final double n1 = count, n2 = other.count, n = n1 + n2;
+    double rankSum = 0, tieCorrection = 0, ranked = 0;
+    for (int i = 0; i < counts.length; i++) {
+      final double ties = counts[i] + other.counts[i];
+      if (ties > 0) {
+        rankSum += counts[i] * (ranked + (ties + 1) / 2); // The mean rank of the values in the bucket
+        tieCorrection += ties * ties * ties - ties;
+        ranked += ties;
+      }
+    }
+    final double u = rankSum - n1 * (n1 + 1) / 2;
+    final double variance = n1 * n2 / 12 * ((n + 1) - tieCorrection / (n * (n - 1)));
+    return variance <= 0? 0: (u - n1 * n2 / 2) / Math.sqrt(variance);
+  }
+
+  /**
+   * Returns a compact string representation of the histogram that can be read back with {@link #decode(String)}:
+   * the exponents of the bounds, the precision, the minimum and the maximum, separated by colons,
+   * followed by space-separated {@code bucket:count} pairs for the non-empty buckets
+   */
+  public String encode() {
+    final StringBuilder sb = new StringBuilder()
+        .append(minExponent).append(':').append(maxExponent).append(':').append(significantBits).append(':')
+        .append(min()).append(':').append(max());
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        sb.append(' ').append(i).append(':').append(counts[i]);
+      }
+    }
+    return sb.toString();
+  }
+
+  /** Reads a histogram written by {@link #encode()}. Throws NumberFormatException if the string is malformed */
+  public static LogHistogram decode(String encoded) {
+    final String[] items = encoded.trim().split(" +");
+    final String[] header = items[0].split(":");
+    if (header.length != 5)
+      throw new NumberFormatException("Invalid histogram header: " + items[0]);
+    final int minExponent = Integer.parseInt(header[0]), maxExponent = Integer.parseInt(header[1]);
+    final int significantBits = Integer.parseInt(header[2]);
+    if (maxExponent < minExponent || significantBits < 0 || significantBits > 16)
+      throw new NumberFormatException("Invalid histogram bounds or precision: " + items[0]);
+    final LogHistogram result = new LogHistogram(minExponent, maxExponent, significantBits);
+    for (int i = 1; i < items.length; i++) {
+      final int colon = items[i].indexOf(':');
+      if (colon < 0)
+        throw new NumberFormatException("Invalid histogram bucket: " + items[i]);
+      final int bucket = Integer.parseInt(items[i].substring(0, colon));
+      final long bucketCount = Long.parseLong(items[i].substring(colon + 1));
+      if (bucket < 0 || bucket >= result.counts.length || bucketCount < 0)
+        throw new NumberFormatException("Invalid histogram bucket: " + items[i]);
+      result.counts[bucket] += bucketCount;
+      result.count += bucketCount;
+    }
+    if (result.count > 0) {
+      result.min = Double.parseDouble(header[3]);
+      result.max = Double.parseDouble(header[4]);
+    }
+    return result;
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private boolean hasSameLayout(LogHistogram other) {
+    return other.minExponent == minExponent && other.maxExponent == maxExponent && other.significantBits == significantBits;
+  }
+
+  private int bucketOf(double value) {
+    if (!(value >= Math.scalb(1.0, minExponent))) {
+      return 0;
+    }
+    if (Math.getExponent(value) > maxExponent) {
+      return counts.length - 1;
+    }
+    final int subBucket = (int)((Double.doubleToRawLongBits(value) & MANTISSA_MASK) >>> (MANTISSA_BITS - significantBits));
+    return 1 + ((Math.getExponent(value) - minExponent) << significantBits) + subBucket;
+  }
+
+  private double upperBoundOf(int bucket) {
+    final int exponent = minExponent + ((bucket - 1) >> significantBits);
+    final int subBucket = (bucket - 1) & ((1 << significantBits) - 1);
+    return Math.scalb(1.0 + (subBucket + 1.0) / (1 << significantBits), exponent);
+  }
+
+}
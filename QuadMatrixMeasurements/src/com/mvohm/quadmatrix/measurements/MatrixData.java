@@ -1,772 +1,1323 @@
-/*
-
- Copyright 2021-2023 M.Vokhmentsev
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
- You may obtain a copy of the License at
-
-     http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
-
-*/
-
-package com.mvohm.quadmatrix.measurements;
-
-import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
-import static com.mvohm.quadmatrix.measurements.MatrixDataGenerators.*;
-
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
-import java.util.Random;
-
-import com.mvohm.quadmatrix.BigDecimalMatrix;
-import com.mvohm.quadmatrix.DoubleMatrix;
-import com.mvohm.quadmatrix.Matrix;
-import com.mvohm.quadmatrix.QuadrupleMatrix;
-import com.mvohm.quadmatrix.measurements.AuxMethods.ErrorSet;
-
-import com.mvohm.quadruple.Quadruple;
-
-import Jama.CholeskyDecomposition;
-
-/**
- * A helper class to generate random matrix data and examine accuracy of the solutions of the corresponding matrix
- */
-public class MatrixData {
-
-  protected static final double RANGE_BOTTOM          = -1.0;
-  protected static final double RANGE_TOP             = 1.0;
-
-  private int size;
-  protected double[][] matrixData;
-  protected double[] vector;
-  protected double[] solution;
-
-  private Quadruple[] quadrupleVector;
-  private Quadruple[] quadrupleSolution;
-
-  private BigDecimal[] bigDecimalVector;
-  private BigDecimal[] bigDecimalSolution;
-
-  protected double[][] matrixB;
-  protected double[][] matrixX;
-
-  private Quadruple[][] quadrupleMatrixB;
-  private Quadruple[][] quadrupleMatrixX;
-
-  private BigDecimal[][] bigDecimalMatrixB;
-  private BigDecimal[][] bigDecimalMatrixX;
-
-  private static double[][] unityMatrix = null;
-  private static Quadruple[][] quadrupleUnityMatrix = null;
-  private static BigDecimal[][] bigDecimalUnityMatrix = null;
-
-  protected long time;
-
-  protected enum Purpose { VECTOR_SOLUTION, MATRIX_SOLUTION, INVERSION };
-
-  protected Purpose purpose;
-
-  private final MathContext mc = new MathContext( BigDecimalMatrix.getDefaultPrecision(),
-                                                  RoundingMode.HALF_EVEN);
-
-  /* ***************************************************************************
-   *********** Creating datasets ***********************************************
-   *****************************************************************************/
-
-  /**
-   * fills matrixData with random values providing that it is SPD,
-   * fills the solution with random values in the range defined by corresponding constants,
-   * and finds the vector such that solving the equation system with this vector would give the found solution
-   * @param size the size of the matrix to create
-   * @param random contains a random seed and ensures reproducibility
-   * @return and instance of RandomMatrixData with the generated data
-   */
-  public static MatrixData makeDataSetForSPDSolutions(int size, Random random) {
-    // TODO 2023-06-05 18:18:54 Don't forget to remove them all -- added for debugging CollectStatistics
-    // printMethodName();
-    final MatrixData data = new MatrixData();
-    data.purpose = Purpose.VECTOR_SOLUTION;
-    MatrixDataGenerators.setRandomSeed(random);
-    data.setMatrixData(randomSpdMatrix(size, RANGE_BOTTOM, RANGE_TOP, 1.0));
-    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
-    data.vector = multiply(data.matrixData, data.solution);
-    return data;
-  }
-
-  /**
-   * fills matrixData and solution with random values in the range defined by corresponding constants
-   * and finds the vector such that solving the system with this vector would give the found solution
-   * @param size the size of the matrix to create
-   * @param random contains a random seed and ensures reproducibility
-   * @return and instance of RandomMatrixData with the generated data
-   */
-  public static MatrixData makeDataSetForVectorSolutions(int size, Random random) {
-    // printMethodName();
-    final MatrixData data = new MatrixData();
-    data.purpose = Purpose.VECTOR_SOLUTION;
-    MatrixDataGenerators.setRandomSeed(random);
-    data.setMatrixData(randomMatrix(size, RANGE_BOTTOM, RANGE_TOP));
-    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
-    data.vector = multiply(data.matrixData, data.solution);
-    return data;
-  }
-
-  /**
-   * Generates matrix data whose rows differ significantly in magnitude from each other.
-   * fills matrixData A and a target solution x with random values in the range -1.0 .. 1.0,
-   * then scales the rows of the matrix by a scale gradually growing from 1/sqrt(range) to sqrt(range),
-   * and finds the vector b such that solving the system with the scaled matrix
-   * and this vector would give the required solution.
-   * @param size the size of the matrix to create
-   * @param random contains a random seed and ensures reproducibility
-   * @return and instance of RandomMatrixData with the generated data
-   * @param size the size of the matrix to create
-   * @param random contains a random seed and ensures reproducibility
-   * @param scaleRange
-   * @return
-   */
-  public static MatrixData makeLargeRangeDataSetForVectorSolutions(int size, Random random, double scaleRange) {
-    // printMethodName();
-    final MatrixData data = new MatrixData();
-    data.purpose = Purpose.VECTOR_SOLUTION;
-    MatrixDataGenerators.setRandomSeed(random);
-    data.setMatrixData(randomMatrix(size, RANGE_BOTTOM, RANGE_TOP));
-
-    // Multiply rows by an increasing scale
-    final double scaleIncrease = Math.pow(scaleRange, 1.0/(size));  //
-    double scale = 1.0 / Math.sqrt(scaleRange);
-    for (int i = 0; i < size; i++) {
-      data.matrixData[i] = multiply(data.matrixData[i], scale);
-      scale *= scaleIncrease;
-    }
-
-    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
-    data.vector = multiply(data.matrixData, data.solution);
-    return data;
-  }
-
-  /**
-   * fills matrixData and solution with non-uniform random values in the range defined by corresponding constants
-   * and finds the vector such that solving the system with this vector would give the found solution
-   * @param size the size of the matrix to create
-   * @param random contains a random seed and ensures reproducibility
-   * @return and instance of RandomMatrixData with the generated data
-   */
-  public static MatrixData makeNonUniformDataSet(int size, Random random, double density, double power, double slope) {
-    // printMethodName();
-    final MatrixData data = new MatrixData();
-    data.purpose = Purpose.VECTOR_SOLUTION;
-    MatrixDataGenerators.setRandomSeed(random);
-    data.setMatrixData(randomSparsePowPlusLinearMatrix(size, density, power, slope));
-    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
-    data.vector = multiply(data.matrixData, data.solution);
-    return data;
-  }
-
-  public static MatrixData makeDataSetForMatrixSolutions(int size, Random random) {
-    final MatrixData data = new MatrixData();
-    data.purpose = Purpose.MATRIX_SOLUTION;
-    MatrixDataGenerators.setRandomSeed(random);
-    data.setMatrixData(randomMatrix(size, RANGE_BOTTOM, RANGE_TOP));
-    data.matrixX = randomMatrix(size, RANGE_BOTTOM, RANGE_TOP);
-    data.matrixB = multiply(data.matrixData, data.matrixX);
-    return data;
-  }
-
-  public static MatrixData makeDataSetForInversions(int size, Random random) {
-    final MatrixData data = new MatrixData();
-    data.purpose = Purpose.INVERSION;
-    MatrixDataGenerators.setRandomSeed(random);
-    data.setMatrixData(randomMatrix(size, RANGE_BOTTOM, RANGE_TOP));
-    if (unityMatrix == null || unityMatrix.length != size) {
-      unityMatrix = unityMatrix(size);
-      quadrupleUnityMatrix = null;
-      bigDecimalUnityMatrix = null;
-    }
-    return data;
-  }
-
-  /* ************************************************************************
-   ****** Perform operations and return errors ******************************
-   **************************************************************************/
-
-  // LU-decomposition-based simple vector solutions
-
-  public ErrorSet doubleLuSolutionWithScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    matrix.solve(vector);
-    time += System.nanoTime();
-    final double[] actualSolution = matrix.getDoubleSolution();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet jamaLuSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final Jama.Matrix matrixA = new Jama.Matrix(matrixData);
-    final Jama.Matrix matrixB = new Jama.Matrix(vector, size);
-    time = -System.nanoTime();
-    final Jama.Matrix matrixX = matrixA.solve(matrixB);
-    time += System.nanoTime();
-    final double[] actualSolution = matrixX.getColumnPackedCopy();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleLuSolutionWithScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    quadrupleSolution = makeQuadrupleSolution();
-    quadrupleVector = multiply(matrix.getQuadrupleData(), quadrupleSolution);
-    time = -System.nanoTime();
-    matrix.solve(quadrupleVector);
-    time += System.nanoTime();
-    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
-    return findErrors(quadrupleSolution, actualSolution, false).setTime(time);
-  }
-
-  public ErrorSet bigDecimalLuSolutionWithScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    bigDecimalSolution = makeBigDecimalSolution();
-    bigDecimalVector = multiply(matrix.getBigDecimalData(), bigDecimalSolution );
-    time = -System.nanoTime();
-    matrix.solve(bigDecimalVector);
-    time += System.nanoTime();
-    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
-    return findErrors(bigDecimalSolution, actualSolution, false).setTime(time);
-  }
-
-
-  public ErrorSet doubleLuSolutionWithoutScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData, false);
-    time = -System.nanoTime();
-    matrix.solve(vector);
-    time += System.nanoTime();
-    final double[] actualSolution = matrix.getDoubleSolution();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleLuSolutionWithoutScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, false);
-    quadrupleSolution = makeQuadrupleSolution();
-    quadrupleVector = multiply(matrix.getQuadrupleData(), quadrupleSolution);
-    time = -System.nanoTime();
-    matrix.solve(quadrupleVector);
-    time += System.nanoTime();
-    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
-    return findErrors(quadrupleSolution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet bigDecimalLuSolutionWithoutScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, false);
-    bigDecimalSolution = makeBigDecimalSolution();
-    bigDecimalVector = multiply(matrix.getBigDecimalData(), bigDecimalSolution );
-    time = -System.nanoTime();
-    matrix.solve(bigDecimalVector);
-    time += System.nanoTime();
-    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
-    return findErrors(bigDecimalSolution, actualSolution, false).setTime(time);
-  }
-
-  // Cholesky-decomposition-based accurate vector solutions
-
-  public ErrorSet doubleAccurateLUSolutionWithScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData);
-    time = -System.nanoTime();
-    matrix.solveAccurately(vector);
-    time += System.nanoTime();
-    final double[] actualSolution = matrix.getDoubleSolution();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleAccurateLUSolutionWithScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    quadrupleSolution = makeQuadrupleSolution();
-    quadrupleVector = multiply(matrix.getQuadrupleData(), quadrupleSolution);
-    time = -System.nanoTime();
-    matrix.solveAccurately(quadrupleVector);
-    time += System.nanoTime();
-    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
-    return findErrors(quadrupleSolution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet bigDecimalAccurateLUSolutionWithScalingErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    bigDecimalSolution = makeBigDecimalSolution();
-    bigDecimalVector = multiply(matrix.getBigDecimalData(), bigDecimalSolution );
-    time = -System.nanoTime();
-    matrix.solveAccurately(bigDecimalVector);
-    time += System.nanoTime();
-    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
-    return findErrors(bigDecimalSolution, actualSolution, false).setTime(time);
-  }
-
-  // Cholesky-decomposition-based simple vector solutions
-
-  public ErrorSet doubleSpdSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData);
-    time = -System.nanoTime();
-    matrix.solveSPD(vector);
-    time += System.nanoTime();
-    final double[] actualSolution = matrix.getDoubleSolution();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet jamaSpdSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final Jama.Matrix matrixA = new Jama.Matrix(matrixData);
-    final Jama.Matrix matrixB = new Jama.Matrix(vector, size);
-    time = -System.nanoTime();
-    final CholeskyDecomposition d = new CholeskyDecomposition(matrixA);
-    final Jama.Matrix matrixX = d.solve(matrixB);
-    time += System.nanoTime();
-    final double[] actualSolution = matrixX.getColumnPackedCopy();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleSPDSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    quadrupleSolution = makeQuadrupleSolution();
-    quadrupleVector = multiply(matrix.getQuadrupleData(), quadrupleSolution);
-    time = -System.nanoTime();
-    matrix.solveSPD(quadrupleVector);
-    time += System.nanoTime();
-    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
-    return findErrors(quadrupleSolution, actualSolution, false).setTime(time);
-  }
-
-  public ErrorSet bigDecimalSPDSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    bigDecimalSolution = makeBigDecimalSolution();
-    bigDecimalVector = multiply(matrix.getBigDecimalData(), bigDecimalSolution);
-    time = -System.nanoTime();
-    matrix.solveSPD(bigDecimalVector);
-    time += System.nanoTime();
-    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
-    return findErrors(bigDecimalSolution, actualSolution).setTime(time);
-  }
-
-  // Cholesky-decomposition-based precise vector solutions
-
-  public ErrorSet doubleAccurateSPDSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData);
-    time = -System.nanoTime();
-    matrix.solveSPDAccurately(vector);
-    time += System.nanoTime();
-    final double[] actualSolution = matrix.getDoubleSolution();
-    return findErrors(this.solution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleAccurateSPDSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    quadrupleSolution = makeQuadrupleSolution();
-    quadrupleVector = multiply(matrix.getQuadrupleData(), quadrupleSolution);
-    time = -System.nanoTime();
-    matrix.solveSPDAccurately(quadrupleVector);
-    time += System.nanoTime();
-    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
-    return findErrors(quadrupleSolution, actualSolution).setTime(time);
-  }
-
-  public ErrorSet bigDecimalAccurateSPDSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    bigDecimalSolution = makeBigDecimalSolution();
-    bigDecimalVector = multiply(matrix.getBigDecimalData(), bigDecimalSolution);
-    time = -System.nanoTime();
-    matrix.solveSPDAccurately(bigDecimalVector);
-    time += System.nanoTime();
-    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
-    return findErrors(bigDecimalSolution, actualSolution).setTime(time);
-  }
-
-  // LU-decomposition-based simple matrix solutions
-
-  public ErrorSet doubleMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final double[][] actualSolution = matrix.solve(matrixB).getDoubleData();
-    time += System.nanoTime();
-    return findErrors(this.matrixX, actualSolution).setTime(time);
-  }
-
-  public ErrorSet jamaMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final Jama.Matrix matrixA = new Jama.Matrix(matrixData);
-    final Jama.Matrix matrixB = new Jama.Matrix(this.matrixB);
-    time = -System.nanoTime();
-    final Jama.Matrix matrixX = matrixA.solve(matrixB);
-    time += System.nanoTime();
-    final double[][] actualSolution = matrixX.getArray();
-    return findErrors(this.matrixX, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-
-    quadrupleMatrixX = makeQuadrupleMatrixX();
-    quadrupleMatrixB = multiply(matrix.getQuadrupleData(), quadrupleMatrixX);
-
-    time = -System.nanoTime();
-    final Quadruple[][] actualSolution = matrix.solve(quadrupleMatrixB).getQuadrupleData();
-    time += System.nanoTime();
-    return findErrors(quadrupleMatrixX, actualSolution).setTime(time);
-  }
-
-  public ErrorSet bigDecimalMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-
-    bigDecimalMatrixX = makeBigDecimalMatrixX();
-    bigDecimalMatrixB = multiply(matrix.getBigDecimalData(), bigDecimalMatrixX);
-
-    time = -System.nanoTime();
-    final BigDecimal[][] actualSolution = matrix.solve(bigDecimalMatrixB).getBigDecimalData();
-    time += System.nanoTime();
-    return findErrors(bigDecimalMatrixX, actualSolution).setTime(time);
-  }
-
-  // LU-decomposition-based accurate matrix solutions
-
-  public ErrorSet doubleAccurateMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final double[][] actualSolution = matrix.solveAccurately(matrixB).getDoubleData();
-    time += System.nanoTime();
-    return findErrors(this.matrixX, actualSolution).setTime(time);
-  }
-
-  public ErrorSet quadrupleAccurateMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    quadrupleMatrixX = makeQuadrupleMatrixX();
-    quadrupleMatrixB = multiply(matrix.getQuadrupleData(), quadrupleMatrixX);
-    time = -System.nanoTime();
-    final Quadruple[][] actualSolution = matrix.solveAccurately(quadrupleMatrixB).getQuadrupleData();
-    time += System.nanoTime();
-    return findErrors(quadrupleMatrixX, actualSolution).setTime(time);
-  }
-
-  public ErrorSet bigDecimalAccurateMatrixSolutionErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    bigDecimalMatrixX = makeBigDecimalMatrixX();
-    bigDecimalMatrixB = multiply(matrix.getBigDecimalData(), bigDecimalMatrixX);
-    time = -System.nanoTime();
-    final BigDecimal[][] actualSolution = matrix.solveAccurately(bigDecimalMatrixB).getBigDecimalData();
-    time += System.nanoTime();
-    return findErrors(bigDecimalMatrixX, actualSolution).setTime(time);
-  }
-
-  // Matrix inversion
-
-  public ErrorSet doubleMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix inverse = matrix.inverse();
-    time += System.nanoTime();
-    final double[][] product = multiply(matrixData, inverse.getDoubleData());
-    return findErrors(unityMatrix, product, 1).setTime(time);
-  }
-
-  public ErrorSet jamaMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    final Jama.Matrix matrixA = new Jama.Matrix(matrixData);
-    time = -System.nanoTime();
-    final Jama.Matrix inverse = matrixA.inverse();
-    time += System.nanoTime();
-    final double[][] product = multiply(matrixData, inverse.getArray());
-    return findErrors(unityMatrix, product, 1).setTime(time);
-  }
-
-  public ErrorSet quadrupleMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    if (quadrupleUnityMatrix == null) { // it is set to NULL when the size gets changed
-      quadrupleUnityMatrix = convertToQuadruples(unityMatrix);
-    }
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix inverse = matrix.inverse();
-    time += System.nanoTime();
-    final Quadruple[][] product = multiply(matrix.getQuadrupleData(), inverse.getQuadrupleData());
-    return findErrors(quadrupleUnityMatrix, product).setTime(time);
-  }
-
-  public ErrorSet bigDecimalMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    if (bigDecimalUnityMatrix == null) { // it is set to NULL when the size gets changed
-      bigDecimalUnityMatrix = convertToBigDecimals(unityMatrix);
-    }
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix inverse = matrix.inverse();
-    time += System.nanoTime();
-    final BigDecimal[][] product = multiply(matrix.getBigDecimalData(), inverse.getBigDecimalData());
-    return findErrors(bigDecimalUnityMatrix, product).setTime(time);
-  }
-
-  // Accurate matrix inversion
-
-  public ErrorSet doubleAccurateMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    final DoubleMatrix matrix = new DoubleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix inverse = matrix.inverseAccurately();
-    time += System.nanoTime();
-    final double[][] product = multiply(matrixData, inverse.getDoubleData());
-    return findErrors(unityMatrix, product, 1).setTime(time);
-  }
-
-  public ErrorSet quadrupleAccurateMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    if (quadrupleUnityMatrix == null) { // it is set to NULL when the size gets changed
-      quadrupleUnityMatrix = convertToQuadruples(unityMatrix);
-    }
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix inverse = matrix.inverseAccurately();
-    time += System.nanoTime();
-    final Quadruple[][] product = multiply(matrix.getQuadrupleData(), inverse.getQuadrupleData());
-    return findErrors(quadrupleUnityMatrix, product).setTime(time);
-    }
-
-  public ErrorSet bigDecimalAccurateMatrixInversionErrors() {
-    checkPurpose(performerMethodName(), Purpose.INVERSION);
-    if (bigDecimalUnityMatrix == null) { // it is set to NULL when the size gets changed
-      bigDecimalUnityMatrix = convertToBigDecimals(unityMatrix);
-    }
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix inverse = matrix.inverseAccurately();
-    time += System.nanoTime();
-    final BigDecimal[][] product = multiply(matrix.getBigDecimalData(), inverse.getBigDecimalData());
-    return findErrors(bigDecimalUnityMatrix, product).setTime(time);
-  }
-
-  // matrix multiplications
-
-  public ErrorSet doubleMultiplicationErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final Matrix matrix = new DoubleMatrix(matrixData, true);
-    time = -System.nanoTime();
-    final Matrix product = matrix.multiply(matrixX);
-    time += System.nanoTime();
-    return findErrors(matrixB, product.getDoubleData()).setTime(time);
-  }
-
-  public ErrorSet jamaMultiplicationErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final Jama.Matrix matrixA = new Jama.Matrix(matrixData);
-    final Jama.Matrix matrixX = new Jama.Matrix(this.matrixX);
-    time = -System.nanoTime();
-    final Jama.Matrix matrixB = matrixA.times(matrixX);
-    time += System.nanoTime();
-    return findErrors(this.matrixB, matrixB.getArray()).setTime(time);
-  }
-
-  public ErrorSet quadrupleMultiplicationErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData, true);
-    quadrupleMatrixX = makeQuadrupleMatrixX();
-    final Quadruple[][] expectedProduct = multiply(matrix.getQuadrupleData(), quadrupleMatrixX);
-    time = -System.nanoTime();
-    final Matrix actualProduct = matrix.multiply(quadrupleMatrixX);
-    time += System.nanoTime();
-    return findErrors(expectedProduct, actualProduct.getQuadrupleData()).setTime(time);
-  }
-
-  public ErrorSet bigDecimalMultiplicationErrors() {
-    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
-    final BigDecimalMatrix matrix = new BigDecimalMatrix(convertToQuadruples(matrixData), true);
-
-    // If it were converted from doubles directly, the precision would be too low
-    bigDecimalMatrixX = convertToBigDecimals(convertToQuadruples(matrixX));
-    final BigDecimal[][] expectedProduct = multiply(matrix.getBigDecimalData(), bigDecimalMatrixX);
-
-    time = -System.nanoTime();
-    final Matrix actualProduct = matrix.multiply(bigDecimalMatrixX);
-    time += System.nanoTime();
-
-    return findErrors(expectedProduct, actualProduct.getBigDecimalData()).setTime(time);
-  }
-
-
-
-  /* *************************************************************************
-  ******** Private methods ***************************************************
-  ***************************************************************************/
-
-  protected void setMatrixData(double[][] data) {
-    matrixData = data;
-    size = data.length;
-  }
-
-  int getSize() {
-    return size;
- }
-
-  protected static String performerMethodName() {
-    final String s = new Exception().getStackTrace()[1].toString();
-    return s.replaceFirst("\\(.*\\)", "()").replaceFirst(".*\\.", "");
-  }
-
-  protected void checkPurpose(String methodName, Purpose impliedPurpose) {
-    if (this.purpose != impliedPurpose) {
-      throw new IllegalArgumentException(String.format(
-                  "Calling %s on MatrixData implies %s, while this instance was creted for %s",
-                  methodName, impliedPurpose, this.purpose));
-    }
-  }
-
-  public long  getTime() {
-    return time;
-  }
-
-  private static double[] multiply(double[] vector, double factor) {
-    final double[] result = new double[vector.length];
-    for (int i = 0; i < vector.length; i++) {
-      result[i] = vector[i] * factor;
-    }
-    return result;
-  }
-
-  private Quadruple[] makeQuadrupleSolution() {
-    return convertToQuadruples(solution);
-  }
-
-  private BigDecimal[] makeBigDecimalSolution() {
-    return convertToBigDecimals(solution);
-  }
-
-  private Quadruple[][] makeQuadrupleMatrixX() {
-    return convertToQuadruples(matrixX);
-  }
-
-  private BigDecimal[][] makeBigDecimalMatrixX() {
-    return convertToBigDecimals(matrixX);
-  }
-
-  private static double[][] multiply(double[][] matrixA, double[][] matrixB) {
-    final int size = matrixA.length;
-    final double[][] result = new double[size][size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++) {
-        result[i][j] = multiplyRowByColumn(matrixA, i, matrixB, j);
-      }
-    }
-    return result;
-  }
-
-  private static double multiplyRowByColumn(double[][] matrixA, int rowIndex, double[][] matrixB, int colIndex) {
-    final int size = matrixA.length;
-    final Quadruple productElement = new Quadruple();
-    for (int k = 0; k < size; k++) {
-      productElement.add(new Quadruple(matrixA[rowIndex][k]).multiply(matrixB[k][colIndex]));
-    }
-    return productElement.doubleValue();
-  }
-
-  protected static double[] multiply(double[][] matrix, double[] vector) {
-    final int length = matrix.length;
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++) {
-      final Quadruple productElement = new Quadruple();
-      for (int j = 0; j < length; j++) {
-        productElement.add(new Quadruple(matrix[i][j]).multiply(vector[j]));
-      }
-      result[i] = productElement.doubleValue();
-    }
-    return result;
-  }
-
-  private static Quadruple[] multiply(Quadruple[][] matrix, Quadruple[] vector) {
-    final int length = matrix.length;
-    final Quadruple[] result = new Quadruple[length];
-    for (int i = 0; i < length; i++) {
-      final Quadruple productElement = new Quadruple();
-      for (int j = 0; j < length; j++) {
-        productElement.add(new Quadruple(matrix[i][j]).multiply(vector[j]));
-      }
-      result[i] = productElement;
-    }
-    return result;
-  }
-
-  private BigDecimal[] multiply(BigDecimal[][] matrix, BigDecimal[] vector) {
-    final int length = matrix.length;
-    final BigDecimal[] result = new BigDecimal[length];
-    for (int i = 0; i < length; i++) {
-      BigDecimal productElement = BigDecimal.ZERO;
-      for (int j = 0; j < length; j++) {
-        productElement = productElement.add(matrix[i][j].multiply(vector[j], mc), mc);
-      }
-      result[i] = productElement;
-    }
-    return result;
-  }
-
-  private static Quadruple[][] multiply(Quadruple[][] matrixA, Quadruple[][] matrixB) {
-    final int length = matrixA.length;
-    final Quadruple[][] result = new Quadruple[length][length];
-    for (int i = 0; i < length; i++) {
-      for (int j = 0; j < length; j++) {
-        result[i][j] = multiplyRowByColumn(matrixA, i, matrixB, j);
-      }
-    }
-    return result;
-  }
-
-  private static BigDecimal[][] multiply(BigDecimal[][] matrixA, BigDecimal[][] matrixB) {
-    final int length = matrixA.length;
-    final BigDecimal[][] result = new BigDecimal[length][length];
-    for (int i = 0; i < length; i++) {
-      for (int j = 0; j < length; j++) {
-        result[i][j] = multiplyRowByColumn(matrixA, i, matrixB, j);
-      }
-    }
-    return result;
-  }
-
-  private static Quadruple multiplyRowByColumn(Quadruple[][] matrixA, int rowIndex, Quadruple[][] matrixB, int colIndex) {
-    final int size = matrixA.length;
-    final Quadruple productElement = new Quadruple();
-    for (int k = 0; k < size; k++) {
-      productElement.add(Quadruple.multiply(matrixA[rowIndex][k], matrixB[k][colIndex]));
-    }
-    return productElement;
-  }
-
-  private static BigDecimal multiplyRowByColumn(BigDecimal[][] matrixA, int rowIndex, BigDecimal[][] matrixB, int colIndex) {
-    final int size = matrixA.length;
-    BigDecimal productElement = BigDecimal.ZERO;
-    for (int k = 0; k < size; k++) {
-      productElement = productElement.add(matrixA[rowIndex][k].multiply(matrixB[k][colIndex]));
-    }
-    return productElement;
-  }
-
+/*
+
+ Copyright 2021-2023 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+import static com.mvohm.quadmatrix.measurements.MatrixDataGenerators.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import com.mvohm.quadmatrix.BigDecimalMatrix;
+import com.mvohm.quadmatrix.DoubleMatrix;
+import com.mvohm.quadmatrix.Matrix;
+import com.mvohm.quadmatrix.QuadrupleMatrix;
+import com.mvohm.quadmatrix.measurements.AuxMethods.ErrorSet;
+
+import com.mvohm.quadruple.Quadruple;
+
+import Jama.CholeskyDecomposition;
+
+/**
+ * A helper class to generate random matrix data and examine accuracy of the solutions of the corresponding matrix
+ */
+public class MatrixData {
+
+  protected static final double RANGE_BOTTOM          = -1.0;
+  protected static final double RANGE_TOP             = 1.0;
+  /** The condition number of the matrices generated by {@link #makeDataSetForConditionNumbers(int, Random)} */
+  protected static final double CONDITION_NUMBER      = 1e3;
+  /** The precision, in decimal digits, of the inverse used to find the expected condition numbers */
+  protected static final int CONDITION_REFERENCE_PRECISION = 50;
+  // Parameters of the matrices of MatrixFamily.NON_UNIFORM, mostly small values with a few large ones
+  protected static final double NON_UNIFORM_DENSITY   = 0.3;
+  protected static final double NON_UNIFORM_POWER     = 4.0;
+  protected static final double NON_UNIFORM_SLOPE     = 0.1;
+
+  private int size;
+  // The matrices are stored in flat arrays and converted to double[][] only to construct the matrices under test
+  protected FlatMatrix matrixData;
+  protected double[] vector;
+  protected double[] solution;
+
+  protected FlatMatrix matrixB;
+  protected FlatMatrix matrixX;
+
+  protected double scalar;
+  /** The product of the factors is the determinant of the matrix */
+  protected double[] determinantFactors;
+  private BigDecimal determinant;
+  protected double conditionNumber;
+
+  // Unity matrices of different sizes, shared by the data sets for inversions.
+  // They are never modified, so the same instance may be used by concurrently running testers
+  private static final ConcurrentHashMap<Integer, double[][]> unityMatrices = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<Integer, Quadruple[][]> quadrupleUnityMatrices = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<Integer, BigDecimal[][]> bigDecimalUnityMatrices = new ConcurrentHashMap<>();
+
+  /**
+   * The Quadruple and BigDecimal views of the data and the reference results found from them,
+   * computed once, when first required, see {@link #view(View, int, Supplier)}.
+   * The instances made by {@link #shareInputs()} share them, so the performers running on them simultaneously
+   * do not convert the data and compute the references again. The views are never modified.
+   */
+  private ConcurrentHashMap<ViewKey, FutureTask<Object>> views = new ConcurrentHashMap<>();
+
+  private enum View {
+    QUADRUPLE_MATRIX_DATA, QUADRUPLE_SOLUTION, QUADRUPLE_MATRIX_X, QUADRUPLE_TRANSPOSE,
+    BIGDECIMAL_SOLUTION, BIGDECIMAL_MATRIX_X, EXACT_BIGDECIMAL_SOLUTION, EXACT_BIGDECIMAL_MATRIX_X, BIGDECIMAL_TRANSPOSE,
+    QUADRUPLE_VECTOR, QUADRUPLE_MATRIX_B,
+    // The products computed with the precision of BigDecimalMatrix
+    BIGDECIMAL_VECTOR, BIGDECIMAL_MATRIX_B, EXACT_BIGDECIMAL_VECTOR, EXACT_BIGDECIMAL_MATRIX_B,
+    // The expected condition numbers
+    REFERENCE_INVERSE, MAX_ROW_SUM_CONDITION_NUMBER, SPECTRAL_CONDITION_NUMBER,
+  }
+
+  /** Identifies a view. The precision is 0 for the views that do not depend on the precision of BigDecimal computations */
+  private record ViewKey(View view, int precision) {}
+
+  protected long time;
+  /** Measures the CPU time, the allocations and the garbage collections within the timed region */
+  protected final ResourceMeter meter = new ResourceMeter();
+
+  protected enum Purpose { VECTOR_SOLUTION, MATRIX_SOLUTION, INVERSION, MATRIX_OPERATIONS, DETERMINANT, CONDITION_NUMBER };
+
+  /**
+   * The version of the data sets made by the {@code makeDataSetFor*()} methods with MatrixDataGenerators.
+   * Increment it whenever a change of them changes the data sets made from the same seed,
+   * so that the data sets stored by {@link DatasetCorpus} with the previous version are not used
+   */
+  static final int DATA_SET_VERSION = 2;
+
+  protected Purpose purpose;
+
+  /** Families of matrices with a controlled condition number, see {@link #makeConditionedDataSetForVectorSolutions} */
+  public enum MatrixFamily {
+    ROW_SCALING,        // random, with the rows scaled by a growing factor, see makeLargeRangeDataSetForVectorSolutions()
+    HILBERT_LIKE,       // see MatrixDataGenerators.randomHilbertLikeMatrix()
+    VANDERMONDE_LIKE,   // see MatrixDataGenerators.randomVandermondeLikeMatrix()
+    SPD_SPECTRUM,       // symmetric positive-definite, with the eigenvalues spread log-uniformly from 1 to the condition number
+    NON_UNIFORM,        // sparse, with non-uniform values, see makeNonUniformDataSet(). The condition number is not controlled
+    ;
+
+    /** The matrices of the family are symmetric positive-definite */
+    public boolean isSpd() {
+      return this == HILBERT_LIKE || this == SPD_SPECTRUM;
+    }
+
+    /** The condition number of the matrices of the family depends on the required one */
+    public boolean isControlled() {
+      return this != NON_UNIFORM;
+    }
+  }
+
+  /* ***************************************************************************
+   *********** Creating datasets ***********************************************
+   *****************************************************************************/
+
+  /**
+   * fills matrixData with random values providing that it is SPD,
+   * fills the solution with random values in the range defined by corresponding constants,
+   * and finds the vector such that solving the equation system with this vector would give the found solution
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return and instance of RandomMatrixData with the generated data
+   */
+  public static MatrixData makeDataSetForSPDSolutions(int size, Random random) {
+    // TODO 2023-06-05 18:18:54 Don't forget to remove them all -- added for debugging CollectStatistics
+    // printMethodName();
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.VECTOR_SOLUTION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(FlatMatrix.of(randomSpdMatrix(size, RANGE_BOTTOM, RANGE_TOP, 1.0)));
+    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
+    data.vector = multiply(data.matrixData, data.solution);
+    return data;
+  }
+
+  /**
+   * fills matrixData and solution with random values in the range defined by corresponding constants
+   * and finds the vector such that solving the system with this vector would give the found solution
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return and instance of RandomMatrixData with the generated data
+   */
+  public static MatrixData makeDataSetForVectorSolutions(int size, Random random) {
+    // printMethodName();
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.VECTOR_SOLUTION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP));
+    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
+    data.vector = multiply(data.matrixData, data.solution);
+    return data;
+  }
+
+  /**
+   * Generates matrix data whose rows differ significantly in magnitude from each other.
+   * fills matrixData A and a target solution x with random values in the range -1.0 .. 1.0,
+   * then scales the rows of the matrix by a scale gradually growing from 1/sqrt(range) to sqrt(range),
+   * and finds the vector b such that solving the system with the scaled matrix
+   * and this vector would give the required solution.
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return and instance of RandomMatrixData with the generated data
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @param scaleRange
+   * @return
+   */
+  public static MatrixData makeLargeRangeDataSetForVectorSolutions(int size, Random random, double scaleRange) {
+    // printMethodName();
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.VECTOR_SOLUTION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP));
+
+    // Multiply rows by an increasing scale
+    final double scaleIncrease = Math.pow(scaleRange, 1.0/(size));  //
+    double scale = 1.0 / Math.sqrt(scaleRange);
+    for (int i = 0; i < size; i++) {
+      data.matrixData.scaleRow(i, scale);
+      scale *= scaleIncrease;
+    }
+
+    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
+    data.vector = multiply(data.matrixData, data.solution);
+    return data;
+  }
+
+  /**
+   * fills matrixData and solution with non-uniform random values in the range defined by corresponding constants
+   * and finds the vector such that solving the system with this vector would give the found solution
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return and instance of RandomMatrixData with the generated data
+   */
+  public static MatrixData makeNonUniformDataSet(int size, Random random, double density, double power, double slope) {
+    // printMethodName();
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.VECTOR_SOLUTION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(FlatMatrix.of(randomSparsePowPlusLinearMatrix(size, density, power, slope)));
+    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
+    data.vector = multiply(data.matrixData, data.solution);
+    return data;
+  }
+
+  public static MatrixData makeDataSetForMatrixSolutions(int size, Random random) {
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.MATRIX_SOLUTION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP));
+    data.matrixX = randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP);
+    // As accurate as the product with Quadruple accumulators, but much faster for large matrices
+    data.matrixB = MatrixDataGenerators.tiledMultiply(data.matrixData, data.matrixX);
+    return data;
+  }
+
+  public static MatrixData makeDataSetForInversions(int size, Random random) {
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.INVERSION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP));
+    return data;
+  }
+
+  /**
+   * fills matrixData and matrixX with random values in the range defined by corresponding constants
+   * and picks a random scalar in the same range, to transpose the matrix, to multiply it by the scalar
+   * and to add matrixX to it
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return an instance of MatrixData with the generated data
+   */
+  public static MatrixData makeDataSetForMatrixOperations(int size, Random random) {
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.MATRIX_OPERATIONS;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setMatrixData(randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP));
+    data.matrixX = randomFlatMatrix(size, RANGE_BOTTOM, RANGE_TOP);
+    data.scalar = randomValue(RANGE_BOTTOM, RANGE_TOP);
+    return data;
+  }
+
+  /**
+   * fills matrixData with a random matrix whose determinant is known exactly,
+   * see {@link MatrixDataGenerators#randomMatrixWithKnownDeterminant(int, double[])}
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return an instance of MatrixData with the generated data
+   */
+  public static MatrixData makeDataSetForDeterminants(int size, Random random) {
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.DETERMINANT;
+    MatrixDataGenerators.setRandomSeed(random);
+    final double[] factors = new double[size];
+    data.setMatrixData(randomMatrixWithKnownDeterminant(size, factors));
+    data.setDeterminantFactors(factors);
+    return data;
+  }
+
+  /**
+   * fills matrixData with a random matrix whose singular values are spread log-uniformly
+   * from 1 to CONDITION_NUMBER, so that its condition number in the 2-norm is CONDITION_NUMBER
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @return an instance of MatrixData with the generated data
+   */
+  public static MatrixData makeDataSetForConditionNumbers(int size, Random random) {
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.CONDITION_NUMBER;
+    MatrixDataGenerators.setRandomSeed(random);
+    final double[] singularValues = logUniformValues(size, CONDITION_NUMBER);
+    data.setMatrixData(randomMatrixWithSingularValues(singularValues));
+    data.conditionNumber = singularValues[size - 1];
+    return data;
+  }
+
+  /**
+   * fills matrixData with a matrix of the given family, whose condition number is close to the given one,
+   * fills the solution with random values in the range defined by corresponding constants,
+   * and finds the vector such that solving the system with this vector would give the found solution
+   * @param family the family of the matrix
+   * @param size the size of the matrix to create
+   * @param random contains a random seed and ensures reproducibility
+   * @param conditionNumber the required condition number in the 2-norm, ignored by the families that do not control it
+   * @return an instance of MatrixData with the generated data
+   */
+  public static MatrixData makeConditionedDataSetForVectorSolutions(MatrixFamily family, int size, Random random,
+                                                                    double conditionNumber) {
+    switch (family) {
+      case ROW_SCALING:
+        // The condition number of a random matrix is about its size, and the scaling multiplies it by up to the scale range
+        return makeLargeRangeDataSetForVectorSolutions(size, random, Math.max(1.0, conditionNumber / size));
+      case NON_UNIFORM:
+        return makeNonUniformDataSet(size, random, NON_UNIFORM_DENSITY, NON_UNIFORM_POWER, NON_UNIFORM_SLOPE);
+      default:
+        break;
+    }
+    final MatrixData data = new MatrixData();
+    data.purpose = Purpose.VECTOR_SOLUTION;
+    MatrixDataGenerators.setRandomSeed(random);
+    data.setConditionedMatrix(family, size, conditionNumber);
+    data.solution = randomVector(size, RANGE_BOTTOM, RANGE_TOP);
+    data.vector = multiply(data.matrixData, data.solution);
+    return data;
+  }
+
+  /** The same as {@link #makeConditionedDataSetForVectorSolutions}, for inversions */
+  public static MatrixData makeConditionedDataSetForInversions(MatrixFamily family, int size, Random random,
+                                                               double conditionNumber) {
+    final MatrixData data = makeConditionedDataSetForVectorSolutions(family, size, random, conditionNumber);
+    data.purpose = Purpose.INVERSION;
+    data.solution = data.vector = null;
+    return data;
+  }
+
+  /* ************************************************************************
+   ****** Perform operations and return errors ******************************
+   **************************************************************************/
+
+  // LU-decomposition-based simple vector solutions
+
+  public ErrorSet doubleLuSolutionWithScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), true);
+    meter.start();
+    matrix.solve(vector);
+    time = meter.stop();
+    final double[] actualSolution = matrix.getDoubleSolution();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaLuSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final Jama.Matrix matrixB = new Jama.Matrix(vector, size);
+    meter.start();
+    final Jama.Matrix matrixX = matrixA.solve(matrixB);
+    time = meter.stop();
+    final double[] actualSolution = matrixX.getColumnPackedCopy();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleLuSolutionWithScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    final Quadruple[] quadrupleVector = quadrupleVector();
+    meter.start();
+    matrix.solve(quadrupleVector);
+    time = meter.stop();
+    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
+    return findErrors(quadrupleSolution, actualSolution, false).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalLuSolutionWithScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    final BigDecimal[] bigDecimalSolution = bigDecimalSolution();
+    final BigDecimal[] bigDecimalVector = bigDecimalVector();
+    meter.start();
+    matrix.solve(bigDecimalVector);
+    time = meter.stop();
+    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
+    return findErrors(bigDecimalSolution, actualSolution, false).setTime(time).setResourceUsage(meter);
+  }
+
+
+  public ErrorSet doubleLuSolutionWithoutScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), false);
+    meter.start();
+    matrix.solve(vector);
+    time = meter.stop();
+    final double[] actualSolution = matrix.getDoubleSolution();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleLuSolutionWithoutScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), false);
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    final Quadruple[] quadrupleVector = quadrupleVector();
+    meter.start();
+    matrix.solve(quadrupleVector);
+    time = meter.stop();
+    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
+    return findErrors(quadrupleSolution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalLuSolutionWithoutScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), false, precision());
+    final BigDecimal[] bigDecimalSolution = bigDecimalSolution();
+    final BigDecimal[] bigDecimalVector = bigDecimalVector();
+    meter.start();
+    matrix.solve(bigDecimalVector);
+    time = meter.stop();
+    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
+    return findErrors(bigDecimalSolution, actualSolution, false).setTime(time).setResourceUsage(meter);
+  }
+
+  // Cholesky-decomposition-based accurate vector solutions
+
+  public ErrorSet doubleAccurateLUSolutionWithScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    matrix.solveAccurately(vector);
+    time = meter.stop();
+    final double[] actualSolution = matrix.getDoubleSolution();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleAccurateLUSolutionWithScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    final Quadruple[] quadrupleVector = quadrupleVector();
+    meter.start();
+    matrix.solveAccurately(quadrupleVector);
+    time = meter.stop();
+    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
+    return findErrors(quadrupleSolution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalAccurateLUSolutionWithScalingErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    final BigDecimal[] bigDecimalSolution = bigDecimalSolution();
+    final BigDecimal[] bigDecimalVector = bigDecimalVector();
+    meter.start();
+    matrix.solveAccurately(bigDecimalVector);
+    time = meter.stop();
+    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
+    return findErrors(bigDecimalSolution, actualSolution, false).setTime(time).setResourceUsage(meter);
+  }
+
+  // Cholesky-decomposition-based simple vector solutions
+
+  public ErrorSet doubleSpdSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    matrix.solveSPD(vector);
+    time = meter.stop();
+    final double[] actualSolution = matrix.getDoubleSolution();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaSpdSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final Jama.Matrix matrixB = new Jama.Matrix(vector, size);
+    meter.start();
+    final CholeskyDecomposition d = new CholeskyDecomposition(matrixA);
+    final Jama.Matrix matrixX = d.solve(matrixB);
+    time = meter.stop();
+    final double[] actualSolution = matrixX.getColumnPackedCopy();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleSPDSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    final Quadruple[] quadrupleVector = quadrupleVector();
+    meter.start();
+    matrix.solveSPD(quadrupleVector);
+    time = meter.stop();
+    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
+    return findErrors(quadrupleSolution, actualSolution, false).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalSPDSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    final BigDecimal[] bigDecimalSolution = bigDecimalSolution();
+    final BigDecimal[] bigDecimalVector = bigDecimalVector();
+    meter.start();
+    matrix.solveSPD(bigDecimalVector);
+    time = meter.stop();
+    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
+    return findErrors(bigDecimalSolution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  // Cholesky-decomposition-based precise vector solutions
+
+  public ErrorSet doubleAccurateSPDSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    matrix.solveSPDAccurately(vector);
+    time = meter.stop();
+    final double[] actualSolution = matrix.getDoubleSolution();
+    return findErrors(this.solution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleAccurateSPDSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    final Quadruple[] quadrupleVector = quadrupleVector();
+    meter.start();
+    matrix.solveSPDAccurately(quadrupleVector);
+    time = meter.stop();
+    final Quadruple[] actualSolution = matrix.getQuadrupleSolution();
+    return findErrors(quadrupleSolution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalAccurateSPDSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    final BigDecimal[] bigDecimalSolution = bigDecimalSolution();
+    final BigDecimal[] bigDecimalVector = bigDecimalVector();
+    meter.start();
+    matrix.solveSPDAccurately(bigDecimalVector);
+    time = meter.stop();
+    final BigDecimal[] actualSolution = matrix.getBigDecimalSolution();
+    return findErrors(bigDecimalSolution, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  // LU-decomposition-based simple matrix solutions
+
+  public ErrorSet doubleMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final double[][] actualSolution = matrix.solve(matrixB.toArray()).getDoubleData();
+    time = meter.stop();
+    return findErrors(this.matrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final Jama.Matrix matrixB = new Jama.Matrix(this.matrixB.toArray());
+    meter.start();
+    final Jama.Matrix matrixX = matrixA.solve(matrixB);
+    time = meter.stop();
+    final double[][] actualSolution = matrixX.getArray();
+    return findErrors(this.matrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+
+    final Quadruple[][] quadrupleMatrixX = quadrupleMatrixX();
+    final Quadruple[][] quadrupleMatrixB = quadrupleMatrixB();
+
+    meter.start();
+    final Quadruple[][] actualSolution = matrix.solve(quadrupleMatrixB).getQuadrupleData();
+    time = meter.stop();
+    return findErrors(quadrupleMatrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+
+    final BigDecimal[][] bigDecimalMatrixX = bigDecimalMatrixX();
+    final BigDecimal[][] bigDecimalMatrixB = bigDecimalMatrixB();
+
+    meter.start();
+    final BigDecimal[][] actualSolution = matrix.solve(bigDecimalMatrixB).getBigDecimalData();
+    time = meter.stop();
+    return findErrors(bigDecimalMatrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  // LU-decomposition-based accurate matrix solutions
+
+  public ErrorSet doubleAccurateMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final double[][] actualSolution = matrix.solveAccurately(matrixB.toArray()).getDoubleData();
+    time = meter.stop();
+    return findErrors(this.matrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleAccurateMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    final Quadruple[][] quadrupleMatrixX = quadrupleMatrixX();
+    final Quadruple[][] quadrupleMatrixB = quadrupleMatrixB();
+    meter.start();
+    final Quadruple[][] actualSolution = matrix.solveAccurately(quadrupleMatrixB).getQuadrupleData();
+    time = meter.stop();
+    return findErrors(quadrupleMatrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalAccurateMatrixSolutionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    final BigDecimal[][] bigDecimalMatrixX = bigDecimalMatrixX();
+    final BigDecimal[][] bigDecimalMatrixB = bigDecimalMatrixB();
+    meter.start();
+    final BigDecimal[][] actualSolution = matrix.solveAccurately(bigDecimalMatrixB).getBigDecimalData();
+    time = meter.stop();
+    return findErrors(bigDecimalMatrixX, actualSolution).setTime(time).setResourceUsage(meter);
+  }
+
+  // Matrix inversion
+
+  public ErrorSet doubleMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final Matrix inverse = matrix.inverse();
+    time = meter.stop();
+    final double[][] product = multiply(matrixData, inverse.getDoubleData());
+    return findErrors(unityMatrix(), product, 1).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    meter.start();
+    final Jama.Matrix inverse = matrixA.inverse();
+    time = meter.stop();
+    final double[][] product = multiply(matrixData, inverse.getArray());
+    return findErrors(unityMatrix(), product, 1).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final Matrix inverse = matrix.inverse();
+    time = meter.stop();
+    final Quadruple[][] product = multiply(matrix.getQuadrupleData(), inverse.getQuadrupleData());
+    return findErrors(quadrupleUnityMatrix(), product).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    meter.start();
+    final Matrix inverse = matrix.inverse();
+    time = meter.stop();
+    final BigDecimal[][] product = multiply(matrix.getBigDecimalData(), inverse.getBigDecimalData());
+    return findErrors(bigDecimalUnityMatrix(), product).setTime(time).setResourceUsage(meter);
+  }
+
+  // Accurate matrix inversion
+
+  public ErrorSet doubleAccurateMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final Matrix inverse = matrix.inverseAccurately();
+    time = meter.stop();
+    final double[][] product = multiply(matrixData, inverse.getDoubleData());
+    return findErrors(unityMatrix(), product, 1).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleAccurateMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final Matrix inverse = matrix.inverseAccurately();
+    time = meter.stop();
+    final Quadruple[][] product = multiply(matrix.getQuadrupleData(), inverse.getQuadrupleData());
+    return findErrors(quadrupleUnityMatrix(), product).setTime(time).setResourceUsage(meter);
+    }
+
+  public ErrorSet bigDecimalAccurateMatrixInversionErrors() {
+    checkPurpose(performerMethodName(), Purpose.INVERSION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(matrixData.toArray(), true, precision());
+    meter.start();
+    final Matrix inverse = matrix.inverseAccurately();
+    time = meter.stop();
+    final BigDecimal[][] product = multiply(matrix.getBigDecimalData(), inverse.getBigDecimalData());
+    return findErrors(bigDecimalUnityMatrix(), product).setTime(time).setResourceUsage(meter);
+  }
+
+  // matrix multiplications
+
+  public ErrorSet doubleMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final Matrix matrix = new DoubleMatrix(matrixData.toArray(), true);
+    meter.start();
+    final Matrix product = matrix.multiply(matrixX.toArray());
+    time = meter.stop();
+    return findErrors(matrixB, product.getDoubleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final Jama.Matrix matrixX = new Jama.Matrix(this.matrixX.toArray());
+    meter.start();
+    final Jama.Matrix matrixB = matrixA.times(matrixX);
+    time = meter.stop();
+    return findErrors(this.matrixB, matrixB.getArray()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), true);
+    final Quadruple[][] quadrupleMatrixX = quadrupleMatrixX();
+    final Quadruple[][] expectedProduct = quadrupleMatrixB();
+    meter.start();
+    final Matrix actualProduct = matrix.multiply(quadrupleMatrixX);
+    time = meter.stop();
+    return findErrors(expectedProduct, actualProduct.getQuadrupleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), true, precision());
+
+    // If it were converted from doubles directly, the precision would be too low
+    final BigDecimal[][] bigDecimalMatrixX = exactBigDecimalMatrixX();
+    final BigDecimal[][] expectedProduct = exactBigDecimalMatrixB();
+
+    meter.start();
+    final Matrix actualProduct = matrix.multiply(bigDecimalMatrixX);
+    time = meter.stop();
+
+    return findErrors(expectedProduct, actualProduct.getBigDecimalData()).setTime(time).setResourceUsage(meter);
+  }
+
+  // Transposition
+
+  public ErrorSet doubleTranspositionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    final Matrix transposed = matrix.transpose();
+    time = meter.stop();
+    return findErrors(matrixData.transpose(), transposed.getDoubleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaTranspositionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    meter.start();
+    final Jama.Matrix transposed = matrixA.transpose();
+    time = meter.stop();
+    return findErrors(matrixData.transpose(), transposed.getArray()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleTranspositionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray());
+    meter.start();
+    final Matrix transposed = matrix.transpose();
+    time = meter.stop();
+    final Quadruple[][] expected = quadrupleTranspose();
+    return findErrors(expected, transposed.getQuadrupleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalTranspositionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), true, precision());
+    meter.start();
+    final Matrix transposed = matrix.transpose();
+    time = meter.stop();
+    final BigDecimal[][] expected = bigDecimalTranspose();
+    return findErrors(expected, transposed.getBigDecimalData()).setTime(time).setResourceUsage(meter);
+  }
+
+  // Determinant, compared with the exact one
+
+  public ErrorSet doubleDeterminantErrors() {
+    checkPurpose(performerMethodName(), Purpose.DETERMINANT);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    final double actualDeterminant = matrix.determinant();
+    time = meter.stop();
+    return findErrors(determinant, actualDeterminant).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaDeterminantErrors() {
+    checkPurpose(performerMethodName(), Purpose.DETERMINANT);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    meter.start();
+    final double actualDeterminant = matrixA.det();
+    time = meter.stop();
+    return findErrors(determinant, actualDeterminant).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleDeterminantErrors() {
+    checkPurpose(performerMethodName(), Purpose.DETERMINANT);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray());
+    meter.start();
+    final Quadruple actualDeterminant = matrix.determinantAsQuadruple();
+    time = meter.stop();
+    return findErrors(determinant, actualDeterminant).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalDeterminantErrors() {
+    checkPurpose(performerMethodName(), Purpose.DETERMINANT);
+    // The entries have more significant digits than a double shows, so they are converted exactly
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), true, precision());
+    meter.start();
+    final BigDecimal actualDeterminant = matrix.determinantAsBigDecimal();
+    time = meter.stop();
+    return findErrors(determinant, actualDeterminant).setTime(time).setResourceUsage(meter);
+  }
+
+  // Matrix-vector multiplication
+
+  public ErrorSet doubleVectorMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    final double[] actualProduct = matrix.multiply(solution);
+    time = meter.stop();
+    return findErrors(vector, actualProduct).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaVectorMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final Jama.Matrix matrixX = new Jama.Matrix(solution, size);
+    meter.start();
+    final Jama.Matrix matrixB = matrixA.times(matrixX);
+    time = meter.stop();
+    return findErrors(vector, matrixB.getColumnPackedCopy()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleVectorMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray());
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    final Quadruple[] expectedProduct = quadrupleVector();
+    meter.start();
+    final Number[] actualProduct = matrix.multiply(quadrupleSolution);
+    time = meter.stop();
+    return findErrors(expectedProduct, convertToQuadruples(actualProduct)).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalVectorMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.VECTOR_SOLUTION);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), true, precision());
+    // If it were converted from doubles directly, the precision would be too low
+    final BigDecimal[] bigDecimalSolution = exactBigDecimalSolution();
+    final BigDecimal[] expectedProduct = exactBigDecimalVector();
+    meter.start();
+    final Number[] actualProduct = matrix.multiply(bigDecimalSolution);
+    time = meter.stop();
+    return findErrors(expectedProduct, convertToBigDecimals(actualProduct)).setTime(time).setResourceUsage(meter);
+  }
+
+  // Multiplication by a scalar
+
+  public ErrorSet doubleScalarMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    final Matrix product = matrix.multiply(scalar);
+    time = meter.stop();
+    return findErrors(scaledMatrix(), product.getDoubleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaScalarMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    meter.start();
+    final Jama.Matrix product = matrixA.times(scalar);
+    time = meter.stop();
+    return findErrors(scaledMatrix(), product.getArray()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleScalarMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray());
+    final Quadruple quadrupleScalar = new Quadruple(scalar);
+    final Quadruple[][] expectedProduct = matrix.getQuadrupleData();
+    for (final Quadruple[] row: expectedProduct) {
+      for (final Quadruple value: row)
+        value.multiply(quadrupleScalar);
+    }
+    meter.start();
+    final Matrix actualProduct = matrix.multiply(quadrupleScalar);
+    time = meter.stop();
+    return findErrors(expectedProduct, actualProduct.getQuadrupleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalScalarMultiplicationErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), true, precision());
+    final BigDecimal bigDecimalScalar = new BigDecimal(scalar);
+    final BigDecimal[][] expectedProduct = matrix.getBigDecimalData();
+    for (final BigDecimal[] row: expectedProduct) {
+      for (int j = 0; j < row.length; j++)
+        row[j] = row[j].multiply(bigDecimalScalar);
+    }
+    meter.start();
+    final Matrix actualProduct = matrix.multiply(bigDecimalScalar);
+    time = meter.stop();
+    return findErrors(expectedProduct, actualProduct.getBigDecimalData()).setTime(time).setResourceUsage(meter);
+  }
+
+  // Matrix addition
+
+  public ErrorSet doubleAdditionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray());
+    meter.start();
+    final Matrix sum = matrix.add(matrixX.toArray());
+    time = meter.stop();
+    return findErrors(matrixSum(), sum.getDoubleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaAdditionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final Jama.Matrix matrixX = new Jama.Matrix(this.matrixX.toArray());
+    meter.start();
+    final Jama.Matrix sum = matrixA.plus(matrixX);
+    time = meter.stop();
+    return findErrors(matrixSum(), sum.getArray()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleAdditionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray());
+    final Quadruple[][] quadrupleMatrixX = quadrupleMatrixX();
+    final Quadruple[][] expectedSum = matrix.getQuadrupleData();
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++)
+        expectedSum[i][j].add(quadrupleMatrixX[i][j]);
+    }
+    meter.start();
+    final Matrix actualSum = matrix.add(quadrupleMatrixX);
+    time = meter.stop();
+    return findErrors(expectedSum, actualSum.getQuadrupleData()).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalAdditionErrors() {
+    checkPurpose(performerMethodName(), Purpose.MATRIX_OPERATIONS);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), true, precision());
+    final BigDecimal[][] bigDecimalMatrixX = exactBigDecimalMatrixX();
+    final BigDecimal[][] expectedSum = matrix.getBigDecimalData();
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++)
+        expectedSum[i][j] = expectedSum[i][j].add(bigDecimalMatrixX[i][j]);
+    }
+    meter.start();
+    final Matrix actualSum = matrix.add(bigDecimalMatrixX);
+    time = meter.stop();
+    return findErrors(expectedSum, actualSum.getBigDecimalData()).setTime(time).setResourceUsage(meter);
+  }
+
+  // Condition number, compared with that of the matrix of the stored doubles in the norm used by the matrix under test:
+  // the 2-norm by Jama, the maximum absolute row sum (the infinity-norm) by the matrices of QuadMatrix.
+  // The matrices are constructed without scaling, since it changes the condition number
+
+  public ErrorSet doubleConditionNumberErrors() {
+    checkPurpose(performerMethodName(), Purpose.CONDITION_NUMBER);
+    final DoubleMatrix matrix = new DoubleMatrix(matrixData.toArray(), false);
+    final double expectedConditionNumber = maxRowSumConditionNumber();
+    meter.start();
+    final double actualConditionNumber = matrix.cond();
+    time = meter.stop();
+    return findErrors(expectedConditionNumber, actualConditionNumber).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet jamaConditionNumberErrors() {
+    checkPurpose(performerMethodName(), Purpose.CONDITION_NUMBER);
+    final Jama.Matrix matrixA = new Jama.Matrix(matrixData.toArray());
+    final double expectedConditionNumber = spectralConditionNumber();
+    meter.start();
+    final double actualConditionNumber = matrixA.cond();
+    time = meter.stop();
+    return findErrors(expectedConditionNumber, actualConditionNumber).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet quadrupleConditionNumberErrors() {
+    checkPurpose(performerMethodName(), Purpose.CONDITION_NUMBER);
+    final QuadrupleMatrix matrix = new QuadrupleMatrix(matrixData.toArray(), false);
+    final double expectedConditionNumber = maxRowSumConditionNumber();
+    meter.start();
+    final double actualConditionNumber = matrix.cond();
+    time = meter.stop();
+    return findErrors(expectedConditionNumber, actualConditionNumber).setTime(time).setResourceUsage(meter);
+  }
+
+  public ErrorSet bigDecimalConditionNumberErrors() {
+    checkPurpose(performerMethodName(), Purpose.CONDITION_NUMBER);
+    final BigDecimalMatrix matrix = new BigDecimalMatrix(quadrupleMatrixData(), false, precision());
+    final double expectedConditionNumber = maxRowSumConditionNumber();
+    meter.start();
+    final double actualConditionNumber = matrix.cond();
+    time = meter.stop();
+    return findErrors(expectedConditionNumber, actualConditionNumber).setTime(time).setResourceUsage(meter);
+  }
+
+
+
+  /* *************************************************************************
+  ******** Views of the data *************************************************
+  ***************************************************************************/
+
+  /**
+   * Returns the given view, computing it with the maker if it has not been computed yet.
+   * The maker runs in the calling thread, outside the map, so computing a view does not block
+   * the threads requesting other views; those requesting the same view wait for it to be computed.
+   * The views the maker needs are found beforehand
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T view(View view, int precision, Supplier<T> maker) {
+    final ViewKey key = new ViewKey(view, precision);
+    FutureTask<Object> task = views.get(key);
+    if (task == null) {
+      final FutureTask<Object> newTask = new FutureTask<>(maker::get);
+      task = views.putIfAbsent(key, newTask);
+      if (task == null) {
+        task = newTask;
+        task.run();
+      }
+    }
+    try {
+      return (T)task.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while computing view " + view, e);
+    } catch (final ExecutionException e) {
+      views.remove(key, task); // Let the next request try again
+      throw new RuntimeException("Failed to compute view " + view, e.getCause());
+    }
+  }
+
+  /** The matrix converted to Quadruples exactly, to construct BigDecimalMatrix instances without losing digits */
+  Quadruple[][] quadrupleMatrixData() {
+    return view(View.QUADRUPLE_MATRIX_DATA, 0, () -> convertToQuadruples(matrixData));
+  }
+
+  Quadruple[] quadrupleSolution() {
+    return view(View.QUADRUPLE_SOLUTION, 0, () -> convertToQuadruples(solution));
+  }
+
+  BigDecimal[] bigDecimalSolution() {
+    return view(View.BIGDECIMAL_SOLUTION, 0, () -> convertToBigDecimals(solution));
+  }
+
+  /** The solution converted to BigDecimals exactly, unlike {@link #bigDecimalSolution()} */
+  BigDecimal[] exactBigDecimalSolution() {
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    return view(View.EXACT_BIGDECIMAL_SOLUTION, 0, () -> convertToBigDecimals(quadrupleSolution));
+  }
+
+  Quadruple[][] quadrupleMatrixX() {
+    return view(View.QUADRUPLE_MATRIX_X, 0, () -> convertToQuadruples(matrixX));
+  }
+
+  BigDecimal[][] bigDecimalMatrixX() {
+    return view(View.BIGDECIMAL_MATRIX_X, 0, () -> convertToBigDecimals(matrixX));
+  }
+
+  /** MatrixX converted to BigDecimals exactly, unlike {@link #bigDecimalMatrixX()} */
+  BigDecimal[][] exactBigDecimalMatrixX() {
+    final Quadruple[][] quadrupleMatrixX = quadrupleMatrixX();
+    return view(View.EXACT_BIGDECIMAL_MATRIX_X, 0, () -> convertToBigDecimals(quadrupleMatrixX));
+  }
+
+  Quadruple[][] quadrupleTranspose() {
+    return view(View.QUADRUPLE_TRANSPOSE, 0, () -> convertToQuadruples(matrixData.transpose()));
+  }
+
+  BigDecimal[][] bigDecimalTranspose() {
+    return view(View.BIGDECIMAL_TRANSPOSE, 0, () -> convertToBigDecimals(convertToQuadruples(matrixData.transpose())));
+  }
+
+  // The reference products are found from the data of the matrices the performers construct,
+  // which hold the same values for the same type and precision, whether scaled or not
+
+  /** The product of the matrix, as held by QuadrupleMatrix, by quadrupleSolution() */
+  Quadruple[] quadrupleVector() {
+    final Quadruple[] quadrupleSolution = quadrupleSolution();
+    return view(View.QUADRUPLE_VECTOR, 0, () -> multiply(quadrupleMatrixOfData(), quadrupleSolution));
+  }
+
+  /** The product of the matrix, as held by QuadrupleMatrix, by quadrupleMatrixX() */
+  Quadruple[][] quadrupleMatrixB() {
+    final Quadruple[][] quadrupleMatrixX = quadrupleMatrixX();
+    return view(View.QUADRUPLE_MATRIX_B, 0, () -> multiply(quadrupleMatrixOfData(), quadrupleMatrixX));
+  }
+
+  /** The product of the matrix, as held by BigDecimalMatrix constructed from doubles, by bigDecimalSolution() */
+  BigDecimal[] bigDecimalVector() {
+    final BigDecimal[] bigDecimalSolution = bigDecimalSolution();
+    final int precision = precision();
+    return view(View.BIGDECIMAL_VECTOR, precision, () -> multiply(bigDecimalMatrixOfData(precision), bigDecimalSolution));
+  }
+
+  /** The product of the matrix, as held by BigDecimalMatrix constructed from doubles, by bigDecimalMatrixX() */
+  BigDecimal[][] bigDecimalMatrixB() {
+    final BigDecimal[][] bigDecimalMatrixX = bigDecimalMatrixX();
+    final int precision = precision();
+    return view(View.BIGDECIMAL_MATRIX_B, precision, () -> multiply(bigDecimalMatrixOfData(precision), bigDecimalMatrixX));
+  }
+
+  /** The product of the matrix, as held by BigDecimalMatrix constructed from quadrupleMatrixData(), by exactBigDecimalSolution() */
+  BigDecimal[] exactBigDecimalVector() {
+    final BigDecimal[] bigDecimalSolution = exactBigDecimalSolution();
+    final Quadruple[][] quadrupleMatrixData = quadrupleMatrixData();
+    final int precision = precision();
+    return view(View.EXACT_BIGDECIMAL_VECTOR, precision, () ->
+        multiply(new BigDecimalMatrix(quadrupleMatrixData, false, precision).getBigDecimalData(), bigDecimalSolution));
+  }
+
+  /** The product of the matrix, as held by BigDecimalMatrix constructed from quadrupleMatrixData(), by exactBigDecimalMatrixX() */
+  BigDecimal[][] exactBigDecimalMatrixB() {
+    final BigDecimal[][] bigDecimalMatrixX = exactBigDecimalMatrixX();
+    final Quadruple[][] quadrupleMatrixData = quadrupleMatrixData();
+    final int precision = precision();
+    return view(View.EXACT_BIGDECIMAL_MATRIX_B, precision, () ->
+        multiply(new BigDecimalMatrix(quadrupleMatrixData, false, precision).getBigDecimalData(), bigDecimalMatrixX));
+  }
+
+  private Quadruple[][] quadrupleMatrixOfData() {
+    return new QuadrupleMatrix(matrixData.toArray(), false).getQuadrupleData();
+  }
+
+  private BigDecimal[][] bigDecimalMatrixOfData(int precision) {
+    return new BigDecimalMatrix(matrixData.toArray(), false, precision).getBigDecimalData();
+  }
+
+  // The expected condition numbers are found with the inverse of the matrix of the stored doubles,
+  // computed by BigDecimalMatrix with CONDITION_REFERENCE_PRECISION digits
+
+  /** The inverse of the matrix, with CONDITION_REFERENCE_PRECISION digits */
+  BigDecimal[][] referenceInverse() {
+    final Quadruple[][] quadrupleMatrixData = quadrupleMatrixData();
+    return view(View.REFERENCE_INVERSE, 0, () ->
+        new BigDecimalMatrix(quadrupleMatrixData, false, CONDITION_REFERENCE_PRECISION).inverse().getBigDecimalData());
+  }
+
+  /** The condition number in the infinity-norm, used by the cond() of QuadMatrix matrices */
+  double maxRowSumConditionNumber() {
+    final BigDecimal[][] inverse = referenceInverse();
+    return view(View.MAX_ROW_SUM_CONDITION_NUMBER, 0, () ->
+        ReferenceKernels.maxRowSumNorm(matrixData).multiply(ReferenceKernels.maxRowSumNorm(inverse)).doubleValue());
+  }
+
+  /** The condition number in the 2-norm, used by the cond() of Jama */
+  double spectralConditionNumber() {
+    final BigDecimal[][] inverse = referenceInverse();
+    return view(View.SPECTRAL_CONDITION_NUMBER, 0, () ->
+        ReferenceKernels.spectralNorm(matrixData) * ReferenceKernels.spectralNorm(FlatMatrix.of(convertToDoubles(inverse))));
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  protected void setMatrixData(FlatMatrix data) {
+    matrixData = data;
+    size = data.size();
+  }
+
+  /**
+   * Returns a new instance with the same input data as this one, not copied, and its own results.
+   * The operations do not modify the input data, so that several threads may perform them
+   * on the instances sharing the same data simultaneously
+   */
+  MatrixData shareInputs() {
+    final MatrixData data = new MatrixData();
+    data.purpose = purpose;
+    data.setMatrixData(matrixData);
+    data.solution = solution;
+    data.vector = vector;
+    data.matrixX = matrixX;
+    data.matrixB = matrixB;
+    data.scalar = scalar;
+    data.determinantFactors = determinantFactors;
+    data.determinant = determinant;
+    data.conditionNumber = conditionNumber;
+    data.views = views;
+    return data;
+  }
+
+  /** Sets the factors whose product is the determinant of the matrix, and computes the determinant exactly */
+  void setDeterminantFactors(double[] factors) {
+    determinantFactors = factors;
+    BigDecimal product = BigDecimal.ONE;
+    for (final double factor: factors)
+      product = product.multiply(new BigDecimal(factor));
+    determinant = product;
+  }
+
+  int getSize() {
+    return size;
+ }
+
+  /** The condition number of the matrix in the 2-norm, known by construction or found with the SVD of Jama */
+  double findConditionNumber() {
+    return conditionNumber > 0? conditionNumber : new Jama.Matrix(matrixData.toArray()).cond();
+  }
+
+  private void setConditionedMatrix(MatrixFamily family, int size, double conditionNumber) {
+    switch (family) {
+      case HILBERT_LIKE:
+        setMatrixData(randomHilbertLikeMatrix(size, conditionNumber));
+        break;
+      case VANDERMONDE_LIKE:
+        setMatrixData(randomVandermondeLikeMatrix(size, conditionNumber));
+        break;
+      case SPD_SPECTRUM:
+        final double[] eigenvalues = logUniformValues(size, conditionNumber);
+        setMatrixData(randomSpdMatrixWithEigenvalues(eigenvalues));
+        this.conditionNumber = eigenvalues[size - 1];
+        break;
+      default:
+        throw new IllegalArgumentException("Can't make a matrix of family " + family);
+    }
+  }
+
+  /** Random values spread log-uniformly from 1 to max, the first of them is 1 and the last is max, unless there is only one */
+  private static double[] logUniformValues(int count, double max) {
+    final double[] values = new double[count];
+    for (int i = 0; i < count; i++)
+      values[i] = Math.pow(max, randomValue(0, 1));
+    values[0] = 1;
+    values[count - 1] = count > 1? max : 1;
+    return values;
+  }
+
+  /** The precision of BigDecimalMatrix instances, taken from the PrecisionContext of the thread performing the operation */
+  private static int precision() {
+    return PrecisionContext.current().precision();
+  }
+
+  protected static String performerMethodName() {
+    final String s = new Exception().getStackTrace()[1].toString();
+    return s.replaceFirst("\\(.*\\)", "()").replaceFirst(".*\\.", "");
+  }
+
+  protected void checkPurpose(String methodName, Purpose impliedPurpose) {
+    if (this.purpose != impliedPurpose) {
+      throw new IllegalArgumentException(String.format(
+                  "Calling %s on MatrixData implies %s, while this instance was creted for %s",
+                  methodName, impliedPurpose, this.purpose));
+    }
+  }
+
+  public long  getTime() {
+    return time;
+  }
+
+  private double[][] unityMatrix() {
+    return unityMatrices.computeIfAbsent(size, MatrixDataGenerators::unityMatrix);
+  }
+
+  private Quadruple[][] quadrupleUnityMatrix() {
+    return quadrupleUnityMatrices.computeIfAbsent(size, MatrixDataGenerators::quadrupleUnityMatrix);
+  }
+
+  private BigDecimal[][] bigDecimalUnityMatrix() {
+    return bigDecimalUnityMatrices.computeIfAbsent(size, MatrixDataGenerators::bigDecimalUnityMatrix);
+  }
+
+  /** The matrix multiplied by the scalar element by element, every product rounded once */
+  private FlatMatrix scaledMatrix() {
+    final FlatMatrix result = new FlatMatrix(size);
+    final double[] source = matrixData.data(), target = result.data();
+    for (int i = 0; i < target.length; i++)
+      target[i] = source[i] * scalar;
+    return result;
+  }
+
+  /** The sum of the matrix and matrixX, every element rounded once */
+  private FlatMatrix matrixSum() {
+    final FlatMatrix result = new FlatMatrix(size);
+    final double[] a = matrixData.data(), b = matrixX.data(), target = result.data();
+    for (int i = 0; i < target.length; i++)
+      target[i] = a[i] + b[i];
+    return result;
+  }
+
+  // The products are computed by ReferenceKernels, in parallel for large matrices
+
+  private static double[][] multiply(FlatMatrix matrixA, double[][] matrixB) {
+    return ReferenceKernels.multiply(matrixA, matrixB);
+  }
+
+  protected static double[] multiply(FlatMatrix matrix, double[] vector) {
+    return ReferenceKernels.multiply(matrix, vector);
+  }
+
+  private static Quadruple[] multiply(Quadruple[][] matrix, Quadruple[] vector) {
+    return ReferenceKernels.multiply(matrix, vector);
+  }
+
+  private static BigDecimal[] multiply(BigDecimal[][] matrix, BigDecimal[] vector) {
+    return ReferenceKernels.multiply(matrix, vector, PrecisionContext.current().mathContext());
+  }
+
+  private static Quadruple[][] multiply(Quadruple[][] matrixA, Quadruple[][] matrixB) {
+    return ReferenceKernels.multiply(matrixA, matrixB);
+  }
+
+  private static BigDecimal[][] multiply(BigDecimal[][] matrixA, BigDecimal[][] matrixB) {
+    return ReferenceKernels.multiply(matrixA, matrixB);
+  }
+
 } // class MatrixData {
\ No newline at end of file
@@ -1,481 +1,893 @@
-/*
-
- Copyright 2021-2023 M.Vokhmentsev
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
- You may obtain a copy of the License at
-
-     http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
-
-*/
-
-package com.mvohm.quadmatrix.measurements;
-
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.util.Random;
-
-import com.mvohm.quadruple.Quadruple;
-
-/* Started 2022-01-27 16:56:11
- * An appliance to generate matrices and vectors of various kinds
- *
- */
-
-public class MatrixDataGenerators {
-
-  // Used to generate random SPD-matrices.
-  // The value is chosen to produce an SPD matrix with a reasonable condition number
-  private static final double SPD_FACTOR = 0.019401;
-
-
-  private static Random random = new Random(12345);
-
-  /** Set random seed to provide reproducibility */
-  public static void setRandomSeed(int seed) {
-    random = (seed < 0)? new Random() : new Random(seed);
-  }
-
-
-  public static void setRandomSeed(Random seedContainer) {
-    random = seedContainer;
-  }
-
-  /**
-   * A dense array filled with random values ranged from 0 to 1.0
-   * @param length
-   * @return
-   */
-  public static double[] randomVector(int length) {
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++)
-      result[i] = random.nextDouble();
-    return result;
-  }
-
-  /**
-   * A dense array filled with random values ranged from rangedFrom to rangedTo
-   * @param length
-   * @return
-   */
-  public static double[] randomVector(int length, double rangedFrom, double rangedTo) {
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++)
-      result[i] = randomRanged(rangedFrom, rangedTo);
-    return result;
-  }
-
-
-  /**
-   * A dense array filled with random values with gaussian distribution ranged from -1.0 to 1.0
-   * @param length
-   * @return
-   */
-  public static double[] randomGaussianVector(int length) {
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++)
-      result[i] = gaussianRandom(random);
-    return result;
-  }
-
-  public static double[] randomPowPlusLinearVector(int length, double power, double ratio) {
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++)
-      result[i] = randPowPlusLinear(random, power, ratio);
-    return result;
-  }
-
-  public static double[] randomSparseVector(int length, double density) {
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++) {
-      if (random.nextDouble() < density)
-        result[i] = randomRanged(-1, 1);
-      else
-        result[i] = 0;
-      }
-    return result;
-  }
-
-  public static double[] randomSparsePowPlusLinearVector(int length, double density, double power, double slope) {
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++) {
-      if (random.nextDouble() < density)
-        result[i] = randPowPlusLinear(random, power, slope);
-      else
-        result[i] = 0;
-      }
-    return result;
-  }
-
-  /**
-   * x * ratio + x^power * (1 - ratio)
-   * @param random
-   * @return
-   */
-  private static double randPowPlusLinear(Random random, double power, double slope) {
-    final double x = -1 + 2.0 * random.nextDouble(); // Ftom -1 to +1
-    final double y = x < 0? -Math.pow(-x, power) : Math.pow(x, power); // non-linear
-    return x * slope + y * (1 - slope);
-  }
-
-
-  public static double gaussianRandom(Random random) {
-    double r, x, y;
-
-    do {                               // find a uniform random point (x, y) inside unit circle
-       x = 2.0 * random.nextDouble() - 1.0;
-       y = 2.0 * random.nextDouble() - 1.0;
-       r = x*x + y*y;
-    } while (r > 1 || r == 0);         // loop executed 4 / pi = 1.273.. times on average
-                                       // http://en.wikipedia.org/wiki/Box-Muller_transform
-
-    // apply the Box-Muller formula to get standard Gaussian z
-//    return x * Math.sqrt(-2.0 * Math.log(r) / r) / 5;
-    return x * Math.sqrt(-2.0 * Math.log(r) / r) / 5;
-  }
-
-
-
-  /**
-   * @param rangedFrom
-   * @param rangedTo
-   * @return
-   */
-  private static double randomRanged(double rangedFrom, double rangedTo) {
-    return random.nextDouble() * (rangedTo - rangedFrom) + rangedFrom;
-  }
-
-  /**
-   * A dense matrix filled with random values in range (0.0, 1.0]
-   * @param size
-   * @return
-   */
-  public static double[][] randomMatrix(int size) {
-    final double[][] result = new double[size][];
-    for (int i = 0; i < size; i++)
-      result[i] = randomVector(size);
-    return result;
-  }
-
-  public static double[][] randomMatrix(int size, double rangedFrom, double rangedTo) {
-    final double[][] result = new double[size][];
-    for (int i = 0; i < size; i++)
-      result[i] = randomVector(size, rangedFrom, rangedTo);
-    return result;
-  }
-
-  public static double[][] randomGaussianMatrix(int size) {
-    final double[][] result = new double[size][];
-    for (int i = 0; i < size; i++)
-      result[i] = randomGaussianVector(size);
-    return result;
-  }
-
-  public static double[][] randomPowPlusLinearMatrix(int size, double power, double ratio) {
-    final double[][] result = new double[size][];
-    for (int i = 0; i < size; i++)
-      result[i] = randomPowPlusLinearVector(size, power, ratio);
-    return result;
-  }
-
-  public static double[][] randomSparseMatrix(int size, double density) {
-    final double[][] result = new double[size][];
-    for (int i = 0; i < size; i++)
-      result[i] = randomSparseVector(size, density);
-    return result;
-  }
-
-  public static double[][] randomSparsePowPlusLinearMatrix(int size, double density, double power, double slope) {
-    final double[][] result = new double[size][];
-    for (int i = 0; i < size; i++)
-      result[i] = randomSparsePowPlusLinearVector(size, density, power, slope);
-    return result;
-  }
-
-  public static double[][] randomSpdMatrix(int size, double rangedFrom, double rangedTo, double density) {
-    final double[][] matrix = new double[size][size];
-    final double[][] lower = new double[size][size];
-
-    // Fill lower triangle with random numbers
-    for (int i = 0; i < size; i++) {
-      for (int j  = 0; j < i; j++) {
-        if (density == 1.0)
-          lower[i][j] = randomRanged(rangedFrom, rangedTo);
-        else if (random.nextDouble() > density)
-          lower[i][j] = 0;
-        else
-          lower[i][j] = randomRanged(rangedFrom, rangedTo);
-      }
-      lower[i][i] = random.nextDouble();
-    }
-
-    // Cholesky decomposition backwards
-    for (int i = 0; i < size; i++) {
-      double sum2 = 0;
-
-      for (int j = 0; j < i; j++) {
-        double sum = 0;
-        for (int k = 0; k < j; k++)
-          sum += lower[i][k] * lower[j][k];
-
-        matrix[i][j] = matrix[j][i] = lower[i][j] * lower[j][j] + sum;
-        sum2 += lower[i][j] * lower[i][j];
-      }
-
-      final double dd = lower[i][i] * lower[i][i];
-      matrix[i][i] = sum2 + dd + SPD_FACTOR;
-    }
-    return matrix;
-  }
-
-
-  /**
-   * Element-wise multiplies vectors
-   * @param a
-   * @param b
-   * @return product
-   */
-  public static double[] multiplyElements(double[] a, double[] b) {
-    final int length = a.length;
-    final double[] result = new double[length];
-    for (int i = 0; i < length; i++)
-      result[i] = a[i] * b[i];
-    return result;
-  }
-
-  public static double[] multiply(double[][] matrix, double[] vector) {
-    final int length = matrix.length;
-    final double[] result = new double[length];
-    final double[] productRow = new double[length];
-    for (int i = 0; i < length; i++) {
-      if (matrix[i] == null || matrix[i].length != length)
-        throw new IllegalArgumentException("the matrix must be square and it's size must be equal to the vector's length");
-      for (int j = 0; j < length; j++) {
-        productRow[j] = matrix[i][j] * vector[j];
-      }
-      result[i] = sumOfVector(productRow);
-    }
-    return result;
-  }
-
-  // added 2022-12-24 11:23:55 to test solutions with respect of matrices
-  public static double[][] multiply(double[][] matrixA, double[][] matrixB) {
-    final int size = matrixA.length;
-    final double[][] product = new double[size][size];
-    final double[] vectorProduct = new double[size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++) {
-        for (int k = 0; k < size; k++) {
-          vectorProduct[k] = matrixA[i][k] * matrixB[k][j];
-        }
-        product[i][j] = sumOfVector(vectorProduct);
-      }
-    }
-    return product;
-  }
-
-  public static double[][] fastMultiply(double[][] matrixA, double[][] matrixB) {
-    final int size = matrixA.length;
-    final double[][] product = new double[size][size];
-    final double[] vectorProduct = new double[size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++) {
-        for (int k = 0; k < size; k++) {
-          vectorProduct[k] = matrixA[i][k] * matrixB[k][j];
-        }
-        product[i][j] = fastSumOfVector(vectorProduct); // Without sort
-      }
-    }
-    return product;
-  }
-
-  /**
-   * Computes the sum of the vector.
-   * Kahan summation after sorting by absolute values -- relatively fast while relatively accurate
-   * @param vector an array of doubles to sum
-   * @return the value of the sum
-   */
-  public static double sumOfVector(double[] vector) {
-    sortByAbs(vector) ;
-
-    double sum = 0.0;
-    double c = 0.0;
-    for (int i = 0; i < vector.length; i++) {
-      final double y = vector[i] - c;
-      final double t = sum + y;
-      c = (t - sum) - y;
-      sum = t;
-    }
-    return sum;
-  }
-
-  public static double fastSumOfVector(double[] vector) {
-    sortByAbs(vector) ;
-
-    double sum = 0.0;
-    double c = 0.0;
-    for (int i = 0; i < vector.length; i++) {
-      final double y = vector[i] - c;
-      final double t = sum + y;
-      c = (t - sum) - y;
-      sum = t;
-    }
-    return sum;
-  }
-
-  /**
-   * A QuickSort variation comparing items by absolute values
-   * Used by {@link #sumOfVector(double[])}
-   * @param vector
-   */
-  private static void sortByAbs(double[] vector) {
-    quickSortByAbs(vector, 0, vector.length - 1);
-  }
-
-  ///*************************************
-  // Taken from F:\.eclipse\Lopt\TestSorts\src\stackoverflow\QSortBenchmarks
-  // 2022-11-27 20:06:56
-  // Slightly improved 2022-11-28 19:16:39
-
-  private static void quickSortByAbs(double[] array, int lo, int hi) {
-    if (hi <= lo) return;
-    final int j = partitionByAbs(array, lo, hi);
-    quickSortByAbs(array, lo, j - 1);
-    quickSortByAbs(array, j + 1, hi);
-  }
-
-  private static int partitionByAbs(double[] array, int lo, int hi) {
-    int i = lo, j = hi + 1;
-    while (true) {
-      final double loValueAbs = Math.abs(array[lo]);
-      while (Math.abs(array[++i]) < loValueAbs)
-        if (i == hi) break;
-      while (loValueAbs < Math.abs(array[--j]))
-        if (j == lo) break;
-      if (i >= j) break;
-
-      final double tmp = array[i];
-      array[i] = array[j];
-      array[j] = tmp;
-    }
-
-    final double tmp = array[lo];
-    array[lo] = array[j];
-    array[j] = tmp;
-
-    return j;
-  }
-
-  //
-  //****************************************************
-
-
-  public static double[][] unityMatrix(int size) {
-    final double[][] result = new double[size][size];
-    for (int i = 0; i < size; i++) {
-      result[i][i] = 1.0;
-    }
-    return result;
-  }
-
-  public static Quadruple[][] quadrupleUnityMatrix(int size) {
-    final Quadruple[][] result = new Quadruple[size][size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++) {
-        if (i == j)
-          result[i][j] = Quadruple.one();
-        else
-          result[i][j] = new Quadruple();
-      }
-    }
-    return result;
-  }
-
-  public static BigDecimal[][] bigDecimalUnityMatrix(int size) {
-    final BigDecimal[][] result = new BigDecimal[size][size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++) {
-        if (i == j)
-          result[i][j] = BigDecimal.ONE;
-        else
-          result[i][j] = BigDecimal.ZERO;
-      }
-    }
-    return result;
-  }
-
-  public static double[] unityVector(int length) {
-    final double[] vector = new double[length];
-    for (int i = 0; i < length; i++) {
-      vector[i] = 1.0;
-    }
-    return vector;
-  }
-
-  public static double[][] subtractMatrices(double[][] minuend, double[][] subtrahend) {
-    final int size = minuend.length;
-    final double[][] result = new double[size][size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++)
-        result[i][j] = minuend[i][j] - subtrahend[i][j];
-    }
-    return result;
-  }
-
-  public static Quadruple[][] subtractMatrices(Quadruple[][] minuend, Quadruple[][] subtrahend) {
-    final int size = minuend.length;
-    final Quadruple[][] result = new Quadruple[size][size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++)
-        result[i][j] = Quadruple.subtract(minuend[i][j], subtrahend[i][j]);
-    }
-    return result;
-  }
-
-  public static BigDecimal[][] subtractMatrices(BigDecimal[][] minuend, BigDecimal[][] subtrahend, MathContext mc) {
-    final int size = minuend.length;
-    final BigDecimal[][] result = new BigDecimal[size][size];
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < size; j++)
-        result[i][j] = minuend[i][j].subtract(subtrahend[i][j], mc);
-    }
-    return result;
-  }
-
-  /**
-   * Finds the vector for the given matrix supposing that all the elements of the solution are 1.0
-   * @param matrixData
-   * @return
-   */
-  public static double[] findVector(double[][] matrixData) {
-    final int size = matrixData.length;
-    final double[] vector  = new double[size];
-    for (int i = 0; i < size; i++) {
-      vector[i] = sumOfVector(matrixData[i].clone()); // sumOfVector spoils the argument
-    }
-    return vector;
-  }
-
-  /**
-   * Finds the vector for the given matrix and the given solution
-   * @param matrixData
-   * @return
-   */
-  public static double[] findVector(double[][] matrixData, double[] roots) {
-    final int size = matrixData.length;
-    final double[] vector  = new double[size];
-    for (int i = 0; i < size; i++) {
-      final double[] product = multiplyElements(roots, matrixData[i]);
-      vector[i] = sumOfVector(product);
-    }
-    return vector;
-  }
-
-}
+/*
+
+ Copyright 2021-2023 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.mvohm.quadruple.Quadruple;
+
+/* Started 2022-01-27 16:56:11
+ * An appliance to generate matrices and vectors of various kinds
+ *
+ */
+
+public class MatrixDataGenerators {
+
+  // The number of iterations to find the greatest eigenvalue of a Hilbert-like matrix, enough for 3 correct digits
+  private static final int HILBERT_POWER_ITERATIONS = 50;
+
+  // Used to generate random SPD-matrices.
+  // The value is chosen to produce an SPD matrix with a reasonable condition number
+  private static final double SPD_FACTOR = 0.019401;
+
+
+  // Each thread has its own generator, so that the data sets generated by concurrently running
+  // testers do not depend on each other and remain reproducible
+  private static final ThreadLocal<Random> threadRandom = ThreadLocal.withInitial(() -> new Random(12345));
+
+  /** Set random seed to provide reproducibility. Affects only the current thread */
+  public static void setRandomSeed(int seed) {
+    threadRandom.set((seed < 0)? new Random() : new Random(seed));
+  }
+
+  /** Makes the current thread use the given generator */
+  public static void setRandomSeed(Random seedContainer) {
+    threadRandom.set(seedContainer);
+  }
+
+  private static Random random() {
+    return threadRandom.get();
+  }
+
+  /** Methods of accurate summation used to compute dot products, see {@link #setSummationMethod(SummationMethod)} */
+  public enum SummationMethod {
+    /** Kahan summation of the products sorted by absolute values, O(n log n) per dot product */
+    SORTED_KAHAN,
+    /** Compensated dot product by Ogita, Rump and Oishi (Dot2), as accurate as if computed with twice the double precision */
+    DOT2,
+  }
+
+  private static volatile SummationMethod summationMethod = SummationMethod.DOT2;
+
+  /** Tile sizes tried by {@link #autoTuneTileSize()} */
+  private static final int[] TILE_SIZES = {16, 32, 64, 128, 256};
+
+  // The size of square tiles used by tiledMultiply(). With 64, a tile of A and a tile of transposed B take 32 KB each
+  private static volatile int tileSize = 64;
+
+  /** Sets the method of summation used by multiply() and findVector(). Affects all threads */
+  public static void setSummationMethod(SummationMethod method) {
+    summationMethod = method;
+  }
+
+  public static SummationMethod getSummationMethod() {
+    return summationMethod;
+  }
+
+  /** Sets the size of the tiles used by {@link #tiledMultiply(double[][], double[][])}. Affects all threads */
+  public static void setTileSize(int size) {
+    if (size <= 0)
+      throw new IllegalArgumentException("The tile size must be positive");
+    tileSize = size;
+  }
+
+  public static int getTileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Finds the tile size that makes {@link #tiledMultiply(double[][], double[][])} the fastest on this machine,
+   * by multiplying random 512x512 matrices with each of the sizes from TILE_SIZES, and sets it.
+   * Takes a few seconds. Does not affect the random generator of the current thread.
+   * @return the found tile size
+   */
+  public static int autoTuneTileSize() {
+    final Random random = new Random(12345);
+    final FlatMatrix matrixA = new FlatMatrix(512), matrixB = new FlatMatrix(512);
+    for (int i = 0; i < 512 * 512; i++) {
+      matrixA.data()[i] = random.nextDouble() - 0.5;
+      matrixB.data()[i] = random.nextDouble() - 0.5;
+    }
+    int bestSize = tileSize;
+    long bestTime = Long.MAX_VALUE;
+    for (final int size: TILE_SIZES) {
+      long time = Long.MAX_VALUE;
+      for (int i = 0; i < 3; i++) { // The first run or two warm it up
+        final long start = System.nanoTime();
+        tiledMultiply(matrixA, matrixB, size);
+        time = Math.min(time, System.nanoTime() - start);
+      }
+      if (time < bestTime) {
+        bestTime = time;
+        bestSize = size;
+      }
+    }
+    tileSize = bestSize;
+    return bestSize;
+  }
+
+  /**
+   * A dense array filled with random values ranged from 0 to 1.0
+   * @param length
+   * @return
+   */
+  public static double[] randomVector(int length) {
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++)
+      result[i] = random().nextDouble();
+    return result;
+  }
+
+  /**
+   * A dense array filled with random values ranged from rangedFrom to rangedTo
+   * @param length
+   * @return
+   */
+  public static double[] randomVector(int length, double rangedFrom, double rangedTo) {
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++)
+      result[i] = randomRanged(rangedFrom, rangedTo);
+    return result;
+  }
+
+
+  /**
+   * A dense array filled with random values with gaussian distribution ranged from -1.0 to 1.0
+   * @param length
+   * @return
+   */
+  public static double[] randomGaussianVector(int length) {
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++)
+      result[i] = gaussianRandom(random());
+    return result;
+  }
+
+  public static double[] randomPowPlusLinearVector(int length, double power, double ratio) {
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++)
+      result[i] = randPowPlusLinear(random(), power, ratio);
+    return result;
+  }
+
+  public static double[] randomSparseVector(int length, double density) {
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++) {
+      if (random().nextDouble() < density)
+        result[i] = randomRanged(-1, 1);
+      else
+        result[i] = 0;
+      }
+    return result;
+  }
+
+  public static double[] randomSparsePowPlusLinearVector(int length, double density, double power, double slope) {
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++) {
+      if (random().nextDouble() < density)
+        result[i] = randPowPlusLinear(random(), power, slope);
+      else
+        result[i] = 0;
+      }
+    return result;
+  }
+
+  /**
+   * x * ratio + x^power * (1 - ratio)
+   * @param random
+   * @return
+   */
+  private static double randPowPlusLinear(Random random, double power, double slope) {
+    final double x = -1 + 2.0 * random.nextDouble(); // Ftom -1 to +1
+    final double y = x < 0? -Math.pow(-x, power) : Math.pow(x, power); // non-linear
+    return x * slope + y * (1 - slope);
+  }
+
+
+  public static double gaussianRandom(Random random) {
+    double r, x, y;
+
+    do {                               // find a uniform random point (x, y) inside unit circle
+       x = 2.0 * random.nextDouble() - 1.0;
+       y = 2.0 * random.nextDouble() - 1.0;
+       r = x*x + y*y;
+    } while (r > 1 || r == 0);         // loop executed 4 / pi = 1.273.. times on average
+                                       // http://en.wikipedia.org/wiki/Box-Muller_transform
+
+    // apply the Box-Muller formula to get standard Gaussian z
+//    return x * Math.sqrt(-2.0 * Math.log(r) / r) / 5;
+    return x * Math.sqrt(-2.0 * Math.log(r) / r) / 5;
+  }
+
+
+
+  /**
+   * @param rangedFrom
+   * @param rangedTo
+   * @return
+   */
+  private static double randomRanged(double rangedFrom, double rangedTo) {
+    return random().nextDouble() * (rangedTo - rangedFrom) + rangedFrom;
+  }
+
+  /** A random value ranged from rangedFrom to rangedTo */
+  public static double randomValue(double rangedFrom, double rangedTo) {
+    return randomRanged(rangedFrom, rangedTo);
+  }
+
+  /**
+   * A dense matrix filled with random values in range (0.0, 1.0]
+   * @param size
+   * @return
+   */
+  public static double[][] randomMatrix(int size) {
+    final double[][] result = new double[size][];
+    for (int i = 0; i < size; i++)
+      result[i] = randomVector(size);
+    return result;
+  }
+
+  public static double[][] randomMatrix(int size, double rangedFrom, double rangedTo) {
+    final double[][] result = new double[size][];
+    for (int i = 0; i < size; i++)
+      result[i] = randomVector(size, rangedFrom, rangedTo);
+    return result;
+  }
+
+  /** The same as {@link #randomMatrix(int, double, double)}, stored in a flat array. Takes the same random values */
+  public static FlatMatrix randomFlatMatrix(int size, double rangedFrom, double rangedTo) {
+    final FlatMatrix result = new FlatMatrix(size);
+    final double[] data = result.data();
+    for (int i = 0; i < data.length; i++)
+      data[i] = randomRanged(rangedFrom, rangedTo);
+    return result;
+  }
+
+  public static double[][] randomGaussianMatrix(int size) {
+    final double[][] result = new double[size][];
+    for (int i = 0; i < size; i++)
+      result[i] = randomGaussianVector(size);
+    return result;
+  }
+
+  public static double[][] randomPowPlusLinearMatrix(int size, double power, double ratio) {
+    final double[][] result = new double[size][];
+    for (int i = 0; i < size; i++)
+      result[i] = randomPowPlusLinearVector(size, power, ratio);
+    return result;
+  }
+
+  public static double[][] randomSparseMatrix(int size, double density) {
+    final double[][] result = new double[size][];
+    for (int i = 0; i < size; i++)
+      result[i] = randomSparseVector(size, density);
+    return result;
+  }
+
+  public static double[][] randomSparsePowPlusLinearMatrix(int size, double density, double power, double slope) {
+    final double[][] result = new double[size][];
+    for (int i = 0; i < size; i++)
+      result[i] = randomSparsePowPlusLinearVector(size, density, power, slope);
+    return result;
+  }
+
+  public static double[][] randomSpdMatrix(int size, double rangedFrom, double rangedTo, double density) {
+    final double[][] matrix = new double[size][size];
+    final double[][] lower = new double[size][size];
+
+    // Fill lower triangle with random numbers
+    for (int i = 0; i < size; i++) {
+      for (int j  = 0; j < i; j++) {
+        if (density == 1.0)
+          lower[i][j] = randomRanged(rangedFrom, rangedTo);
+        else if (random().nextDouble() > density)
+          lower[i][j] = 0;
+        else
+          lower[i][j] = randomRanged(rangedFrom, rangedTo);
+      }
+      lower[i][i] = random().nextDouble();
+    }
+
+    // Cholesky decomposition backwards
+    for (int i = 0; i < size; i++) {
+      double sum2 = 0;
+
+      for (int j = 0; j < i; j++) {
+        double sum = 0;
+        for (int k = 0; k < j; k++)
+          sum += lower[i][k] * lower[j][k];
+
+        matrix[i][j] = matrix[j][i] = lower[i][j] * lower[j][j] + sum;
+        sum2 += lower[i][j] * lower[i][j];
+      }
+
+      final double dd = lower[i][i] * lower[i][i];
+      matrix[i][i] = sum2 + dd + SPD_FACTOR;
+    }
+    return matrix;
+  }
+
+  /**
+   * A random matrix P * L * U whose determinant is known exactly.
+   * L is unit lower triangular, U is upper triangular, and P permutes the rows.
+   * All the entries of L and U are dyadic fractions with at most 11 significant bits,
+   * so that the entries of the product are computed without rounding errors.
+   * The off-diagonal ones are scaled down by about 1/sqrt(size), which keeps the condition number small.
+   * @param size the size of the matrix
+   * @param factors an array of the given size that receives the diagonal of U, with the first element negated
+   *        if P is an odd permutation, so that the determinant equals the product of its elements
+   * @return the generated matrix
+   */
+  public static FlatMatrix randomMatrixWithKnownDeterminant(int size, double[] factors) {
+    final double offDiagonalScale = Math.scalb(1.0, -(int)Math.ceil(Math.log(Math.sqrt(size)) / Math.log(2)));
+    final FlatMatrix lower = new FlatMatrix(size);
+    final FlatMatrix upper = new FlatMatrix(size);
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (j < i)
+          lower.set(i, j, randomDyadic() * offDiagonalScale);
+        else if (j > i)
+          upper.set(i, j, randomDyadic() * offDiagonalScale);
+      }
+      lower.set(i, i, 1.0);
+      final double diagonal = (768 + random().nextInt(768)) / 1024.0; // 0.75 .. 1.5
+      factors[i] = random().nextBoolean()? diagonal : -diagonal;
+      upper.set(i, i, factors[i]);
+    }
+
+    final FlatMatrix product = tiledMultiply(lower, upper);
+
+    // Shuffle the rows, every swap changes the sign of the determinant
+    final double[] row = new double[size];
+    final double[] data = product.data();
+    for (int i = size - 1; i > 0; i--) {
+      final int k = random().nextInt(i + 1);
+      if (k != i) {
+        System.arraycopy(data, product.rowOffset(i), row, 0, size);
+        System.arraycopy(data, product.rowOffset(k), data, product.rowOffset(i), size);
+        System.arraycopy(row, 0, data, product.rowOffset(k), size);
+        factors[0] = -factors[0];
+      }
+    }
+    return product;
+  }
+
+  /**
+   * A random matrix U * S * V with the given singular values S,
+   * where U and V are random Householder reflections, I - 2 * u * u^T with a random unit vector u.
+   * Its condition number in the 2-norm is the ratio of the greatest singular value to the smallest one.
+   * Takes O(size^2) operations.
+   * @param singularValues the singular values, all of them positive
+   * @return the generated matrix
+   */
+  public static FlatMatrix randomMatrixWithSingularValues(double[] singularValues) {
+    final int size = singularValues.length;
+    return reflect(randomUnitVector(size), singularValues, randomUnitVector(size));
+  }
+
+  /**
+   * A random symmetric positive-definite matrix H * D * H with the given eigenvalues D,
+   * where H is a random Householder reflection, see {@link #randomMatrixWithSingularValues(double[])}
+   * @param eigenvalues the eigenvalues, all of them positive
+   * @return the generated matrix
+   */
+  public static FlatMatrix randomSpdMatrixWithEigenvalues(double[] eigenvalues) {
+    final double[] u = randomUnitVector(eigenvalues.length);
+    final FlatMatrix result = reflect(u, eigenvalues, u);
+    // Rounding makes H(i, j) and H(j, i) differ in the last bits, while Cholesky decompositions require exact symmetry
+    for (int i = 0; i < result.size(); i++) {
+      for (int j = 0; j < i; j++)
+        result.set(i, j, result.get(j, i));
+    }
+    return result;
+  }
+
+  /**
+   * A random Hilbert-like matrix H + shift * I, where H(i, j) = 1 / (x(i) + x(j)), x(i) = i + 0.5 + a random value from 0 to 0.5.
+   * Like the Hilbert matrix, H is positive-definite and its smallest eigenvalue is negligible, so the shift,
+   * found from the greatest eigenvalue, makes the condition number of the matrix close to the given one.
+   * @param size the size of the matrix
+   * @param conditionNumber the required condition number in the 2-norm
+   * @return the generated matrix
+   */
+  public static FlatMatrix randomHilbertLikeMatrix(int size, double conditionNumber) {
+    final double[] x = new double[size];
+    for (int i = 0; i < size; i++)
+      x[i] = i + 0.5 + random().nextDouble() * 0.5;
+    final FlatMatrix result = new FlatMatrix(size);
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++)
+        result.set(i, j, 1.0 / (x[i] + x[j]));
+    }
+
+    // The greatest eigenvalue, by power iteration
+    final double[][] matrix = result.toArray();
+    double[] vector = new double[size];
+    Arrays.fill(vector, 1.0 / Math.sqrt(size));
+    double eigenvalue = 0;
+    for (int k = 0; k < HILBERT_POWER_ITERATIONS; k++) {
+      vector = multiply(matrix, vector);
+      double norm = 0;
+      for (final double v: vector)
+        norm += v * v;
+      eigenvalue = Math.sqrt(norm);
+      for (int i = 0; i < size; i++)
+        vector[i] /= eigenvalue;
+    }
+
+    // (eigenvalue + shift) / shift == conditionNumber
+    final double shift = eigenvalue / (conditionNumber - 1);
+    for (int i = 0; i < size; i++)
+      result.set(i, i, result.get(i, i) + shift);
+    return result;
+  }
+
+  /**
+   * A random Vandermonde-like matrix made of the values of polynomials at the Chebyshev nodes x(i) = cos(pi * (i + 0.5) / size).
+   * The first m columns are the powers x^j, and the rest are the Chebyshev polynomials T(j, x).
+   * With m = 0 the matrix is almost orthogonal, and its condition number grows with m as about (1 + sqrt(2))^m / 4,
+   * so m is chosen to make it close to the given one. The rows are shuffled and multiplied by random signs,
+   * which does not change the condition number.
+   * @param size the size of the matrix
+   * @param conditionNumber the required condition number in the 2-norm
+   * @return the generated matrix
+   */
+  public static FlatMatrix randomVandermondeLikeMatrix(int size, double conditionNumber) {
+    final int powerCount = (int)Math.max(0, Math.min(size,
+                                Math.round(Math.log(4 * conditionNumber) / Math.log(1 + Math.sqrt(2)))));
+    final int[] order = new int[size];
+    for (int i = 0; i < size; i++)
+      order[i] = i;
+    for (int i = size - 1; i > 0; i--) {
+      final int k = random().nextInt(i + 1);
+      final int t = order[i]; order[i] = order[k]; order[k] = t;
+    }
+
+    final FlatMatrix result = new FlatMatrix(size);
+    for (int i = 0; i < size; i++) {
+      final double x = Math.cos(Math.PI * (order[i] + 0.5) / size);
+      final double sign = random().nextBoolean()? 1 : -1;
+      for (int j = 0; j < size; j++)
+        result.set(i, j, sign * (j < powerCount? Math.pow(x, j) : Math.cos(j * Math.acos(x))));
+    }
+    return result;
+  }
+
+  /** Returns (I - 2uu^T) S (I - 2vv^T), where S is a diagonal matrix and u and v are unit vectors */
+  private static FlatMatrix reflect(double[] u, double[] singularValues, double[] v) {
+    final int size = singularValues.length;
+    // (I - 2uu^T) S (I - 2vv^T) = S - 2 (Sv) v^T - 2 u (u^T S) + 4 (u^T S v) u v^T
+    double uSv = 0;
+    for (int i = 0; i < size; i++)
+      uSv += u[i] * singularValues[i] * v[i];
+
+    final FlatMatrix result = new FlatMatrix(size);
+    final double[] data = result.data();
+    for (int i = 0; i < size; i++) {
+      final int offset = result.rowOffset(i);
+      final double sv = singularValues[i] * v[i];
+      for (int j = 0; j < size; j++) {
+        data[offset + j] = -2 * sv * v[j] - 2 * u[i] * u[j] * singularValues[j] + 4 * uSv * u[i] * v[j];
+      }
+      data[offset + i] += singularValues[i];
+    }
+    return result;
+  }
+
+  /** A random value from -1.0 to 1.0 - 1/1024 with at most 11 significant bits */
+  private static double randomDyadic() {
+    return (random().nextInt(2048) - 1024) / 1024.0;
+  }
+
+  private static double[] randomUnitVector(int length) {
+    final double[] result = randomVector(length, -1.0, 1.0);
+    double norm = 0;
+    for (final double v: result)
+      norm += v * v;
+    norm = Math.sqrt(norm);
+    for (int i = 0; i < length; i++)
+      result[i] /= norm;
+    return result;
+  }
+
+
+  /**
+   * Element-wise multiplies vectors
+   * @param a
+   * @param b
+   * @return product
+   */
+  public static double[] multiplyElements(double[] a, double[] b) {
+    final int length = a.length;
+    final double[] result = new double[length];
+    for (int i = 0; i < length; i++)
+      result[i] = a[i] * b[i];
+    return result;
+  }
+
+  public static double[] multiply(double[][] matrix, double[] vector) {
+    final int length = matrix.length;
+    final SummationMethod method = summationMethod;
+    final double[] result = new double[length];
+    final double[] productRow = new double[length];
+    for (int i = 0; i < length; i++) {
+      if (matrix[i] == null || matrix[i].length != length)
+        throw new IllegalArgumentException("the matrix must be square and it's size must be equal to the vector's length");
+      if (method == SummationMethod.DOT2) {
+        result[i] = dotProduct(matrix[i], vector);
+      } else {
+        for (int j = 0; j < length; j++) {
+          productRow[j] = matrix[i][j] * vector[j];
+        }
+        result[i] = sumOfVector(productRow);
+      }
+    }
+    return result;
+  }
+
+  // added 2022-12-24 11:23:55 to test solutions with respect of matrices
+  public static double[][] multiply(double[][] matrixA, double[][] matrixB) {
+    if (summationMethod == SummationMethod.DOT2) {
+      return tiledMultiply(matrixA, matrixB);
+    }
+    final int size = matrixA.length;
+    final double[][] product = new double[size][size];
+    final double[] vectorProduct = new double[size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        for (int k = 0; k < size; k++) {
+          vectorProduct[k] = matrixA[i][k] * matrixB[k][j];
+        }
+        product[i][j] = sumOfVector(vectorProduct);
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Multiplies the matrices using the compensated dot product (Dot2) regardless of the summation method.
+   * Does not sort and does not allocate anything but the result
+   */
+  public static double[][] fastMultiply(double[][] matrixA, double[][] matrixB) {
+    final int size = matrixA.length;
+    final double[][] product = new double[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        product[i][j] = dotProductRowByColumn(matrixA[i], matrixB, j);
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Multiplies the matrices using the compensated dot product (Dot2), like {@link #fastMultiply(double[][], double[][])},
+   * but reads the columns of B from a transposed copy, and goes over the matrices by square tiles of size
+   * {@link #getTileSize()}, so that the data being used remain in the cache.
+   * The partial sums and their errors are carried from one tile to the next one, and every element is summed
+   * in the same order as fastMultiply() does, so the results are exactly the same.
+   */
+  public static double[][] tiledMultiply(double[][] matrixA, double[][] matrixB) {
+    return tiledMultiply(FlatMatrix.of(matrixA), FlatMatrix.of(matrixB), tileSize).toArray();
+  }
+
+  /** The same as {@link #tiledMultiply(double[][], double[][])}, for matrices stored in flat arrays */
+  public static FlatMatrix tiledMultiply(FlatMatrix matrixA, FlatMatrix matrixB) {
+    return tiledMultiply(matrixA, matrixB, tileSize);
+  }
+
+  private static FlatMatrix tiledMultiply(FlatMatrix matrixA, FlatMatrix matrixB, int tileSize) {
+    final int size = matrixA.size();
+    final double[] a = matrixA.data();
+    final double[] transposedB = matrixB.transpose().data();
+    final FlatMatrix product = new FlatMatrix(size);
+    final double[] sums = product.data();
+    final double[] errors = new double[Math.min(tileSize, size) * size];
+
+    for (int i0 = 0; i0 < size; i0 += tileSize) {
+      final int iEnd = Math.min(i0 + tileSize, size);
+      Arrays.fill(errors, 0.0);
+      for (int k0 = 0; k0 < size; k0 += tileSize) {
+        final int kEnd = Math.min(k0 + tileSize, size);
+        for (int j0 = 0; j0 < size; j0 += tileSize) {
+          final int jEnd = Math.min(j0 + tileSize, size);
+          for (int i = i0; i < iEnd; i++) {
+            final int rowA = i * size;
+            for (int j = j0; j < jEnd; j++) {
+              final int columnB = j * size;
+              final int element = rowA + j;
+              final int errorElement = (i - i0) * size + j;
+              double sum = sums[element];
+              double error = errors[errorElement];
+              for (int k = k0; k < kEnd; k++) {
+                final double x = a[rowA + k], y = transposedB[columnB + k];
+                final double p = x * y;
+                final double productError = Math.fma(x, y, -p);
+                final double newSum = sum + p;
+                final double z = newSum - sum;
+                error += ((sum - (newSum - z)) + (p - z)) + productError;
+                sum = newSum;
+              }
+              sums[element] = sum;
+              errors[errorElement] = error;
+            }
+          }
+        }
+      }
+      for (int i = i0; i < iEnd; i++) {
+        for (int j = 0; j < size; j++) {
+          sums[i * size + j] += errors[(i - i0) * size + j];
+        }
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Computes the dot product of the vectors with the Dot2 algorithm (T. Ogita, S. M. Rump, S. Oishi,
+   * Accurate Sum and Dot Product, 2005). The products and the sums are computed with error-free transformations
+   * (TwoProduct with Math.fma() and TwoSum), and the errors are accumulated separately and added to the result,
+   * so that it is as accurate as if it were computed with twice the double precision and then rounded.
+   * Neither sorts nor spoils the arguments, and does not allocate memory.
+   * @param a the first vector
+   * @param b the second vector, of the same length
+   * @return the dot product of the vectors
+   */
+  public static double dotProduct(double[] a, double[] b) {
+    double sum = 0.0;
+    double error = 0.0;
+    for (int i = 0; i < a.length; i++) {
+      final double product = a[i] * b[i];
+      final double productError = Math.fma(a[i], b[i], -product);
+      final double newSum = sum + product;
+      final double z = newSum - sum;
+      error += ((sum - (newSum - z)) + (product - z)) + productError;
+      sum = newSum;
+    }
+    return sum + error;
+  }
+
+  /** Computes the dot product of the row and the column of the matrix with the given index with the Dot2 algorithm */
+  private static double dotProductRowByColumn(double[] row, double[][] matrix, int colIndex) {
+    double sum = 0.0;
+    double error = 0.0;
+    for (int k = 0; k < row.length; k++) {
+      final double factor = matrix[k][colIndex];
+      final double product = row[k] * factor;
+      final double productError = Math.fma(row[k], factor, -product);
+      final double newSum = sum + product;
+      final double z = newSum - sum;
+      error += ((sum - (newSum - z)) + (product - z)) + productError;
+      sum = newSum;
+    }
+    return sum + error;
+  }
+
+  /**
+   * Computes the sum of the vector with the Sum2 algorithm (Ogita, Rump, Oishi),
+   * as accurate as if it were computed with twice the double precision.
+   * Neither sorts nor spoils the argument.
+   * @param vector an array of doubles to sum
+   * @return the value of the sum
+   */
+  public static double compensatedSum(double[] vector) {
+    double sum = 0.0;
+    double error = 0.0;
+    for (int i = 0; i < vector.length; i++) {
+      final double newSum = sum + vector[i];
+      final double z = newSum - sum;
+      error += (sum - (newSum - z)) + (vector[i] - z);
+      sum = newSum;
+    }
+    return sum + error;
+  }
+
+  /**
+   * Computes the sum of the vector.
+   * Kahan summation after sorting by absolute values -- relatively fast while relatively accurate
+   * @param vector an array of doubles to sum
+   * @return the value of the sum
+   */
+  public static double sumOfVector(double[] vector) {
+    sortByAbs(vector) ;
+
+    double sum = 0.0;
+    double c = 0.0;
+    for (int i = 0; i < vector.length; i++) {
+      final double y = vector[i] - c;
+      final double t = sum + y;
+      c = (t - sum) - y;
+      sum = t;
+    }
+    return sum;
+  }
+
+  /**
+   * Computes the sum of the vector with Kahan summation, without sorting.
+   * @param vector an array of doubles to sum
+   * @return the value of the sum
+   */
+  public static double fastSumOfVector(double[] vector) {
+    double sum = 0.0;
+    double c = 0.0;
+    for (int i = 0; i < vector.length; i++) {
+      final double y = vector[i] - c;
+      final double t = sum + y;
+      c = (t - sum) - y;
+      sum = t;
+    }
+    return sum;
+  }
+
+  /**
+   * A QuickSort variation comparing items by absolute values
+   * Used by {@link #sumOfVector(double[])}
+   * @param vector
+   */
+  private static void sortByAbs(double[] vector) {
+    quickSortByAbs(vector, 0, vector.length - 1);
+  }
+
+  ///*************************************
+  // Taken from F:\.eclipse\Lopt\TestSorts\src\stackoverflow\QSortBenchmarks
+  // 2022-11-27 20:06:56
+  // Slightly improved 2022-11-28 19:16:39
+
+  private static void quickSortByAbs(double[] array, int lo, int hi) {
+    if (hi <= lo) return;
+    final int j = partitionByAbs(array, lo, hi);
+    quickSortByAbs(array, lo, j - 1);
+    quickSortByAbs(array, j + 1, hi);
+  }
+
+  private static int partitionByAbs(double[] array, int lo, int hi) {
+    int i = lo, j = hi + 1;
+    while (true) {
+      final double loValueAbs = Math.abs(array[lo]);
+      while (Math.abs(array[++i]) < loValueAbs)
+        if (i == hi) break;
+      while (loValueAbs < Math.abs(array[--j]))
+        if (j == lo) break;
+      if (i >= j) break;
+
+      final double tmp = array[i];
+      array[i] = array[j];
+      array[j] = tmp;
+    }
+
+    final double tmp = array[lo];
+    array[lo] = array[j];
+    array[j] = tmp;
+
+    return j;
+  }
+
+  //
+  //****************************************************
+
+
+  public static double[][] unityMatrix(int size) {
+    final double[][] result = new double[size][size];
+    for (int i = 0; i < size; i++) {
+      result[i][i] = 1.0;
+    }
+    return result;
+  }
+
+  public static Quadruple[][] quadrupleUnityMatrix(int size) {
+    final Quadruple[][] result = new Quadruple[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i == j)
+          result[i][j] = Quadruple.one();
+        else
+          result[i][j] = new Quadruple();
+      }
+    }
+    return result;
+  }
+
+  public static BigDecimal[][] bigDecimalUnityMatrix(int size) {
+    final BigDecimal[][] result = new BigDecimal[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i == j)
+          result[i][j] = BigDecimal.ONE;
+        else
+          result[i][j] = BigDecimal.ZERO;
+      }
+    }
+    return result;
+  }
+
+  public static double[] unityVector(int length) {
+    final double[] vector = new double[length];
+    for (int i = 0; i < length; i++) {
+      vector[i] = 1.0;
+    }
+    return vector;
+  }
+
+  public static double[][] subtractMatrices(double[][] minuend, double[][] subtrahend) {
+    final int size = minuend.length;
+    final double[][] result = new double[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++)
+        result[i][j] = minuend[i][j] - subtrahend[i][j];
+    }
+    return result;
+  }
+
+  public static Quadruple[][] subtractMatrices(Quadruple[][] minuend, Quadruple[][] subtrahend) {
+    final int size = minuend.length;
+    final Quadruple[][] result = new Quadruple[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++)
+        result[i][j] = Quadruple.subtract(minuend[i][j], subtrahend[i][j]);
+    }
+    return result;
+  }
+
+  public static BigDecimal[][] subtractMatrices(BigDecimal[][] minuend, BigDecimal[][] subtrahend, MathContext mc) {
+    final int size = minuend.length;
+    final BigDecimal[][] result = new BigDecimal[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++)
+        result[i][j] = minuend[i][j].subtract(subtrahend[i][j], mc);
+    }
+    return result;
+  }
+
+  /**
+   * Finds the vector for the given matrix supposing that all the elements of the solution are 1.0
+   * @param matrixData
+   * @return
+   */
+  public static double[] findVector(double[][] matrixData) {
+    final int size = matrixData.length;
+    final double[] vector  = new double[size];
+    final SummationMethod method = summationMethod;
+    for (int i = 0; i < size; i++) {
+      vector[i] = (method == SummationMethod.DOT2)
+          ? compensatedSum(matrixData[i])
+          : sumOfVector(matrixData[i].clone()); // sumOfVector spoils the argument
+    }
+    return vector;
+  }
+
+  /**
+   * Finds the vector for the given matrix and the given solution
+   * @param matrixData
+   * @return
+   */
+  public static double[] findVector(double[][] matrixData, double[] roots) {
+    final int size = matrixData.length;
+    final double[] vector  = new double[size];
+    final SummationMethod method = summationMethod;
+    for (int i = 0; i < size; i++) {
+      vector[i] = (method == SummationMethod.DOT2)
+          ? dotProduct(matrixData[i], roots)
+          : sumOfVector(multiplyElements(roots, matrixData[i]));
+    }
+    return vector;
+  }
+
+}
@@ -0,0 +1,237 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Combination;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the progress of a run at {@code http://localhost:PORT/metrics} in the Prometheus text format,
+ * so that a long run can be watched with the usual monitoring tools.
+ *
+ * The threads testing the combinations publish immutable {@link Progress} snapshots with {@link #update(Progress)}
+ * from time to time, outside of the timed regions, and report the finished combinations with {@link #finished(Combination, boolean)}.
+ * The requests are served by a thread of its own, which only formats the latest snapshots,
+ * so scraping does not add any work to the testing threads.
+ * The server listens on the loopback interface only.
+ *
+ * The percentiles are exported as Prometheus summaries, with the {@code quantile} labels and the {@code _sum} and {@code _count}
+ * series. The estimated remaining time is the one set by the budget schedule, if any; otherwise it is extrapolated
+ * from the mean wall-clock time the combinations measured so far took, so it is available in every mode of the run.
+ */
+public class MetricsServer implements Closeable {
+
+  private static final String PREFIX = "quadmatrix_";
+
+  /**
+   * The state of a combination being tested: the numbers of the iterations done and timed so far,
+   * the mean and the percentiles ({@link LogHistogram#PERCENTILES}) of the times, in nanoseconds, and of the MSEs
+   */
+  public record Progress(Combination combination, int iterations, int timedIterations,
+                         double meanTime, double[] timePercentiles, double meanMse, double[] msePercentiles) {}
+
+  private final HttpServer server;
+  private final long startTime = System.currentTimeMillis();
+
+  /** The combinations being tested now */
+  private final Map<Combination, Progress> current = new ConcurrentHashMap<>();
+  private final AtomicInteger completedCount = new AtomicInteger();
+  /** The completed combinations that were actually tested, not restored from a journal or skipped */
+  private final AtomicInteger measuredCount = new AtomicInteger();
+  private volatile int totalCount;
+  /** The estimated time until the end of the run set by the budget schedule, or -1 if unknown */
+  private volatile long estimatedRemainingMs = -1;
+
+  private MetricsServer(int port) throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext("/metrics", this::handle);
+    server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+      final Thread thread = new Thread(r, "MetricsServer");
+      thread.setDaemon(true);
+      return thread;
+    }));
+  }
+
+  /** Starts serving the metrics on the given port of the loopback interface */
+  public static MetricsServer start(int port) throws IOException {
+    final MetricsServer metricsServer = new MetricsServer(port);
+    metricsServer.server.start();
+    return metricsServer;
+  }
+
+  /** The port the server listens on */
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  /** Sets the number of the combinations to test in the run */
+  public void setTotalCount(int totalCount) {
+    this.totalCount = totalCount;
+  }
+
+  public void setEstimatedRemainingMs(long estimatedRemainingMs) {
+    this.estimatedRemainingMs = estimatedRemainingMs;
+  }
+
+  /** Replaces the previous snapshot of the combination */
+  public void update(Progress progress) {
+    current.put(progress.combination(), progress);
+  }
+
+  /**
+   * Removes the combination from the current ones and counts it as completed.
+   * {@code measured} is false for the combinations restored from a journal or skipped,
+   * which take no time and are not counted in the estimate of the remaining time
+   */
+  public void finished(Combination combination, boolean measured) {
+    current.remove(combination);
+    if (measured) {
+      measuredCount.incrementAndGet();
+    }
+    completedCount.incrementAndGet();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private void handle(HttpExchange exchange) throws IOException {
+    final byte[] body = format().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(body);
+    }
+  }
+
+  /** Formats all the metrics in the Prometheus text exposition format */
+  String format() {
+    final StringBuilder sb = new StringBuilder();
+    metric(sb, "combinations", "The number of combinations to test in the run");
+    sb.append(PREFIX).append("combinations ").append(totalCount).append('\n');
+    metric(sb, "completed_combinations", "The number of combinations already tested");
+    sb.append(PREFIX).append("completed_combinations ").append(completedCount.get()).append('\n');
+    metric(sb, "elapsed_seconds", "The time since the beginning of the run");
+    sb.append(PREFIX).append("elapsed_seconds ").append((System.currentTimeMillis() - startTime) * 1e-3).append('\n');
+    final long remainingMs = estimatedRemainingMs >= 0? estimatedRemainingMs: extrapolatedRemainingMs();
+    if (remainingMs >= 0) {
+      metric(sb, "remaining_seconds", "The estimated time until the end of the run");
+      sb.append(PREFIX).append("remaining_seconds ").append(remainingMs * 1e-3).append('\n');
+    }
+
+    final Progress[] snapshots = current.values().toArray(new Progress[0]);
+    metric(sb, "iterations", "The iterations of the combination done so far");
+    for (final Progress p: snapshots) {
+      sample(sb, "iterations", p, null, p.iterations());
+    }
+    metric(sb, "timed_iterations", "The iterations of the combination timed so far, after the warmup");
+    for (final Progress p: snapshots) {
+      sample(sb, "timed_iterations", p, null, p.timedIterations());
+    }
+    metric(sb, "time_mean_seconds", "The mean time of the timed iterations");
+    for (final Progress p: snapshots) {
+      sample(sb, "time_mean_seconds", p, null, p.meanTime() * 1e-9);
+    }
+    metric(sb, "time_seconds", "The percentiles of the times of the timed iterations", "summary");
+    for (final Progress p: snapshots) {
+      for (int i = 0; i < LogHistogram.PERCENTILES.length; i++) {
+        sample(sb, "time_seconds", p, LogHistogram.PERCENTILES[i], p.timePercentiles()[i] * 1e-9);
+      }
+      sample(sb, "time_seconds_sum", p, null, p.timedIterations() == 0? 0: p.meanTime() * p.timedIterations() * 1e-9);
+      sample(sb, "time_seconds_count", p, null, p.timedIterations());
+    }
+    metric(sb, "mse_mean", "The mean of the MSEs of the iterations");
+    for (final Progress p: snapshots) {
+      sample(sb, "mse_mean", p, null, p.meanMse());
+    }
+    metric(sb, "mse", "The percentiles of the MSEs of the iterations", "summary");
+    for (final Progress p: snapshots) {
+      for (int i = 0; i < LogHistogram.PERCENTILES.length; i++) {
+        sample(sb, "mse", p, LogHistogram.PERCENTILES[i], p.msePercentiles()[i]);
+      }
+      sample(sb, "mse_sum", p, null, p.iterations() == 0? 0: p.meanMse() * p.iterations());
+      sample(sb, "mse_count", p, null, p.iterations());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * The time the rest of the combinations would take at the mean wall-clock time per combination tested so far
+   * (which accounts for the workers running in parallel), or -1 if none has been tested yet
+   */
+  private long extrapolatedRemainingMs() {
+    final int measured = measuredCount.get();
+    if (measured == 0) {
+      return -1;
+    }
+    final long elapsedMs = System.currentTimeMillis() - startTime;
+    return Math.round((double)elapsedMs / measured * Math.max(0, totalCount - completedCount.get()));
+  }
+
+  private static void metric(StringBuilder sb, String name, String help) {
+    metric(sb, name, help, "gauge");
+  }
+
+  private static void metric(StringBuilder sb, String name, String help, String type) {
+    sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+  }
+
+  /** Appends a sample labelled with the combination and the quantile, if any */
+  private static void sample(StringBuilder sb, String name, Progress progress, Double percent, double value) {
+    final Combination combination = progress.combination();
+    sb.append(PREFIX).append(name)
+      .append("{operation=\"").append(combination.operation())
+      .append("\",matrix_type=\"").append(combination.matrixType())
+      .append("\",size=\"").append(combination.size()).append('"');
+    if (percent != null) {
+      sb.append(",quantile=\"").append(BigDecimal.valueOf(percent).movePointLeft(2).stripTrailingZeros().toPlainString()).append('"');
+    }
+    sb.append("} ").append(formatValue(value)).append('\n');
+  }
+
+  /** Prometheus spells the special values as NaN, +Inf and -Inf */
+  private static String formatValue(double value) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    } else if (Double.isInfinite(value)) {
+      return value > 0? "+Inf": "-Inf";
+    }
+    return Double.toString(value);
+  }
+
+}
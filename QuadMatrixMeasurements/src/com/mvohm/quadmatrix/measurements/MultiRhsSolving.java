@@ -0,0 +1,336 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.mvohm.quadmatrix.BigDecimalMatrix;
+import com.mvohm.quadmatrix.DoubleMatrix;
+import com.mvohm.quadmatrix.Matrix;
+import com.mvohm.quadmatrix.QuadrupleMatrix;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.MatrixTypes;
+import com.mvohm.quadruple.Quadruple;
+
+import Jama.LUDecomposition;
+
+/**
+ * Measures the cost of solving many systems with the same matrix and different vectors,
+ * when the decomposition of the matrix, found by the first solution, is reused by the following ones.
+ *
+ * For every data set, a matrix is constructed (untimed), then {@code rhsCount} vectors are solved with it, one by one,
+ * with {@code solve()} or {@code solveAccurately()}. The time of the first solution includes the decomposition,
+ * the following ones reuse it (QuadMatrix matrices keep their decompositions, with Jama an LUDecomposition is kept).
+ * The solutions are the columns of the matrix X of a data set for matrix solutions, used in turn if rhsCount exceeds the size,
+ * and the vectors are computed in the precision of the matrix, as the performers in {@link MatrixData} do.
+ *
+ * For comparison, the matrix equation AX = B is solved on another matrix, with B made of the same {@code rhsCount} vectors
+ * as its columns, so that both ways solve the same systems, and the cost of the matrix solution per column
+ * is compared with the average cost of a vector solution.
+ */
+public class MultiRhsSolving {
+
+  /**
+   * The mean times, in nanoseconds, of the first vector solution, of a following one, and of the matrix solution,
+   * and the MSE of all the vector solutions
+   */
+  public record Result(long count, int size, int rhsCount,
+                       double firstSolveTime, double nextSolveTime, double matrixSolveTime, double mse) {
+
+    /** The mean time of a vector solution, when rhsCount of them reuse the decomposition */
+    public double timePerRhs() {
+      return (firstSolveTime + (rhsCount - 1) * nextSolveTime) / rhsCount;
+    }
+
+    /** The time of the matrix solution divided by the number of its columns, which is rhsCount */
+    public double matrixSolveTimePerColumn() {
+      return matrixSolveTime / rhsCount;
+    }
+
+    /**
+     * The number of vectors to solve with the same matrix one by one, so that the average time of a solution
+     * is not greater than the time per column of the matrix solution with rhsCount columns.
+     * Infinity if the following solutions are not cheaper than the matrix solution per column
+     */
+    public double breakEvenCount() {
+      final double perColumn = matrixSolveTimePerColumn();
+      if (firstSolveTime <= perColumn) {
+        return 1;
+      } else if (nextSolveTime >= perColumn) {
+        return Double.POSITIVE_INFINITY;
+      }
+      return Math.ceil((firstSolveTime - nextSolveTime) / (perColumn - nextSolveTime));
+    }
+  }
+
+  private final MatrixTypes matrixType;
+  private final boolean accurately;
+  private final int size;
+  private final int rhsCount;
+  private final Random random;
+
+  public MultiRhsSolving(MatrixTypes matrixType, boolean accurately, int size, int rhsCount, long seed) {
+    this.matrixType = matrixType;
+    this.accurately = accurately;
+    this.size = size;
+    this.rhsCount = rhsCount;
+    this.random = new Random(seed);
+  }
+
+  /** Jama can only solve without refinement */
+  public static boolean isSupported(MatrixTypes matrixType, boolean accurately) {
+    return !(accurately && matrixType == MatrixTypes.JAMA);
+  }
+
+  /** Solves the systems for warmupMs milliseconds, and then for measureMs milliseconds, but at least minIterations times */
+  public Result measure(long warmupMs, long measureMs, int minIterations) {
+    final long warmupEnd = System.currentTimeMillis() + warmupMs;
+    while (System.currentTimeMillis() < warmupEnd) {
+      solveAll(new ErrorAccumulator());
+    }
+
+    final RunningStatistics firstSolveStatistics = new RunningStatistics();
+    final RunningStatistics nextSolveStatistics = new RunningStatistics();
+    final RunningStatistics matrixSolveStatistics = new RunningStatistics();
+    final ErrorAccumulator errors = new ErrorAccumulator();
+    final long measureEnd = System.currentTimeMillis() + measureMs;
+    while (System.currentTimeMillis() < measureEnd || firstSolveStatistics.count() < minIterations) {
+      final long[] times = solveAll(errors);
+      firstSolveStatistics.add(times[0]);
+      for (int k = 1; k < rhsCount; k++) {
+        nextSolveStatistics.add(times[k]);
+      }
+      matrixSolveStatistics.add(times[rhsCount]);
+    }
+    return new Result(firstSolveStatistics.count(), size, rhsCount,
+                      firstSolveStatistics.mean(),
+                      nextSolveStatistics.count() > 0? nextSolveStatistics.mean(): Double.NaN,
+                      matrixSolveStatistics.mean(), errors.getErrors().mse());
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  /**
+   * Solves rhsCount vectors with a matrix made of a new data set, and then the matrix equation with another matrix.
+   * Returns the times of the vector solutions followed by the time of the matrix solution
+   */
+  private long[] solveAll(ErrorAccumulator errors) {
+    final MatrixData data = MatrixData.makeDataSetForMatrixSolutions(size, random);
+    final Solver solver = makeSolver(data);
+    final long[] times = new long[rhsCount + 1];
+    for (int k = 0; k < rhsCount; k++) {
+      final long start = System.nanoTime();
+      solver.solveVector(k % size);
+      times[k] = System.nanoTime() - start;
+      solver.addErrors(k % size, errors);
+    }
+    final long start = System.nanoTime();
+    solver.solveMatrix();
+    times[rhsCount] = System.nanoTime() - start;
+    return times;
+  }
+
+  private Solver makeSolver(MatrixData data) {
+    switch (matrixType) {
+      case JAMA:              return new JamaSolver(data, rhsCount);
+      case DOUBLE_MATRIX:     return new DoubleSolver(data, accurately, rhsCount);
+      case QUADRUPLE_MATRIX:  return new QuadrupleSolver(data, accurately, rhsCount);
+      default:                return new BigDecimalSolver(data, accurately, rhsCount);
+    }
+  }
+
+  /** Makes a matrix of the given number of columns, which are the given vectors, used in turn if there are less of them */
+  private static double[][] matrixOfColumns(double[][] vectors, int columnCount) {
+    final double[][] result = new double[vectors[0].length][columnCount];
+    for (int i = 0; i < result.length; i++) {
+      for (int j = 0; j < columnCount; j++) {
+        result[i][j] = vectors[j % vectors.length][i];
+      }
+    }
+    return result;
+  }
+
+  private static <T> T[][] matrixOfColumns(T[][] vectors, int columnCount) {
+    final T[][] result = Arrays.copyOf(vectors, vectors[0].length);
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Arrays.copyOf(vectors[0], columnCount);
+      for (int j = 0; j < columnCount; j++) {
+        result[i][j] = vectors[j % vectors.length][i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Keeps a matrix to solve the vectors with, another one to solve the matrix equation, and the data in their type.
+   * The columns of the matrix B are the vectors, so they are computed in the same precision
+   */
+  private abstract static class Solver {
+    /** Solves the system with the given column of B and the same matrix as the previous calls */
+    abstract void solveVector(int column);
+    /** Adds the errors of the latest solution, compared to the given column of X. Getting the solution is not timed */
+    abstract void addErrors(int column, ErrorAccumulator errors);
+    /** Solves AX = B on the other matrix */
+    abstract void solveMatrix();
+  }
+
+  private static class JamaSolver extends Solver {
+    private final double[][] solutions, vectors;
+    private final Jama.Matrix matrix, otherMatrix, matrixB;
+    private LUDecomposition decomposition;
+    private Jama.Matrix solution;
+
+    JamaSolver(MatrixData data, int rhsCount) {
+      solutions = data.matrixX.transpose().toArray();
+      vectors = data.matrixB.transpose().toArray();
+      matrix = new Jama.Matrix(data.matrixData.toArray());
+      otherMatrix = new Jama.Matrix(data.matrixData.toArray());
+      matrixB = new Jama.Matrix(matrixOfColumns(vectors, rhsCount));
+    }
+
+    @Override
+    void solveVector(int column) {
+      if (decomposition == null) {
+        decomposition = new LUDecomposition(matrix);
+      }
+      solution = decomposition.solve(new Jama.Matrix(vectors[column], vectors[column].length));
+    }
+
+    @Override
+    void addErrors(int column, ErrorAccumulator errors) {
+      errors.add(solutions[column], solution.getColumnPackedCopy());
+    }
+
+    @Override
+    void solveMatrix() {
+      otherMatrix.solve(matrixB);
+    }
+  }
+
+  private static class DoubleSolver extends Solver {
+    private final boolean accurately;
+    private final double[][] solutions, vectors;
+    private final Matrix matrix, otherMatrix;
+    private final double[][] matrixB;
+
+    DoubleSolver(MatrixData data, boolean accurately, int rhsCount) {
+      this.accurately = accurately;
+      solutions = data.matrixX.transpose().toArray();
+      vectors = data.matrixB.transpose().toArray();
+      matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      otherMatrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      matrixB = matrixOfColumns(vectors, rhsCount);
+    }
+
+    @Override
+    void solveVector(int column) {
+      if (accurately) matrix.solveAccurately(vectors[column]); else matrix.solve(vectors[column]);
+    }
+
+    @Override
+    void addErrors(int column, ErrorAccumulator errors) {
+      errors.add(solutions[column], matrix.getDoubleSolution());
+    }
+
+    @Override
+    void solveMatrix() {
+      if (accurately) otherMatrix.solveAccurately(matrixB); else otherMatrix.solve(matrixB);
+    }
+  }
+
+  private static class QuadrupleSolver extends Solver {
+    private final boolean accurately;
+    private final Quadruple[][] solutions, vectors;
+    private final Matrix matrix, otherMatrix;
+    private final Quadruple[][] matrixB;
+
+    QuadrupleSolver(MatrixData data, boolean accurately, int rhsCount) {
+      this.accurately = accurately;
+      matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      otherMatrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      final Quadruple[][] matrixA = matrix.getQuadrupleData();
+      solutions = convertToQuadruples(data.matrixX.transpose());
+      vectors = new Quadruple[solutions.length][];
+      for (int i = 0; i < solutions.length; i++) {
+        vectors[i] = ReferenceKernels.multiply(matrixA, solutions[i]);
+      }
+      matrixB = matrixOfColumns(vectors, rhsCount);
+    }
+
+    @Override
+    void solveVector(int column) {
+      if (accurately) matrix.solveAccurately(vectors[column]); else matrix.solve(vectors[column]);
+    }
+
+    @Override
+    void addErrors(int column, ErrorAccumulator errors) {
+      errors.add(solutions[column], matrix.getQuadrupleSolution());
+    }
+
+    @Override
+    void solveMatrix() {
+      if (accurately) otherMatrix.solveAccurately(matrixB); else otherMatrix.solve(matrixB);
+    }
+  }
+
+  private static class BigDecimalSolver extends Solver {
+    private final boolean accurately;
+    private final MathContext mc;
+    private final BigDecimal[][] solutions, vectors;
+    private final Matrix matrix, otherMatrix;
+    private final BigDecimal[][] matrixB;
+
+    BigDecimalSolver(MatrixData data, boolean accurately, int rhsCount) {
+      this.accurately = accurately;
+      final PrecisionContext context = PrecisionContext.current();
+      mc = context.mathContext();
+      matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, context.precision());
+      otherMatrix = new BigDecimalMatrix(data.matrixData.toArray(), true, context.precision());
+      final BigDecimal[][] matrixA = matrix.getBigDecimalData();
+      solutions = convertToBigDecimals(data.matrixX.transpose());
+      vectors = new BigDecimal[solutions.length][];
+      for (int i = 0; i < solutions.length; i++) {
+        vectors[i] = ReferenceKernels.multiply(matrixA, solutions[i], mc);
+      }
+      matrixB = matrixOfColumns(vectors, rhsCount);
+    }
+
+    @Override
+    void solveVector(int column) {
+      if (accurately) matrix.solveAccurately(vectors[column]); else matrix.solve(vectors[column]);
+    }
+
+    @Override
+    void addErrors(int column, ErrorAccumulator errors) {
+      errors.add(solutions[column], matrix.getBigDecimalSolution(), null);
+    }
+
+    @Override
+    void solveMatrix() {
+      if (accurately) otherMatrix.solveAccurately(matrixB); else otherMatrix.solve(matrixB);
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event spanning the timed region of a single tested operation, see {@link ResourceMeter}.
+ * Its duration is the measured time of the operation.
+ *
+ * It is recorded when CollectStatistics is started with {@code --jfr},
+ * or when a recording with this event enabled is started by other means, e.g. with {@code -XX:StartFlightRecording}.
+ */
+@Name("com.mvohm.quadmatrix.Operation")
+@Label("Tested Operation")
+@Category("QuadMatrix Measurements")
+@Description("The timed region of an operation performed by CollectStatistics")
+@StackTrace(false)
+public class OperationEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Matrix Type")
+  String matrixType;
+
+  @Label("Size")
+  int size;
+
+  @Label("Iteration")
+  @Description("The number of the trial of this combination, starting from 1")
+  int iteration;
+
+}
@@ -0,0 +1,637 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+
+import com.mvohm.quadmatrix.BigDecimalMatrix;
+import com.mvohm.quadmatrix.DoubleMatrix;
+import com.mvohm.quadmatrix.QuadrupleMatrix;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.MatrixTypes;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Operations;
+import com.mvohm.quadruple.Quadruple;
+
+import Jama.CholeskyDecomposition;
+
+/**
+ * For each operation type and matrix type, stores the method that prepares a call to the library
+ * exactly as the corresponding performer in {@link MatrixData} does.
+ * The preparation is done in two steps: a {@link KernelMaker} finds the operands and the references
+ * they are computed from once for a data set, and the {@link MatrixMaker} it returns makes only a new matrix
+ * and returns a {@link Kernel} that performs only the call timed by that performer.
+ * The table mirrors {@code CollectStatistics.performers}.
+ * The kernels are used by {@link ThroughputScaling} and by the JMH benchmarks.
+ */
+class OperationKernels {
+
+  /**
+   * Performs the library call under test and returns its result, or the matrix holding it,
+   * for the caller to consume. Everything it needs is prepared by a {@link MatrixMaker}.
+   */
+  interface Kernel {
+    Object run();
+  }
+
+  /**
+   * Makes a new matrix for a {@link Kernel} from the data set. The operands are prepared beforehand
+   * by the {@link KernelMaker}, so it takes O(n^2) time even for the operands found by multiplications.
+   */
+  interface MatrixMaker {
+    Kernel make();
+  }
+
+  /** Prepares the operands of the call for a data set, outside of the measured region. */
+  interface KernelMaker {
+    MatrixMaker prepare(MatrixData data);
+  }
+
+  static final HashMap<Operations, HashMap<MatrixTypes, KernelMaker>> kernelMakers = new HashMap<>() {{
+    put(Operations.SIMPLE_VECTOR_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaLuSolution);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleLuSolutionWithScaling);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleLuSolutionWithScaling);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalLuSolutionWithScaling);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalLuSolutionWithScaling);
+    }});
+    put(Operations.ACCURATE_VECTOR_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleAccurateLUSolutionWithScaling);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleAccurateLUSolutionWithScaling);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalAccurateLUSolutionWithScaling);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalAccurateLUSolutionWithScaling);
+    }});
+    put(Operations.SIMPLE_SPD_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaSpdSolution);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleSpdSolution);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleSPDSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalSPDSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalSPDSolution);
+    }});
+    put(Operations.ACCURATE_SPD_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleAccurateSPDSolution);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleAccurateSPDSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalAccurateSPDSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalAccurateSPDSolution);
+    }});
+    put(Operations.SIMPLE_MATRIX_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaMatrixSolution);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleMatrixSolution);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleMatrixSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalMatrixSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalMatrixSolution);
+    }});
+    put(Operations.ACCURATE_MATRIX_SOLUTION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleAccurateMatrixSolution);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleAccurateMatrixSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalAccurateMatrixSolution);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalAccurateMatrixSolution);
+    }});
+    put(Operations.SIMPLE_INVERSION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaMatrixInversion);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleMatrixInversion);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleMatrixInversion);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalMatrixInversion);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalMatrixInversion);
+    }});
+    put(Operations.ACCURATE_INVERSION, new HashMap<>() {{
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleAccurateMatrixInversion);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleAccurateMatrixInversion);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalAccurateMatrixInversion);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalAccurateMatrixInversion);
+    }});
+    put(Operations.MULTIPLICATION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaMultiplication);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleMultiplication);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleMultiplication);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalMultiplication);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalMultiplication);
+    }});
+    put(Operations.TRANSPOSITION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaTransposition);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleTransposition);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleTransposition);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalTransposition);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalTransposition);
+    }});
+    put(Operations.DETERMINANT, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaDeterminant);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleDeterminant);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleDeterminant);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalDeterminant);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalDeterminant);
+    }});
+    put(Operations.VECTOR_MULTIPLICATION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaVectorMultiplication);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleVectorMultiplication);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleVectorMultiplication);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalVectorMultiplication);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalVectorMultiplication);
+    }});
+    put(Operations.SCALAR_MULTIPLICATION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaScalarMultiplication);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleScalarMultiplication);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleScalarMultiplication);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalScalarMultiplication);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalScalarMultiplication);
+    }});
+    put(Operations.ADDITION, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaAddition);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleAddition);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleAddition);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalAddition);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalAddition);
+    }});
+    put(Operations.CONDITION_NUMBER, new HashMap<>() {{
+      put(MatrixTypes.JAMA,                 OperationKernels::jamaConditionNumber);
+      put(MatrixTypes.DOUBLE_MATRIX,        OperationKernels::doubleConditionNumber);
+      put(MatrixTypes.QUADRUPLE_MATRIX,     OperationKernels::quadrupleConditionNumber);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_40, OperationKernels::bigDecimalConditionNumber);
+      put(MatrixTypes.BIGDECIMAL_MATRIX_80, OperationKernels::bigDecimalConditionNumber);
+    }});
+  }};
+
+  /** Returns the kernel maker for the given combination, or {@code null} if the combination is not implemented */
+  static KernelMaker kernelMaker(Operations operation, MatrixTypes matrixType) {
+    final HashMap<MatrixTypes, KernelMaker> kernelTable = kernelMakers.get(operation);
+    return kernelTable == null? null: kernelTable.get(matrixType);
+  }
+
+  /* ***************************************************************************
+   *********** Kernels *********************************************************
+   *****************************************************************************/
+
+  // LU-decomposition-based simple vector solutions
+
+  private static MatrixMaker jamaLuSolution(MatrixData data) {
+    final Jama.Matrix matrixB = new Jama.Matrix(data.vector, data.getSize());
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.solve(matrixB);
+    };
+  }
+
+  private static MatrixMaker doubleLuSolutionWithScaling(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      return () -> { matrix.solve(data.vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker quadrupleLuSolutionWithScaling(MatrixData data) {
+    final Quadruple[] vector = data.quadrupleVector();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> { matrix.solve(vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker bigDecimalLuSolutionWithScaling(MatrixData data) {
+    final BigDecimal[] vector = data.bigDecimalVector();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> { matrix.solve(vector); return matrix; };
+    };
+  }
+
+  // LU-decomposition-based accurate vector solutions
+
+  private static MatrixMaker doubleAccurateLUSolutionWithScaling(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> { matrix.solveAccurately(data.vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker quadrupleAccurateLUSolutionWithScaling(MatrixData data) {
+    final Quadruple[] vector = data.quadrupleVector();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> { matrix.solveAccurately(vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker bigDecimalAccurateLUSolutionWithScaling(MatrixData data) {
+    final BigDecimal[] vector = data.bigDecimalVector();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> { matrix.solveAccurately(vector); return matrix; };
+    };
+  }
+
+  // Cholesky-decomposition-based simple vector solutions
+
+  private static MatrixMaker jamaSpdSolution(MatrixData data) {
+    final Jama.Matrix matrixB = new Jama.Matrix(data.vector, data.getSize());
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> new CholeskyDecomposition(matrixA).solve(matrixB);
+    };
+  }
+
+  private static MatrixMaker doubleSpdSolution(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> { matrix.solveSPD(data.vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker quadrupleSPDSolution(MatrixData data) {
+    final Quadruple[] vector = data.quadrupleVector();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> { matrix.solveSPD(vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker bigDecimalSPDSolution(MatrixData data) {
+    final BigDecimal[] vector = data.bigDecimalVector();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> { matrix.solveSPD(vector); return matrix; };
+    };
+  }
+
+  // Cholesky-decomposition-based accurate vector solutions
+
+  private static MatrixMaker doubleAccurateSPDSolution(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> { matrix.solveSPDAccurately(data.vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker quadrupleAccurateSPDSolution(MatrixData data) {
+    final Quadruple[] vector = data.quadrupleVector();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> { matrix.solveSPDAccurately(vector); return matrix; };
+    };
+  }
+
+  private static MatrixMaker bigDecimalAccurateSPDSolution(MatrixData data) {
+    final BigDecimal[] vector = data.bigDecimalVector();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> { matrix.solveSPDAccurately(vector); return matrix; };
+    };
+  }
+
+  // LU-decomposition-based simple matrix solutions
+
+  private static MatrixMaker jamaMatrixSolution(MatrixData data) {
+    final Jama.Matrix matrixB = new Jama.Matrix(data.matrixB.toArray());
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.solve(matrixB);
+    };
+  }
+
+  private static MatrixMaker doubleMatrixSolution(MatrixData data) {
+    final double[][] matrixB = data.matrixB.toArray();
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.solve(matrixB);
+    };
+  }
+
+  private static MatrixMaker quadrupleMatrixSolution(MatrixData data) {
+    final Quadruple[][] matrixB = data.quadrupleMatrixB();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.solve(matrixB);
+    };
+  }
+
+  private static MatrixMaker bigDecimalMatrixSolution(MatrixData data) {
+    final BigDecimal[][] matrixB = data.bigDecimalMatrixB();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> matrix.solve(matrixB);
+    };
+  }
+
+  // LU-decomposition-based accurate matrix solutions
+
+  private static MatrixMaker doubleAccurateMatrixSolution(MatrixData data) {
+    final double[][] matrixB = data.matrixB.toArray();
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.solveAccurately(matrixB);
+    };
+  }
+
+  private static MatrixMaker quadrupleAccurateMatrixSolution(MatrixData data) {
+    final Quadruple[][] matrixB = data.quadrupleMatrixB();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.solveAccurately(matrixB);
+    };
+  }
+
+  private static MatrixMaker bigDecimalAccurateMatrixSolution(MatrixData data) {
+    final BigDecimal[][] matrixB = data.bigDecimalMatrixB();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> matrix.solveAccurately(matrixB);
+    };
+  }
+
+  // Matrix inversion
+
+  private static MatrixMaker jamaMatrixInversion(MatrixData data) {
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.inverse();
+    };
+  }
+
+  private static MatrixMaker doubleMatrixInversion(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.inverse();
+    };
+  }
+
+  private static MatrixMaker quadrupleMatrixInversion(MatrixData data) {
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.inverse();
+    };
+  }
+
+  private static MatrixMaker bigDecimalMatrixInversion(MatrixData data) {
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> matrix.inverse();
+    };
+  }
+
+  // Accurate matrix inversion
+
+  private static MatrixMaker doubleAccurateMatrixInversion(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.inverseAccurately();
+    };
+  }
+
+  private static MatrixMaker quadrupleAccurateMatrixInversion(MatrixData data) {
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.inverseAccurately();
+    };
+  }
+
+  private static MatrixMaker bigDecimalAccurateMatrixInversion(MatrixData data) {
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.matrixData.toArray(), true, precision());
+      return () -> matrix.inverseAccurately();
+    };
+  }
+
+  // Matrix multiplications
+
+  private static MatrixMaker jamaMultiplication(MatrixData data) {
+    final Jama.Matrix matrixX = new Jama.Matrix(data.matrixX.toArray());
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.times(matrixX);
+    };
+  }
+
+  private static MatrixMaker doubleMultiplication(MatrixData data) {
+    final double[][] matrixX = data.matrixX.toArray();
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.multiply(matrixX);
+    };
+  }
+
+  private static MatrixMaker quadrupleMultiplication(MatrixData data) {
+    final Quadruple[][] matrixX = data.quadrupleMatrixX();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), true);
+      return () -> matrix.multiply(matrixX);
+    };
+  }
+
+  private static MatrixMaker bigDecimalMultiplication(MatrixData data) {
+    // If it were converted from doubles directly, the precision would be too low
+    final BigDecimal[][] matrixX = data.exactBigDecimalMatrixX();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), true, precision());
+      return () -> matrix.multiply(matrixX);
+    };
+  }
+
+  // Transposition
+
+  private static MatrixMaker jamaTransposition(MatrixData data) {
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.transpose();
+    };
+  }
+
+  private static MatrixMaker doubleTransposition(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> matrix.transpose();
+    };
+  }
+
+  private static MatrixMaker quadrupleTransposition(MatrixData data) {
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray());
+      return () -> matrix.transpose();
+    };
+  }
+
+  private static MatrixMaker bigDecimalTransposition(MatrixData data) {
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), true, precision());
+      return () -> matrix.transpose();
+    };
+  }
+
+  // Determinant
+
+  private static MatrixMaker jamaDeterminant(MatrixData data) {
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.det();
+    };
+  }
+
+  private static MatrixMaker doubleDeterminant(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> matrix.determinant();
+    };
+  }
+
+  private static MatrixMaker quadrupleDeterminant(MatrixData data) {
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray());
+      return () -> matrix.determinantAsQuadruple();
+    };
+  }
+
+  private static MatrixMaker bigDecimalDeterminant(MatrixData data) {
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), true, precision());
+      return () -> matrix.determinantAsBigDecimal();
+    };
+  }
+
+  // Matrix-vector multiplication
+
+  private static MatrixMaker jamaVectorMultiplication(MatrixData data) {
+    final Jama.Matrix matrixX = new Jama.Matrix(data.solution, data.getSize());
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.times(matrixX);
+    };
+  }
+
+  private static MatrixMaker doubleVectorMultiplication(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> matrix.multiply(data.solution);
+    };
+  }
+
+  private static MatrixMaker quadrupleVectorMultiplication(MatrixData data) {
+    final Quadruple[] solution = data.quadrupleSolution();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray());
+      return () -> matrix.multiply(solution);
+    };
+  }
+
+  private static MatrixMaker bigDecimalVectorMultiplication(MatrixData data) {
+    final BigDecimal[] solution = data.exactBigDecimalSolution();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), true, precision());
+      return () -> matrix.multiply(solution);
+    };
+  }
+
+  // Multiplication by a scalar
+
+  private static MatrixMaker jamaScalarMultiplication(MatrixData data) {
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.times(data.scalar);
+    };
+  }
+
+  private static MatrixMaker doubleScalarMultiplication(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> matrix.multiply(data.scalar);
+    };
+  }
+
+  private static MatrixMaker quadrupleScalarMultiplication(MatrixData data) {
+    final Quadruple scalar = new Quadruple(data.scalar);
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray());
+      return () -> matrix.multiply(scalar);
+    };
+  }
+
+  private static MatrixMaker bigDecimalScalarMultiplication(MatrixData data) {
+    final BigDecimal scalar = new BigDecimal(data.scalar);
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), true, precision());
+      return () -> matrix.multiply(scalar);
+    };
+  }
+
+  // Matrix addition
+
+  private static MatrixMaker jamaAddition(MatrixData data) {
+    final Jama.Matrix matrixX = new Jama.Matrix(data.matrixX.toArray());
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.plus(matrixX);
+    };
+  }
+
+  private static MatrixMaker doubleAddition(MatrixData data) {
+    final double[][] matrixX = data.matrixX.toArray();
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray());
+      return () -> matrix.add(matrixX);
+    };
+  }
+
+  private static MatrixMaker quadrupleAddition(MatrixData data) {
+    final Quadruple[][] matrixX = data.quadrupleMatrixX();
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray());
+      return () -> matrix.add(matrixX);
+    };
+  }
+
+  private static MatrixMaker bigDecimalAddition(MatrixData data) {
+    final BigDecimal[][] matrixX = data.exactBigDecimalMatrixX();
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), true, precision());
+      return () -> matrix.add(matrixX);
+    };
+  }
+
+  // Condition number, the matrices are constructed without scaling
+
+  private static MatrixMaker jamaConditionNumber(MatrixData data) {
+    return () -> {
+      final Jama.Matrix matrixA = new Jama.Matrix(data.matrixData.toArray());
+      return () -> matrixA.cond();
+    };
+  }
+
+  private static MatrixMaker doubleConditionNumber(MatrixData data) {
+    return () -> {
+      final DoubleMatrix matrix = new DoubleMatrix(data.matrixData.toArray(), false);
+      return () -> matrix.cond();
+    };
+  }
+
+  private static MatrixMaker quadrupleConditionNumber(MatrixData data) {
+    return () -> {
+      final QuadrupleMatrix matrix = new QuadrupleMatrix(data.matrixData.toArray(), false);
+      return () -> matrix.cond();
+    };
+  }
+
+  private static MatrixMaker bigDecimalConditionNumber(MatrixData data) {
+    return () -> {
+      final BigDecimalMatrix matrix = new BigDecimalMatrix(data.quadrupleMatrixData(), false, precision());
+      return () -> matrix.cond();
+    };
+  }
+
+  /** The precision set for the benchmark thread by {@code CollectStatistics.setBigDecimalMatrixPrecision()} */
+  private static int precision() {
+    return PrecisionContext.current().precision();
+  }
+
+}
@@ -0,0 +1,379 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+
+import com.mvohm.quadmatrix.BigDecimalMatrix;
+import com.mvohm.quadmatrix.DoubleMatrix;
+import com.mvohm.quadmatrix.Matrix;
+import com.mvohm.quadmatrix.QuadrupleMatrix;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.DataGenerator;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.MatrixTypes;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Operations;
+
+import Jama.CholeskyDecomposition;
+
+/**
+ * Measures the times of the phases of performing an operation the way an application does it,
+ * starting with the data in doubles and ending with the results in the element type of the matrix.
+ *
+ * The performers in {@link MatrixData} time only the operation itself, while an application also has to
+ * convert its data to the element type of the matrix ({@link Phase#CONVERSION}),
+ * to construct the matrix ({@link Phase#CONSTRUCTION}, with scaling, as the performers do,
+ * and {@link Phase#CONSTRUCTION_WITHOUT_SCALING}), and to get the results from it ({@link Phase#EXTRACTION}).
+ * The end-to-end time is the sum of all the phases but the construction without scaling,
+ * which is timed on a matrix of its own only to compare the costs of the constructors.
+ * Jama matrices have no scaling, so they are only constructed without it.
+ *
+ * Every iteration takes a new data set, whose generation is not timed. After the warmup, the iterations go on
+ * until the time given to the measurement is over, but not less than MIN_ITERATIONS times.
+ * The decomposition of the matrix happens within the operation and can't be timed separately
+ * through the public API of the matrices.
+ */
+public class PhaseTiming {
+
+  public enum Phase { CONVERSION, CONSTRUCTION_WITHOUT_SCALING, CONSTRUCTION, OPERATION, EXTRACTION }
+
+  /** The operations split into phases, listed explicitly so that new operations are not included by their place in the enum */
+  private static final Set<Operations> SUPPORTED_OPERATIONS = EnumSet.of(
+      Operations.SIMPLE_VECTOR_SOLUTION, Operations.ACCURATE_VECTOR_SOLUTION,
+      Operations.SIMPLE_SPD_SOLUTION,    Operations.ACCURATE_SPD_SOLUTION,
+      Operations.SIMPLE_MATRIX_SOLUTION, Operations.ACCURATE_MATRIX_SOLUTION,
+      Operations.SIMPLE_INVERSION,       Operations.ACCURATE_INVERSION,
+      Operations.MULTIPLICATION);
+
+  /**
+   * The mean times of the phases, indexed by {@link Phase#ordinal()}, and the mean end-to-end time, in nanoseconds,
+   * with the half-width of its 95% confidence interval
+   */
+  public record Result(long count, double[] phaseTimes, double endToEndTime, double endToEndHalfWidth) {
+
+    public double phaseTime(Phase phase) {
+      return phaseTimes[phase.ordinal()];
+    }
+
+    /** The share of the end-to-end time taken by the operation itself */
+    public double kernelShare() {
+      return phaseTime(Phase.OPERATION) / endToEndTime;
+    }
+  }
+
+  private final DataGenerator generator;
+  private final Operations operation;
+  private final MatrixTypes matrixType;
+
+  public PhaseTiming(CollectStatistics.GeneratorMaker generatorMaker, Operations operation, MatrixTypes matrixType,
+                     int size, long seed) {
+    this.generator = generatorMaker.make(size, new Random(seed));
+    this.operation = operation;
+    this.matrixType = matrixType;
+  }
+
+  /**
+   * Returns true if the phases of the operation can be timed on the type of matrices.
+   * Only the solutions, the inversions and the multiplication of matrices are split into phases
+   */
+  public static boolean isSupported(Operations operation, MatrixTypes matrixType) {
+    if (!SUPPORTED_OPERATIONS.contains(operation))
+      return false;
+    return matrixType != MatrixTypes.JAMA || JamaPipeline.supports(operation);
+  }
+
+  /** Performs the operation for warmupMs milliseconds, and then for measureMs milliseconds, timing its phases */
+  public Result measure(long warmupMs, long measureMs, int minIterations) {
+    final RunningStatistics[] phaseStatistics = new RunningStatistics[Phase.values().length];
+    for (int i = 0; i < phaseStatistics.length; i++) {
+      phaseStatistics[i] = new RunningStatistics();
+    }
+    final RunningStatistics endToEndStatistics = new RunningStatistics();
+    final long[] times = new long[Phase.values().length];
+
+    final long warmupEnd = System.currentTimeMillis() + warmupMs;
+    while (System.currentTimeMillis() < warmupEnd) {
+      performPhases(generator.generate(), times);
+    }
+    final long measureEnd = System.currentTimeMillis() + measureMs;
+    while (System.currentTimeMillis() < measureEnd || endToEndStatistics.count() < minIterations) {
+      performPhases(generator.generate(), times);
+      long endToEnd = 0;
+      for (final Phase phase: Phase.values()) {
+        phaseStatistics[phase.ordinal()].add(times[phase.ordinal()]);
+        if (phase != Phase.CONSTRUCTION_WITHOUT_SCALING) {
+          endToEnd += times[phase.ordinal()];
+        }
+      }
+      endToEndStatistics.add(endToEnd);
+    }
+
+    final double[] phaseTimes = new double[phaseStatistics.length];
+    for (int i = 0; i < phaseTimes.length; i++) {
+      phaseTimes[i] = phaseStatistics[i].mean();
+    }
+    return new Result(endToEndStatistics.count(), phaseTimes, endToEndStatistics.mean(), endToEndStatistics.halfWidth());
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  /** Performs all the phases on the given data set and puts their times to {@code times}, indexed by Phase.ordinal() */
+  private void performPhases(MatrixData data, long[] times) {
+    final Pipeline pipeline = matrixType == MatrixTypes.JAMA
+        ? new JamaPipeline(operation, data)
+        : new QuadMatrixPipeline(operation, matrixType, data);
+    long start = System.nanoTime();
+    pipeline.convert();
+    times[Phase.CONVERSION.ordinal()] = System.nanoTime() - start;
+
+    if (matrixType == MatrixTypes.JAMA) {
+      start = System.nanoTime();
+      pipeline.construct(false);
+      times[Phase.CONSTRUCTION_WITHOUT_SCALING.ordinal()] = System.nanoTime() - start;
+      times[Phase.CONSTRUCTION.ordinal()] = times[Phase.CONSTRUCTION_WITHOUT_SCALING.ordinal()];
+    } else {
+      start = System.nanoTime();
+      pipeline.construct(false);
+      times[Phase.CONSTRUCTION_WITHOUT_SCALING.ordinal()] = System.nanoTime() - start;
+      start = System.nanoTime();
+      pipeline.construct(true);
+      times[Phase.CONSTRUCTION.ordinal()] = System.nanoTime() - start;
+    }
+
+    start = System.nanoTime();
+    pipeline.operate();
+    times[Phase.OPERATION.ordinal()] = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    pipeline.extract();
+    times[Phase.EXTRACTION.ordinal()] = System.nanoTime() - start;
+    pipeline.consume();
+  }
+
+  /** The steps of performing an operation on a data set. Every instance is used once */
+  private abstract static class Pipeline {
+    /** Something computed from the results, so that the JIT compiler can't throw them away */
+    protected double blackhole;
+
+    /** Converts the data set to the element type of the matrix */
+    abstract void convert();
+    /** Constructs the matrix from the converted data. The matrix constructed last is used by operate() */
+    abstract void construct(boolean scaled);
+    abstract void operate();
+    /** Gets the results of the operation from the matrix in the element type of the matrix */
+    abstract void extract();
+
+    void consume() {
+      if (blackhole == 1.2345e-300) {
+        say("%s", blackhole);
+      }
+    }
+  }
+
+  /** The steps of performing the operation on DoubleMatrix, QuadrupleMatrix or BigDecimalMatrix */
+  private static class QuadMatrixPipeline extends Pipeline {
+    private final Operations operation;
+    private final MatrixTypes matrixType;
+    private final MatrixData data;
+
+    /** The data converted to double[][] and double[] for DoubleMatrix, or to arrays of Quadruples or BigDecimals */
+    private Object matrixArray, operand;
+    private Matrix matrix;
+    private Matrix resultMatrix;
+
+    QuadMatrixPipeline(Operations operation, MatrixTypes matrixType, MatrixData data) {
+      this.operation = operation;
+      this.matrixType = matrixType;
+      this.data = data;
+    }
+
+    @Override
+    void convert() {
+      switch (matrixType) {
+        case DOUBLE_MATRIX:
+          matrixArray = data.matrixData.toArray();
+          operand = isVectorSolution(operation)? data.vector
+                  : operation == Operations.MULTIPLICATION? data.matrixX.toArray()
+                  : data.matrixB == null? null: data.matrixB.toArray();
+          break;
+        case QUADRUPLE_MATRIX:
+          matrixArray = convertToQuadruples(data.matrixData);
+          operand = isVectorSolution(operation)? convertToQuadruples(data.vector)
+                  : operation == Operations.MULTIPLICATION? convertToQuadruples(data.matrixX)
+                  : data.matrixB == null? null: convertToQuadruples(data.matrixB);
+          break;
+        default:
+          matrixArray = convertToBigDecimals(data.matrixData);
+          operand = isVectorSolution(operation)? convertToBigDecimals(data.vector)
+                  : operation == Operations.MULTIPLICATION? convertToBigDecimals(data.matrixX)
+                  : data.matrixB == null? null: convertToBigDecimals(data.matrixB);
+          break;
+      }
+    }
+
+    @Override
+    void construct(boolean scaled) {
+      switch (matrixType) {
+        case DOUBLE_MATRIX:     matrix = new DoubleMatrix((double[][])matrixArray, scaled); break;
+        case QUADRUPLE_MATRIX:  matrix = new QuadrupleMatrix((Number[][])matrixArray, scaled); break;
+        default:                matrix = new BigDecimalMatrix((Number[][])matrixArray, scaled,
+                                                              PrecisionContext.current().precision()); break;
+      }
+    }
+
+    @Override
+    void operate() {
+      switch (operation) {
+        case SIMPLE_VECTOR_SOLUTION:
+          if (operand instanceof double[]) matrix.solve((double[])operand); else matrix.solve((Number[])operand);
+          break;
+        case ACCURATE_VECTOR_SOLUTION:
+          if (operand instanceof double[]) matrix.solveAccurately((double[])operand); else matrix.solveAccurately((Number[])operand);
+          break;
+        case SIMPLE_SPD_SOLUTION:
+          if (operand instanceof double[]) matrix.solveSPD((double[])operand); else matrix.solveSPD((Number[])operand);
+          break;
+        case ACCURATE_SPD_SOLUTION:
+          if (operand instanceof double[]) matrix.solveSPDAccurately((double[])operand); else matrix.solveSPDAccurately((Number[])operand);
+          break;
+        case SIMPLE_MATRIX_SOLUTION:
+          resultMatrix = operand instanceof double[][]? matrix.solve((double[][])operand): matrix.solve((Number[][])operand);
+          break;
+        case ACCURATE_MATRIX_SOLUTION:
+          resultMatrix = operand instanceof double[][]? matrix.solveAccurately((double[][])operand): matrix.solveAccurately((Number[][])operand);
+          break;
+        case SIMPLE_INVERSION:
+          resultMatrix = matrix.inverse();
+          break;
+        case ACCURATE_INVERSION:
+          resultMatrix = matrix.inverseAccurately();
+          break;
+        case MULTIPLICATION:
+          resultMatrix = operand instanceof double[][]? matrix.multiply((double[][])operand): matrix.multiply((Number[][])operand);
+          break;
+        default:
+          throw new IllegalArgumentException("Phases of " + operation + " can't be timed");
+      }
+    }
+
+    @Override
+    void extract() {
+      if (isVectorSolution(operation)) {
+        switch (matrixType) {
+          case DOUBLE_MATRIX:     blackhole = matrix.getDoubleSolution()[0]; break;
+          case QUADRUPLE_MATRIX:  blackhole = matrix.getQuadrupleSolution()[0].doubleValue(); break;
+          default:                blackhole = matrix.getBigDecimalSolution()[0].doubleValue(); break;
+        }
+      } else {
+        switch (matrixType) {
+          case DOUBLE_MATRIX:     blackhole = resultMatrix.getDoubleData()[0][0]; break;
+          case QUADRUPLE_MATRIX:  blackhole = resultMatrix.getQuadrupleData()[0][0].doubleValue(); break;
+          default:                blackhole = resultMatrix.getBigDecimalData()[0][0].doubleValue(); break;
+        }
+      }
+    }
+  }
+
+  /** The steps of performing the operation on Jama.Matrix, which supports only the simple operations */
+  private static class JamaPipeline extends Pipeline {
+    private final Operations operation;
+    private final MatrixData data;
+
+    private double[][] matrixArray;
+    private Jama.Matrix matrix, operand, result;
+
+    JamaPipeline(Operations operation, MatrixData data) {
+      this.operation = operation;
+      this.data = data;
+    }
+
+    static boolean supports(Operations operation) {
+      switch (operation) {
+        case SIMPLE_VECTOR_SOLUTION:
+        case SIMPLE_SPD_SOLUTION:
+        case SIMPLE_MATRIX_SOLUTION:
+        case SIMPLE_INVERSION:
+        case MULTIPLICATION:
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    void convert() {
+      matrixArray = data.matrixData.toArray();
+      if (isVectorSolution(operation)) {
+        operand = new Jama.Matrix(data.vector, data.vector.length);
+      } else if (operation == Operations.MULTIPLICATION) {
+        operand = new Jama.Matrix(data.matrixX.toArray());
+      } else if (data.matrixB != null) {
+        operand = new Jama.Matrix(data.matrixB.toArray());
+      }
+    }
+
+    @Override
+    void construct(boolean scaled) {
+      matrix = new Jama.Matrix(matrixArray);
+    }
+
+    @Override
+    void operate() {
+      switch (operation) {
+        case SIMPLE_VECTOR_SOLUTION:
+        case SIMPLE_MATRIX_SOLUTION:
+          result = matrix.solve(operand);
+          break;
+        case SIMPLE_SPD_SOLUTION:
+          result = new CholeskyDecomposition(matrix).solve(operand);
+          break;
+        case SIMPLE_INVERSION:
+          result = matrix.inverse();
+          break;
+        case MULTIPLICATION:
+          result = matrix.times(operand);
+          break;
+        default:
+          throw new IllegalArgumentException("Jama can't perform " + operation);
+      }
+    }
+
+    @Override
+    void extract() {
+      blackhole = isVectorSolution(operation)? result.getColumnPackedCopy()[0]: result.getArray()[0][0];
+    }
+  }
+
+  private static boolean isVectorSolution(Operations operation) {
+    switch (operation) {
+      case SIMPLE_VECTOR_SOLUTION:
+      case ACCURATE_VECTOR_SOLUTION:
+      case SIMPLE_SPD_SOLUTION:
+      case ACCURATE_SPD_SOLUTION:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+}
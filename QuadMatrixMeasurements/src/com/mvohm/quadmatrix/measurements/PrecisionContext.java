@@ -0,0 +1,84 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import com.mvohm.quadmatrix.BigDecimalMatrix;
+
+/**
+ * The precision of BigDecimal computations of the current thread: the precision of the BigDecimalMatrix instances
+ * created by the performers of {@link MatrixData}, of the reference products found for them by {@link ReferenceKernels},
+ * and of the differences found by {@link AuxMethods#findErrors(java.math.BigDecimal[][], java.math.BigDecimal[][])}.
+ *
+ * Unlike {@code BigDecimalMatrix.setDefaultPrecision()}, setting it in one thread does not affect the others,
+ * so the combinations requiring different precisions can be tested simultaneously.
+ * {@code CollectStatistics.OperationTester} sets it before every trial, the other modes set it
+ * with {@code CollectStatistics.setBigDecimalMatrixPrecision()} before generating the data and performing the operations.
+ * Until then, a thread uses the default precision of BigDecimalMatrix.
+ */
+public final class PrecisionContext {
+
+  /** The differences of BigDecimal results are computed this many digits more precisely than the results themselves */
+  static final int ERROR_GUARD_DIGITS = 10;
+
+  private static final ThreadLocal<PrecisionContext> current =
+      ThreadLocal.withInitial(() -> of(BigDecimalMatrix.getDefaultPrecision()));
+
+  private final int precision;
+  private final MathContext mathContext;
+  private final MathContext errorMathContext;
+
+  private PrecisionContext(int precision) {
+    this.precision = precision;
+    this.mathContext = new MathContext(precision, RoundingMode.HALF_EVEN);
+    this.errorMathContext = new MathContext(precision + ERROR_GUARD_DIGITS, RoundingMode.HALF_EVEN);
+  }
+
+  /** A context with the given precision, in decimal digits */
+  public static PrecisionContext of(int precision) {
+    if (precision <= 0)
+      throw new IllegalArgumentException("The precision must be positive: " + precision);
+    return new PrecisionContext(precision);
+  }
+
+  /** The context of the current thread */
+  public static PrecisionContext current() {
+    return current.get();
+  }
+
+  /** Makes the given context the context of the current thread */
+  public static void setCurrent(PrecisionContext context) {
+    current.set(context);
+  }
+
+  /** The precision of BigDecimalMatrix instances, in decimal digits */
+  public int precision()                { return precision; }
+  /** The MathContext to compute the reference products with, with the same precision as the matrices */
+  public MathContext mathContext()      { return mathContext; }
+  /** The MathContext to compute the differences of the results with, ERROR_GUARD_DIGITS digits more precise */
+  public MathContext errorMathContext() { return errorMathContext; }
+
+  @Override
+  public String toString() {
+    return precision + " digits";
+  }
+
+}
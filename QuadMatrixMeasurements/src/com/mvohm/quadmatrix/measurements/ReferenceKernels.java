@@ -0,0 +1,312 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.mvohm.quadruple.Quadruple;
+
+/**
+ * Products of matrices and vectors used to generate the data sets and to find the expected results of the operations,
+ * and the norms used to find the expected condition numbers.
+ * They are computed with a greater precision than that of the operation under test, and never timed.
+ *
+ * Products of large matrices are split into blocks of rows computed in parallel on a ForkJoinPool,
+ * each element being computed exactly the same way as in the sequential case, so that the results
+ * do not depend on the parallelism.
+ */
+public class ReferenceKernels {
+
+  /** Products requiring less multiplications than this are computed sequentially */
+  private static final long PARALLEL_THRESHOLD  = 100_000;
+  /** The minimum number of multiplications computed by a single task */
+  private static final long MIN_TASK_COST       =  20_000;
+  /** The limit of the iterations of {@link #spectralNorm(FlatMatrix)} */
+  private static final int SPECTRAL_NORM_MAX_ITERATIONS = 10_000;
+
+  private static volatile ForkJoinPool pool = makePool(Runtime.getRuntime().availableProcessors());
+
+  /** Computes a single row of a product */
+  private interface RowKernel {
+    void computeRow(int rowIndex);
+  }
+
+  /**
+   * Sets the number of threads used to compute the products, 1 means computing them in the calling thread.
+   * The products being computed at the moment are finished with the previous setting.
+   */
+  public static void setParallelism(int parallelism) {
+    final ForkJoinPool oldPool = pool;
+    pool = makePool(parallelism);
+    if (oldPool != null) {
+      oldPool.shutdown();
+    }
+  }
+
+  public static int getParallelism() {
+    final ForkJoinPool currentPool = pool;
+    return currentPool == null? 1: currentPool.getParallelism();
+  }
+
+  /* *************************************************************************
+  ******** Products computed with Quadruple accumulators *********************
+  ***************************************************************************/
+
+  public static double[][] multiply(double[][] matrixA, double[][] matrixB) {
+    final int size = matrixA.length;
+    final double[][] result = new double[size][size];
+    forEachRow(size, (long)size * size, i -> {
+      for (int j = 0; j < size; j++) {
+        result[i][j] = multiplyRowByColumn(matrixA[i], 0, matrixB, j);
+      }
+    });
+    return result;
+  }
+
+  public static double[][] multiply(FlatMatrix matrixA, double[][] matrixB) {
+    final int size = matrixA.size();
+    final double[][] result = new double[size][size];
+    forEachRow(size, (long)size * size, i -> {
+      for (int j = 0; j < size; j++) {
+        result[i][j] = multiplyRowByColumn(matrixA.data(), matrixA.rowOffset(i), matrixB, j);
+      }
+    });
+    return result;
+  }
+
+  public static double[] multiply(double[][] matrix, double[] vector) {
+    final int length = matrix.length;
+    final double[] result = new double[length];
+    forEachRow(length, length, i -> result[i] = multiplyRowByVector(matrix[i], 0, vector));
+    return result;
+  }
+
+  public static double[] multiply(FlatMatrix matrix, double[] vector) {
+    final int length = matrix.size();
+    final double[] result = new double[length];
+    forEachRow(length, length, i -> result[i] = multiplyRowByVector(matrix.data(), matrix.rowOffset(i), vector));
+    return result;
+  }
+
+  public static Quadruple[] multiply(Quadruple[][] matrix, Quadruple[] vector) {
+    final int length = matrix.length;
+    final Quadruple[] result = new Quadruple[length];
+    forEachRow(length, length, i -> {
+      final Quadruple productElement = new Quadruple();
+      for (int j = 0; j < length; j++) {
+        productElement.add(new Quadruple(matrix[i][j]).multiply(vector[j]));
+      }
+      result[i] = productElement;
+    });
+    return result;
+  }
+
+  public static Quadruple[][] multiply(Quadruple[][] matrixA, Quadruple[][] matrixB) {
+    final int length = matrixA.length;
+    final Quadruple[][] result = new Quadruple[length][length];
+    forEachRow(length, (long)length * length, i -> {
+      for (int j = 0; j < length; j++) {
+        result[i][j] = multiplyRowByColumn(matrixA, i, matrixB, j);
+      }
+    });
+    return result;
+  }
+
+  /* *************************************************************************
+  ******** Products computed with BigDecimals ********************************
+  ***************************************************************************/
+
+  /** Computes the product rounding every intermediate result in accordance with the given MathContext */
+  public static BigDecimal[] multiply(BigDecimal[][] matrix, BigDecimal[] vector, MathContext mc) {
+    final int length = matrix.length;
+    final BigDecimal[] result = new BigDecimal[length];
+    forEachRow(length, length, i -> {
+      BigDecimal productElement = BigDecimal.ZERO;
+      for (int j = 0; j < length; j++) {
+        productElement = productElement.add(matrix[i][j].multiply(vector[j], mc), mc);
+      }
+      result[i] = productElement;
+    });
+    return result;
+  }
+
+  /** Computes the exact product */
+  public static BigDecimal[][] multiply(BigDecimal[][] matrixA, BigDecimal[][] matrixB) {
+    final int length = matrixA.length;
+    final BigDecimal[][] result = new BigDecimal[length][length];
+    forEachRow(length, (long)length * length, i -> {
+      for (int j = 0; j < length; j++) {
+        result[i][j] = multiplyRowByColumn(matrixA, i, matrixB, j);
+      }
+    });
+    return result;
+  }
+
+  /* *************************************************************************
+  ******** Norms *************************************************************
+  ***************************************************************************/
+
+  /** The maximum absolute row sum (the infinity-norm) of the matrix, computed exactly */
+  public static BigDecimal maxRowSumNorm(FlatMatrix matrix) {
+    BigDecimal norm = BigDecimal.ZERO;
+    for (int i = 0; i < matrix.size(); i++) {
+      BigDecimal sum = BigDecimal.ZERO;
+      for (int j = 0; j < matrix.size(); j++) {
+        sum = sum.add(new BigDecimal(Math.abs(matrix.get(i, j))));
+      }
+      norm = norm.max(sum);
+    }
+    return norm;
+  }
+
+  /** The maximum absolute row sum (the infinity-norm) of the matrix, computed exactly */
+  public static BigDecimal maxRowSumNorm(BigDecimal[][] matrix) {
+    BigDecimal norm = BigDecimal.ZERO;
+    for (final BigDecimal[] row: matrix) {
+      BigDecimal sum = BigDecimal.ZERO;
+      for (final BigDecimal value: row) {
+        sum = sum.add(value.abs());
+      }
+      norm = norm.max(sum);
+    }
+    return norm;
+  }
+
+  /**
+   * The largest singular value (the 2-norm) of the matrix, found with the power iteration on M<sup>T</sup>M,
+   * the products being computed with Quadruple accumulators.
+   * The estimate grows with every iteration until it is as accurate as doubles allow, so the iteration stops
+   * when it stops growing, or after SPECTRAL_NORM_MAX_ITERATIONS if the largest singular values are very close
+   */
+  public static double spectralNorm(FlatMatrix matrix) {
+    final FlatMatrix transposed = matrix.transpose();
+    double[] vector = new double[matrix.size()];
+    Arrays.fill(vector, 1 / Math.sqrt(vector.length));
+    double norm = 0;
+    for (int iteration = 0; iteration < SPECTRAL_NORM_MAX_ITERATIONS; iteration++) {
+      final double[] product = multiply(matrix, vector);
+      final double estimate = euclideanNorm(product);
+      if (estimate <= norm)
+        break;
+      norm = estimate;
+      vector = multiply(transposed, product);
+      final double length = euclideanNorm(vector);
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] /= length;
+      }
+    }
+    return norm;
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  /** Multiplies the row of A, starting at the given offset in the given array, by the column of B */
+  private static double multiplyRowByColumn(double[] rowData, int rowOffset, double[][] matrixB, int colIndex) {
+    final int size = matrixB.length;
+    final Quadruple productElement = new Quadruple();
+    for (int k = 0; k < size; k++) {
+      productElement.add(new Quadruple(rowData[rowOffset + k]).multiply(matrixB[k][colIndex]));
+    }
+    return productElement.doubleValue();
+  }
+
+  /** Multiplies the row of the matrix, starting at the given offset in the given array, by the vector */
+  private static double multiplyRowByVector(double[] rowData, int rowOffset, double[] vector) {
+    final Quadruple productElement = new Quadruple();
+    for (int j = 0; j < vector.length; j++) {
+      productElement.add(new Quadruple(rowData[rowOffset + j]).multiply(vector[j]));
+    }
+    return productElement.doubleValue();
+  }
+
+  private static Quadruple multiplyRowByColumn(Quadruple[][] matrixA, int rowIndex, Quadruple[][] matrixB, int colIndex) {
+    final int size = matrixA.length;
+    final Quadruple productElement = new Quadruple();
+    for (int k = 0; k < size; k++) {
+      productElement.add(Quadruple.multiply(matrixA[rowIndex][k], matrixB[k][colIndex]));
+    }
+    return productElement;
+  }
+
+  private static BigDecimal multiplyRowByColumn(BigDecimal[][] matrixA, int rowIndex, BigDecimal[][] matrixB, int colIndex) {
+    final int size = matrixA.length;
+    BigDecimal productElement = BigDecimal.ZERO;
+    for (int k = 0; k < size; k++) {
+      productElement = productElement.add(matrixA[rowIndex][k].multiply(matrixB[k][colIndex]));
+    }
+    return productElement;
+  }
+
+  private static double euclideanNorm(double[] vector) {
+    return Math.sqrt(MatrixDataGenerators.dotProduct(vector, vector));
+  }
+
+  private static ForkJoinPool makePool(int parallelism) {
+    return parallelism <= 1? null: new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Computes the rows from 0 to rowCount - 1, in parallel if the product is large enough
+   * @param rowCost the number of multiplications needed to compute a row
+   */
+  private static void forEachRow(int rowCount, long rowCost, RowKernel kernel) {
+    final ForkJoinPool currentPool = pool;
+    if (currentPool == null || rowCount * rowCost < PARALLEL_THRESHOLD) {
+      for (int i = 0; i < rowCount; i++) {
+        kernel.computeRow(i);
+      }
+    } else {
+      final int minRows = (int)Math.max(1, MIN_TASK_COST / rowCost);
+      currentPool.invoke(new RowBlock(kernel, 0, rowCount, minRows));
+    }
+  }
+
+  /** Computes a block of rows, splitting it in halves while it is larger than minRows */
+  private static class RowBlock extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final RowKernel kernel;
+    private final int from, to, minRows;
+
+    RowBlock(RowKernel kernel, int from, int to, int minRows) {
+      this.kernel = kernel;
+      this.from = from; this.to = to; this.minRows = minRows;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= minRows) {
+        for (int i = from; i < to; i++) {
+          kernel.computeRow(i);
+        }
+      } else {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new RowBlock(kernel, from, middle, minRows),
+                  new RowBlock(kernel, middle, to, minRows));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Measures the resources used by the current thread within a timed region:
+ * the wall-clock time, the CPU time, the number of bytes allocated,
+ * and the number and the duration of the garbage collections that took place meanwhile.
+ *
+ * The values that the JVM can't provide are reported as -1.
+ * The counts of the collections come from the GarbageCollectorMXBeans and refer to the whole JVM,
+ * so when several testers run simultaneously, they include the collections caused by the other threads.
+ *
+ * The MXBeans are queried outside the interval measured with {@code System.nanoTime()},
+ * so that their overhead does not get into the measured time.
+ * The region is also spanned by an {@link OperationEvent}, which the caller may fill in and commit after {@link #stop()}.
+ */
+public class ResourceMeter {
+
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+  private static final List<GarbageCollectorMXBean> GC_BEANS = ManagementFactory.getGarbageCollectorMXBeans();
+  private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+  private static final boolean CPU_TIME_SUPPORTED = cpuTimeSupported();
+
+  private long wallTime, cpuTime, allocatedBytes, gcCount, gcTime;
+  private OperationEvent event;
+
+  public void start() {
+    event = new OperationEvent();
+    gcCount = -totalGcCount();
+    gcTime = -totalGcTime();
+    cpuTime = -currentThreadCpuTime();
+    allocatedBytes = -currentThreadAllocatedBytes();
+    event.begin();
+    wallTime = -System.nanoTime();
+  }
+
+  /** Ends the measured region and returns its wall-clock time in nanoseconds */
+  public long stop() {
+    wallTime += System.nanoTime();
+    event.end();
+    allocatedBytes = (ALLOCATION_BEAN == null)? -1: allocatedBytes + currentThreadAllocatedBytes();
+    cpuTime = CPU_TIME_SUPPORTED? cpuTime + currentThreadCpuTime(): -1;
+    gcTime += totalGcTime();
+    gcCount += totalGcCount();
+    return wallTime;
+  }
+
+  /** The JFR event spanning the most recent measured region, or null if none was measured */
+  public OperationEvent event() { return event; }
+
+  /** The wall-clock time, in nanoseconds */
+  public long wallTime()        { return wallTime; }
+  /** The CPU time of the current thread, in nanoseconds */
+  public long cpuTime()         { return cpuTime; }
+  public long allocatedBytes()  { return allocatedBytes; }
+  public long gcCount()         { return gcCount; }
+  /** The accumulated duration of the collections, in milliseconds */
+  public long gcTime()          { return gcTime; }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private static long currentThreadCpuTime() {
+    return CPU_TIME_SUPPORTED? THREAD_BEAN.getCurrentThreadCpuTime(): 0;
+  }
+
+  private static long currentThreadAllocatedBytes() {
+    return (ALLOCATION_BEAN == null)? 0: ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+  }
+
+  private static long totalGcCount() {
+    long count = 0;
+    for (int i = 0; i < GC_BEANS.size(); i++) {
+      count += Math.max(0, GC_BEANS.get(i).getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long totalGcTime() {
+    long time = 0;
+    for (int i = 0; i < GC_BEANS.size(); i++) {
+      time += Math.max(0, GC_BEANS.get(i).getCollectionTime());
+    }
+    return time;
+  }
+
+  private static boolean cpuTimeSupported() {
+    if (!THREAD_BEAN.isCurrentThreadCpuTimeSupported())
+      return false;
+    if (!THREAD_BEAN.isThreadCpuTimeEnabled()) {
+      THREAD_BEAN.setThreadCpuTimeEnabled(true);
+    }
+    return true;
+  }
+
+  /** Returns the bean that counts allocated bytes, or null if the JVM can't do it */
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean))
+      return null;
+    final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)THREAD_BEAN;
+    if (!bean.isThreadAllocatedMemorySupported())
+      return null;
+    if (!bean.isThreadAllocatedMemoryEnabled()) {
+      bean.setThreadAllocatedMemoryEnabled(true);
+    }
+    return bean;
+  }
+
+}
@@ -0,0 +1,194 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.mvohm.quadmatrix.measurements.AuxMethods.ErrorSet;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Combination;
+
+/**
+ * Writes the results of every combination in machine-readable forms, as JSON lines
+ * to {@code Results/results_YYMMDD_HHMM.jsonl} and as comma-separated values to {@code Results/results_YYMMDD_HHMM.csv}.
+ *
+ * Every record contains the ID of the run, which refers to {@code manifest_YYMMDD_HHMM.json} (see {@link RunManifest}),
+ * the hash of the configuration, the combination, and all the values kept in its ErrorSet.
+ * Times are in nanoseconds, unless the name of the field says otherwise. Unknown values are written as null in JSON
+ * and as empty fields in CSV.
+ */
+public class ResultsExporter implements Closeable {
+
+  private final String runId;
+  private final String configHash;
+  private final PrintStream jsonOutput;
+  private final PrintStream csvOutput;
+  private boolean headerWritten = false;
+
+  private ResultsExporter(Path folder, String runId, String configHash) throws IOException {
+    this.runId = runId;
+    this.configHash = configHash;
+    this.jsonOutput = new PrintStream(folder.resolve("results_" + runId + ".jsonl").toFile(), "UTF-8");
+    this.csvOutput = new PrintStream(folder.resolve("results_" + runId + ".csv").toFile(), "UTF-8");
+  }
+
+  public static ResultsExporter create(Path folder, String runId, String configHash) throws IOException {
+    return new ResultsExporter(folder, runId, configHash);
+  }
+
+  public synchronized void write(Combination combination, ErrorSet result) {
+    final Map<String, Object> record = toRecord(combination, result);
+    jsonOutput.println(toJson(record));
+    jsonOutput.flush();
+    if (!headerWritten) {
+      csvOutput.println(String.join(",", record.keySet()));
+      headerWritten = true;
+    }
+    final StringBuilder line = new StringBuilder();
+    for (final Object value: record.values()) {
+      if (line.length() > 0) {
+        line.append(',');
+      }
+      line.append(toCsv(value));
+    }
+    csvOutput.println(line);
+    csvOutput.flush();
+  }
+
+  @Override
+  public void close() {
+    jsonOutput.close();
+    csvOutput.close();
+  }
+
+  /**
+   * Converts the given value to JSON. Maps and collections become objects and arrays, numbers remain numbers,
+   * NaNs, infinities and nulls become null, anything else becomes a string
+   */
+  static String toJson(Object value) {
+    if (value == null) {
+      return "null";
+    } else if (value instanceof Map) {
+      final StringBuilder sb = new StringBuilder("{");
+      for (final Map.Entry<?, ?> entry: ((Map<?, ?>)value).entrySet()) {
+        if (sb.length() > 1) {
+          sb.append(", ");
+        }
+        sb.append(quote(String.valueOf(entry.getKey()))).append(": ").append(toJson(entry.getValue()));
+      }
+      return sb.append('}').toString();
+    } else if (value instanceof Collection) {
+      final StringBuilder sb = new StringBuilder("[");
+      for (final Object item: (Collection<?>)value) {
+        if (sb.length() > 1) {
+          sb.append(", ");
+        }
+        sb.append(toJson(item));
+      }
+      return sb.append(']').toString();
+    } else if (value instanceof Double || value instanceof Float) {
+      final double d = ((Number)value).doubleValue();
+      return (Double.isNaN(d) || Double.isInfinite(d))? "null": String.valueOf(d);
+    } else if (value instanceof Number || value instanceof Boolean) {
+      return String.valueOf(value);
+    }
+    return quote(String.valueOf(value));
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private Map<String, Object> toRecord(Combination combination, ErrorSet result) {
+    final Map<String, Object> record = new LinkedHashMap<>();
+    record.put("runId",           runId);
+    record.put("configHash",      configHash);
+    record.put("operation",       combination.operation().name());
+    record.put("matrixType",      combination.matrixType().name());
+    record.put("size",            combination.size());
+    record.put("skipped",         result.isSkipped());
+    record.put("mse",             result.mse());
+    record.put("meanError",       result.meanError());
+    record.put("maxError",        result.maxError());
+    record.put("time",            result.isSkipped()? null: result.getTime());
+    record.put("timeHalfWidth",   result.getTimeHalfWidth());
+    record.put("timedCount",      result.getTimedCount());
+    record.put("trialTime",       result.isSkipped()? null: result.getTrialTime());
+    for (int i = 0; i < LogHistogram.PERCENTILES.length; i++) {
+      record.put("time" + percentileKey(LogHistogram.PERCENTILES[i]), result.getTimePercentiles()[i]);
+    }
+    for (int i = 0; i < LogHistogram.PERCENTILES.length; i++) {
+      record.put("mse" + percentileKey(LogHistogram.PERCENTILES[i]), result.getMsePercentiles()[i]);
+    }
+    record.put("cpuTime",         knownOrNull(result.getCpuTime()));
+    record.put("allocatedBytes",  knownOrNull(result.getAllocatedBytes()));
+    record.put("gcCount",         knownOrNull(result.getGcCount()));
+    record.put("gcTimeMs",        knownOrNull(result.getGcTime()));
+    record.put("cpuWallRatio",    result.getCpuWallRatio());
+    // Compared by CompareResults with the Mann-Whitney test, see LogHistogram.encode() for the format
+    record.put("timeHistogram",   result.getTimeHistogram() == null? null: result.getTimeHistogram().encode());
+    record.put("mseHistogram",    result.getMseHistogram() == null? null: result.getMseHistogram().encode());
+    return record;
+  }
+
+  /** "P50", "P99_9" etc., "Max" for 100 */
+  private static String percentileKey(double percent) {
+    return percent >= 100? "Max": "P" + new DecimalFormat("0.###").format(percent).replace('.', '_');
+  }
+
+  /** Negative values of the resources mean they are unknown */
+  private static Double knownOrNull(double value) {
+    return value < 0? null: value;
+  }
+
+  private static String toCsv(Object value) {
+    final String json = toJson(value);
+    if (json.equals("null")) {
+      return "";
+    }
+    return json; // Strings are quoted, and the values never contain quotes
+  }
+
+  private static String quote(String s) {
+    final StringBuilder sb = new StringBuilder("\"");
+    for (final char c: s.toCharArray()) {
+      switch (c) {
+        case '"':   sb.append("\\\""); break;
+        case '\\':  sb.append("\\\\"); break;
+        case '\n':  sb.append("\\n"); break;
+        case '\r':  sb.append("\\r"); break;
+        case '\t':  sb.append("\\t"); break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int)c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+}
@@ -0,0 +1,250 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import static com.mvohm.quadmatrix.measurements.AuxMethods.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mvohm.quadmatrix.measurements.AuxMethods.ErrorSet;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.Combination;
+
+/**
+ * An append-only journal of the results of the tested combinations of operation, matrix type and size.
+ * Every result is written and forced to the storage device as soon as the combination is done,
+ * so that an interrupted run can be resumed without testing the finished combinations again.
+ *
+ * Each line of the journal holds a single result as tab-separated {@code name=value} pairs, e.g.
+ * <pre>
+ * operation=SIMPLE_INVERSION  matrixType=JAMA  size=50  seed=123456  config=5e3f0c2a  mse=1.2E-14  ...
+ * </pre>
+ * A result is identified by the operation, the matrix type, the size, the random seed,
+ * and the hash of the configuration of the run (see {@code CollectStatistics.configHash()}).
+ * Results obtained with a different seed or configuration are ignored when the journal is resumed.
+ * Lines that can't be parsed (e.g. a line left incomplete by a crash) are ignored as well.
+ */
+public class RunJournal implements Closeable {
+
+  private static final List<String> REQUIRED_FIELDS = List.of(
+      "operation", "matrixType", "size", "seed", "config", "mse", "meanError", "maxError", "time");
+  /** Written since the usage of resources is measured, absent in older journals */
+  private static final List<String> RESOURCE_FIELDS = List.of("cpuTime", "allocatedBytes", "gcCount", "gcTime");
+
+  private final Path path;
+  private final FileChannel channel;
+
+  /** The results read from the journal when it was opened, mapped by their keys */
+  private final Map<String, ErrorSet> entries = new HashMap<>();
+
+  private RunJournal(Path path, FileChannel channel) {
+    this.path = path;
+    this.channel = channel;
+  }
+
+  /** Creates a new empty journal. Fails if the file already exists */
+  public static RunJournal create(Path path) throws IOException {
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    return new RunJournal(path, channel);
+  }
+
+  /** Opens an existing journal, reads the results it contains, and prepares it for appending new ones */
+  public static RunJournal resume(Path path) throws IOException {
+    final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    final RunJournal journal = new RunJournal(path, channel);
+    for (final String line: lines) {
+      journal.load(line);
+    }
+    if (channel.size() > 0 && !endsWithNewLine(path)) {
+      journal.append("\n"); // The last line was not finished, don't let the next one join it
+    }
+    return journal;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /** Returns the number of results read from the journal when it was opened */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Returns the result recorded for the given combination, seed and configuration, or null if there is none */
+  public ErrorSet find(Combination combination, long seed, String configHash) {
+    return entries.get(key(combination, seed, configHash));
+  }
+
+  /** Appends the result for the given combination to the journal and forces it to the storage device */
+  public synchronized void record(Combination combination, long seed, String configHash, ErrorSet result)
+      throws IOException {
+    final Map<String, String> fields = keyFields(combination, seed, configHash);
+    fields.put("mse",       Double.toString(result.mse()));
+    fields.put("meanError", Double.toString(result.meanError()));
+    fields.put("maxError",  Double.toString(result.maxError()));
+    fields.put("time",      Long.toString(result.getTime()));
+    fields.put("timeHalfWidth", Double.toString(result.getTimeHalfWidth()));
+    fields.put("timedCount",    Long.toString(result.getTimedCount()));
+    fields.put("cpuTime",         Double.toString(result.getCpuTime()));
+    fields.put("allocatedBytes",  Double.toString(result.getAllocatedBytes()));
+    fields.put("gcCount",         Double.toString(result.getGcCount()));
+    fields.put("gcTime",          Double.toString(result.getGcTime()));
+    fields.put("timePercentiles", joinValues(result.getTimePercentiles()));
+    fields.put("msePercentiles",  joinValues(result.getMsePercentiles()));
+    if (result.getTimeHistogram() != null && result.getMseHistogram() != null) {
+      fields.put("timeHistogram", result.getTimeHistogram().encode());
+      fields.put("mseHistogram",  result.getMseHistogram().encode());
+    }
+
+    final StringBuilder line = new StringBuilder();
+    for (final Map.Entry<String, String> field: fields.entrySet()) {
+      if (line.length() > 0) {
+        line.append('\t');
+      }
+      line.append(field.getKey()).append('=').append(field.getValue());
+    }
+    append(line.append('\n').toString());
+    channel.force(true);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private void load(String line) {
+    final Map<String, String> fields = new HashMap<>();
+    for (final String pair: line.split("\t")) {
+      final int eq = pair.indexOf('=');
+      if (eq > 0) {
+        fields.put(pair.substring(0, eq), pair.substring(eq + 1));
+      }
+    }
+    if (!fields.keySet().containsAll(REQUIRED_FIELDS)) {
+      if (!line.isBlank()) {
+        say("Skipped an incomplete line in %s: %s", path, line);
+      }
+      return;
+    }
+    try {
+      final String key = key(fields.get("operation"), fields.get("matrixType"), fields.get("size"),
+                             fields.get("seed"), fields.get("config"));
+      final ErrorSet result = new ErrorSet(Double.parseDouble(fields.get("mse")),
+                                           Double.parseDouble(fields.get("meanError")),
+                                           Double.parseDouble(fields.get("maxError")))
+                                  .setTime(Long.parseLong(fields.get("time")));
+      if (fields.containsKey("timeHalfWidth") && fields.containsKey("timedCount")) { // Absent in older journals
+        result.setTimeConfidence(Double.parseDouble(fields.get("timeHalfWidth")),
+                                 Long.parseLong(fields.get("timedCount")));
+      }
+      if (fields.keySet().containsAll(RESOURCE_FIELDS)) {
+        result.setResourceUsage(Double.parseDouble(fields.get("cpuTime")),
+                                Double.parseDouble(fields.get("allocatedBytes")),
+                                Double.parseDouble(fields.get("gcCount")),
+                                Double.parseDouble(fields.get("gcTime")));
+      }
+      if (fields.containsKey("timePercentiles") && fields.containsKey("msePercentiles")) {
+        final double[] timePercentiles = parseValues(fields.get("timePercentiles"));
+        final double[] msePercentiles = parseValues(fields.get("msePercentiles"));
+        if (timePercentiles.length == LogHistogram.PERCENTILES.length   // Written with other percentiles otherwise
+            && msePercentiles.length == LogHistogram.PERCENTILES.length) {
+          result.setPercentiles(timePercentiles, msePercentiles);
+        }
+      }
+      if (fields.containsKey("timeHistogram") && fields.containsKey("mseHistogram")) { // Absent in older journals
+        result.setHistograms(LogHistogram.decode(fields.get("timeHistogram")),
+                             LogHistogram.decode(fields.get("mseHistogram")));
+      }
+      entries.put(key, result);
+    } catch (final NumberFormatException e) {
+      say("Skipped a malformed line in %s: %s", path, line);
+    }
+  }
+
+  private void append(String text) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static boolean endsWithNewLine(Path path) throws IOException {
+    try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer lastByte = ByteBuffer.allocate(1);
+      reader.read(lastByte, reader.size() - 1);
+      return lastByte.get(0) == '\n';
+    }
+  }
+
+  /** Values of the percentiles are written as a comma-separated list */
+  private static String joinValues(double[] values) {
+    final StringBuilder sb = new StringBuilder();
+    for (final double value: values) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(value);
+    }
+    return sb.toString();
+  }
+
+  private static double[] parseValues(String list) {
+    final String[] items = list.split(",");
+    final double[] values = new double[items.length];
+    for (int i = 0; i < items.length; i++) {
+      values[i] = Double.parseDouble(items[i]);
+    }
+    return values;
+  }
+
+  private static Map<String, String> keyFields(Combination combination, long seed, String configHash) {
+    final Map<String, String> fields = new LinkedHashMap<>();
+    fields.put("operation",   combination.operation().name());
+    fields.put("matrixType",  combination.matrixType().name());
+    fields.put("size",        Integer.toString(combination.size()));
+    fields.put("seed",        Long.toString(seed));
+    fields.put("config",      configHash);
+    return fields;
+  }
+
+  private static String key(Combination combination, long seed, String configHash) {
+    return key(combination.operation().name(), combination.matrixType().name(),
+               Integer.toString(combination.size()), Long.toString(seed), configHash);
+  }
+
+  private static String key(String operation, String matrixType, String size, String seed, String configHash) {
+    return String.join("/", operation, matrixType, size, seed, configHash);
+  }
+
+}
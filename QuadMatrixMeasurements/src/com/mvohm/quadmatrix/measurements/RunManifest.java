@@ -0,0 +1,190 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import com.mvohm.quadmatrix.BigDecimalMatrix;
+
+/**
+ * Describes the conditions of a run: the hardware, the OS, the JVM and its options, the versions
+ * of the libraries under test, and the configuration of the run, so that the results obtained
+ * on different hosts or with different settings can be told apart.
+ *
+ * It is written to {@code Results/manifest_YYMMDD_HHMM.json} at the start of every run.
+ * The CPU model and the number of physical cores are read from {@code /proc/cpuinfo} if it exists.
+ */
+public class RunManifest {
+
+  private static final Path CPU_INFO = Paths.get("/proc/cpuinfo");
+
+  private final Map<String, Object> entries = new LinkedHashMap<>();
+
+  private RunManifest() {
+  }
+
+  /** Collects the description of the current environment and the given configuration of the run */
+  public static RunManifest collect(String runId, Map<String, Object> config) {
+    final RunManifest manifest = new RunManifest();
+    manifest.entries.put("run", new LinkedHashMap<String, Object>() {{
+      put("id",         runId);
+      put("startTime",  OffsetDateTime.now().toString());
+      put("host",       hostName());
+    }});
+    manifest.entries.put("hardware", new LinkedHashMap<String, Object>() {{
+      put("cpuModel",           cpuModel());
+      put("physicalCores",      physicalCoreCount());
+      put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    }});
+    manifest.entries.put("os", new LinkedHashMap<String, Object>() {{
+      put("name",       System.getProperty("os.name"));
+      put("version",    System.getProperty("os.version"));
+      put("arch",       System.getProperty("os.arch"));
+    }});
+    manifest.entries.put("jvm", new LinkedHashMap<String, Object>() {{
+      put("name",             System.getProperty("java.vm.name"));
+      put("vendor",           System.getProperty("java.vm.vendor"));
+      put("version",          System.getProperty("java.runtime.version"));
+      put("arguments",        ManagementFactory.getRuntimeMXBean().getInputArguments());
+      put("maxHeapBytes",     Runtime.getRuntime().maxMemory());
+      put("garbageCollectors", garbageCollectorNames());
+    }});
+    manifest.entries.put("libraries", new LinkedHashMap<String, Object>() {{
+      put("QuadMatrix", libraryVersion(BigDecimalMatrix.class, "com.mvohm.quadmatrix", "QuadMatrix"));
+      put("Jama",       libraryVersion(Jama.Matrix.class, "gov.nist.math", "jama"));
+    }});
+    manifest.entries.put("config", config);
+    return manifest;
+  }
+
+  public Map<String, Object> entries() {
+    return entries;
+  }
+
+  /** Returns a line like "Intel Core i5-4460 3.20GHz" */
+  public String cpuDescription() {
+    return String.valueOf(section("hardware").get("cpuModel"));
+  }
+
+  /** Returns a line like "OpenJDK 64-Bit Server VM (build 21.0.3+12-LTS)" */
+  public String jvmDescription() {
+    final Map<String, Object> jvm = section("jvm");
+    return String.format("%s (build %s)", jvm.get("name"), jvm.get("version"));
+  }
+
+  public void write(Path path) throws IOException {
+    Files.writeString(path, ResultsExporter.toJson(entries) + System.lineSeparator(), StandardCharsets.UTF_8);
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> section(String name) {
+    return (Map<String, Object>)entries.get(name);
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (final IOException e) {
+      return "unknown";
+    }
+  }
+
+  private static String cpuModel() {
+    for (final String line: readCpuInfo()) {
+      if (line.startsWith("model name")) {
+        return line.substring(line.indexOf(':') + 1).trim();
+      }
+    }
+    final String identifier = System.getenv("PROCESSOR_IDENTIFIER"); // Windows
+    return identifier != null? identifier: System.getProperty("os.arch");
+  }
+
+  /** Counts the distinct pairs of physical id and core id in /proc/cpuinfo, returns null if unknown */
+  private static Integer physicalCoreCount() {
+    final Set<String> cores = new HashSet<>();
+    String physicalId = "";
+    for (final String line: readCpuInfo()) {
+      if (line.startsWith("physical id")) {
+        physicalId = line.substring(line.indexOf(':') + 1).trim();
+      } else if (line.startsWith("core id")) {
+        cores.add(physicalId + "/" + line.substring(line.indexOf(':') + 1).trim());
+      }
+    }
+    return cores.isEmpty()? null: cores.size();
+  }
+
+  private static List<String> readCpuInfo() {
+    try {
+      return Files.exists(CPU_INFO)? Files.readAllLines(CPU_INFO): List.of();
+    } catch (final IOException e) {
+      return List.of();
+    }
+  }
+
+  private static List<String> garbageCollectorNames() {
+    final List<String> names = new ArrayList<>();
+    for (final GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans()) {
+      names.add(bean.getName());
+    }
+    return names;
+  }
+
+  /**
+   * Finds the version of the library containing the given class, in its Maven properties or in its jar manifest.
+   * Returns "unknown" if neither contains it, e.g. when the classes are not packed in a jar
+   */
+  private static String libraryVersion(Class<?> libraryClass, String groupId, String artifactId) {
+    final String resource = String.format("/META-INF/maven/%s/%s/pom.properties", groupId, artifactId);
+    try (InputStream stream = libraryClass.getResourceAsStream(resource)) {
+      if (stream != null) {
+        final Properties properties = new Properties();
+        properties.load(stream);
+        final String version = properties.getProperty("version");
+        if (version != null) {
+          return version;
+        }
+      }
+    } catch (final IOException e) {
+      // Try the manifest
+    }
+    final String version = libraryClass.getPackage().getImplementationVersion();
+    return version != null? version: "unknown";
+  }
+
+}
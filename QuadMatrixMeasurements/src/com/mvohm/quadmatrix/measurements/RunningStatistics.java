@@ -0,0 +1,63 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+/**
+ * Running mean and variance of a series of values, computed with Welford's algorithm,
+ * without keeping the values themselves.
+ */
+public class RunningStatistics {
+
+  /** The quantile of the standard normal distribution for the two-sided 95% confidence interval */
+  public static final double Z_95 = 1.959964;
+
+  private long count;
+  private double mean;
+  private double sumOfSquaredDeviations;
+
+  public void add(double value) {
+    count++;
+    final double delta = value - mean;
+    mean += delta / count;
+    sumOfSquaredDeviations += delta * (value - mean);
+  }
+
+  public long count()   { return count; }
+  public double mean()  { return mean; }
+
+  /** The sample variance, or 0 if there are less than 2 values */
+  public double variance() {
+    return count < 2? 0: sumOfSquaredDeviations / (count - 1);
+  }
+
+  /** The half-width of the 95% confidence interval of the mean, or infinity if there are less than 2 values */
+  public double halfWidth() {
+    return count < 2? Double.POSITIVE_INFINITY: Z_95 * Math.sqrt(variance() / count);
+  }
+
+  /** The half-width of the 95% confidence interval of the mean divided by the mean */
+  public double relativeHalfWidth() {
+    return safelyDivide(halfWidth(), Math.abs(mean), Double.POSITIVE_INFINITY);
+  }
+
+  private static double safelyDivide(double divisor, double dividend, double resultForDivisionByZero) {
+    return AuxMethods.safelyDivide(divisor, dividend, resultForDivisionByZero);
+  }
+
+}
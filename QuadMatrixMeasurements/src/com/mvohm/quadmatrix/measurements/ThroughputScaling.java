@@ -0,0 +1,197 @@
+/*
+
+ Copyright 2021-2025 M.Vokhmentsev
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+
+*/
+
+package com.mvohm.quadmatrix.measurements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.mvohm.quadmatrix.measurements.CollectStatistics.DataGenerator;
+import com.mvohm.quadmatrix.measurements.CollectStatistics.GeneratorMaker;
+import com.mvohm.quadmatrix.measurements.OperationKernels.Kernel;
+import com.mvohm.quadmatrix.measurements.OperationKernels.KernelMaker;
+import com.mvohm.quadmatrix.measurements.OperationKernels.MatrixMaker;
+
+/**
+ * Measures how the throughput of an operation grows with the number of threads performing it simultaneously.
+ *
+ * Every thread repeatedly performs the operation on a data set of its own, which is generated once beforehand,
+ * or, with {@code sharedInput}, on the same data set shared by all the threads (see {@link MatrixData#shareInputs()}).
+ * The threads run the bare library calls of {@link OperationKernels}: the operands are prepared before the start,
+ * and the results are not checked, the errors being found by the usual measurements.
+ * After a warmup, the threads run for the given time, and the number of the operations completed within it,
+ * the times of the operations, the memory they allocate, and the time taken by garbage collections are found.
+ *
+ * The throughput is the number of the operations completed within the measured interval divided by its length.
+ * Besides the operations, the interval includes only making a new matrix for each of them, which takes O(n^2) time,
+ * since the matrices cache their decompositions; the latency, the mean time of the operations alone, is reported separately.
+ * The contention between the threads for the memory bandwidth, the caches and the garbage collector
+ * makes the latency grow and the throughput lag behind the number of threads.
+ * The efficiency of scaling is the throughput divided by the number of threads
+ * and by the throughput of a single thread with the same kind of input.
+ */
+public class ThroughputScaling {
+
+  /** The results of running the operation on the given number of threads */
+  public record Result(int threadCount, boolean sharedInput, long operationCount,
+                       double opsPerSecond, double meanLatencyMs, double p99LatencyMs,
+                       double allocationMBPerSecond, double gcShare) {
+  }
+
+  private final GeneratorMaker generatorMaker;
+  private final KernelMaker kernelMaker;
+  private final int size;
+  private final long seed;
+  /** The precision of BigDecimal computations of the creating thread, set for every worker */
+  private final PrecisionContext precisionContext;
+
+  public ThroughputScaling(GeneratorMaker generatorMaker, KernelMaker kernelMaker, int size, long seed) {
+    this.generatorMaker = generatorMaker;
+    this.kernelMaker = kernelMaker;
+    this.size = size;
+    this.seed = seed;
+    this.precisionContext = PrecisionContext.current();
+  }
+
+  /** Returns 1, 2, 4 ... up to maxThreadCount, including maxThreadCount itself */
+  public static List<Integer> threadCounts(int maxThreadCount) {
+    final List<Integer> counts = new ArrayList<>();
+    for (int count = 1; count < maxThreadCount; count *= 2) {
+      counts.add(count);
+    }
+    counts.add(maxThreadCount);
+    return counts;
+  }
+
+  /** Runs the operation on the given number of threads for warmupMs and then for measureMs milliseconds */
+  public Result measure(int threadCount, boolean sharedInput, long warmupMs, long measureMs) {
+    final MatrixData[] dataSets = makeDataSets(threadCount, sharedInput);
+    final CyclicBarrier start = new CyclicBarrier(threadCount + 1);
+    final ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+    try {
+      final List<Future<Worker>> futures = new ArrayList<>();
+      for (final MatrixData dataSet: dataSets) {
+        final Worker worker = new Worker(dataSet);
+        futures.add(pool.submit(() -> worker.run(start, warmupMs, measureMs)));
+      }
+
+      start.await();
+      final ResourceMeter meter = new ResourceMeter();
+      Thread.sleep(warmupMs);
+      meter.start();
+      Thread.sleep(measureMs);
+      meter.stop();
+
+      final LogHistogram latencies = newLatencyHistogram();
+      long operationCount = 0, totalLatency = 0;
+      double allocatedBytes = 0;
+      for (final Future<Worker> future: futures) {
+        final Worker worker = future.get();
+        latencies.add(worker.latencies);
+        operationCount += worker.operationCount;
+        totalLatency += worker.totalLatency;
+        allocatedBytes += worker.allocatedBytes;
+      }
+
+      final double meanLatency = AuxMethods.safelyDivide(totalLatency, operationCount, Double.NaN);
+      final double seconds = measureMs * 1e-3;
+      return new Result(threadCount, sharedInput, operationCount,
+                        operationCount / seconds,
+                        meanLatency * 1e-6, latencies.percentile(99) * 1e-6,
+                        allocatedBytes * 1e-6 / seconds, meter.gcTime() / (double)measureMs);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while measuring the throughput", e);
+    } catch (final ExecutionException | BrokenBarrierException e) {
+      throw new RuntimeException("Measuring the throughput failed", e.getCause() == null? e: e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /* *************************************************************************
+  ******** Private methods ***************************************************
+  ***************************************************************************/
+
+  private MatrixData[] makeDataSets(int threadCount, boolean sharedInput) {
+    final MatrixData[] dataSets = new MatrixData[threadCount];
+    if (sharedInput) {
+      final MatrixData shared = generatorMaker.make(size, new Random(seed)).generate();
+      for (int i = 0; i < threadCount; i++) {
+        dataSets[i] = shared.shareInputs();
+      }
+    } else {
+      for (int i = 0; i < threadCount; i++) {
+        final DataGenerator generator = generatorMaker.make(size, new Random(seed + i));
+        dataSets[i] = generator.generate();
+      }
+    }
+    return dataSets;
+  }
+
+  private static LogHistogram newLatencyHistogram() {
+    return new LogHistogram(CollectStatistics.TIME_HISTOGRAM_LOWEST, CollectStatistics.TIME_HISTOGRAM_HIGHEST, 7);
+  }
+
+  /** Performs the operation over and over, counting the operations that end within the measured interval */
+  private class Worker {
+    private final MatrixData dataSet;
+    private final ResourceMeter meter = new ResourceMeter();
+    private final LogHistogram latencies = newLatencyHistogram();
+    private long operationCount, totalLatency;
+    private double allocatedBytes;
+    /** The result of the last operation, kept so that the operations can not be eliminated as dead code */
+    private Object lastResult;
+
+    Worker(MatrixData dataSet) {
+      this.dataSet = dataSet;
+    }
+
+    Worker run(CyclicBarrier start, long warmupMs, long measureMs) throws Exception {
+      PrecisionContext.setCurrent(precisionContext);
+      final MatrixMaker matrixMaker = kernelMaker.prepare(dataSet);
+      start.await();
+      final long measureStart = System.nanoTime() + warmupMs * 1_000_000;
+      final long measureEnd = measureStart + measureMs * 1_000_000;
+      while (System.nanoTime() < measureEnd) {
+        final Kernel kernel = matrixMaker.make();
+        meter.start();
+        lastResult = kernel.run();
+        final long latency = meter.stop();
+        final long end = System.nanoTime();
+        if (end >= measureStart && end <= measureEnd) {
+          operationCount++;
+          latencies.add(latency);
+          totalLatency += latency;
+          if (meter.allocatedBytes() > 0) {
+            allocatedBytes += meter.allocatedBytes();
+          }
+        }
+      }
+      return this;
+    }
+  }
+
+}
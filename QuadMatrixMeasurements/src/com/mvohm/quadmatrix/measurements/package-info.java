@@ -1,5 +1,5 @@
-/**
- * A simple utility to measure basic features of QuadMatrix
- */
-
-package com.mvohm.quadmatrix.measurements;
+/**
+ * A simple utility to measure basic features of QuadMatrix
+ */
+
+package com.mvohm.quadmatrix.measurements;